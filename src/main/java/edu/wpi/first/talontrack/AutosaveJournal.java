@@ -0,0 +1,325 @@
+package edu.wpi.first.talontrack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of edits that have not been saved yet, so they survive a
+ * crash. Each edit of a file appends a record holding its new contents and a
+ * sequence number; once contents are saved, a record marks every edit up to
+ * that sequence number as saved. Appending costs one small write and no
+ * rendering beyond the file contents, so it is cheap enough to do on every
+ * change.
+ *
+ * <p>
+ * Replaying the journal reads it once from start to end, keeping the latest
+ * unsaved contents of each file, so it takes time proportional to its size. A
+ * record torn by a crash fails its checksum and ends the replay. The journal is
+ * compacted down to the unsaved contents when it is opened, when it grows past
+ * a limit, and whenever everything has been saved.
+ *
+ * <p>
+ * Every method may be called from any thread. Once writing fails the journal
+ * logs a warning and stops recording, so editing is never interrupted.
+ */
+final class AutosaveJournal {
+  private static final Logger LOGGER = Logger.getLogger(AutosaveJournal.class.getName());
+
+  private static final int MAGIC = 0x54544a4c; // "TTJL"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 8;
+  private static final int RECORD_HEADER_BYTES = 8;
+  private static final byte CHANGED = 1;
+  private static final byte SAVED = 2;
+
+  private final Path file;
+  private final long compactBytes;
+  private final Map<Path, Entry> unsaved = new HashMap<>();
+  private long unsavedBytes;
+  private long sequence;
+  private long size;
+  private FileChannel channel;
+
+  private AutosaveJournal(Path file, long compactBytes) {
+    this.file = file;
+    this.compactBytes = compactBytes;
+  }
+
+  /**
+   * Opens a journal, replaying what an earlier session left in it.
+   *
+   * @param file         The journal file; created if it does not exist.
+   * @param compactBytes The size past which the journal is compacted.
+   * @return The journal.
+   * @throws IOException if the journal cannot be read or written.
+   */
+  static AutosaveJournal open(Path file, long compactBytes) throws IOException {
+    AutosaveJournal journal = new AutosaveJournal(file, compactBytes);
+    journal.replay();
+    journal.compact();
+    return journal;
+  }
+
+  /**
+   * Returns the latest unsaved contents of each file, in the order they were
+   * last changed.
+   *
+   * @return The unsaved contents by file.
+   */
+  synchronized Map<Path, byte[]> getUnsaved() {
+    List<Map.Entry<Path, Entry>> entries = new ArrayList<>(unsaved.entrySet());
+    entries.sort(Comparator.comparingLong(entry -> entry.getValue().sequence));
+    Map<Path, byte[]> contents = new LinkedHashMap<>();
+    for (Map.Entry<Path, Entry> entry : entries) {
+      contents.put(entry.getKey(), entry.getValue().contents);
+    }
+    return contents;
+  }
+
+  /**
+   * Returns the sequence number of the latest change. Contents rendered now
+   * include every change up to it.
+   *
+   * @return The sequence number.
+   */
+  synchronized long sequence() {
+    return sequence;
+  }
+
+  /**
+   * Records new unsaved contents of a file.
+   *
+   * @param target   The file that was changed.
+   * @param contents Its new contents.
+   */
+  synchronized void recordChange(Path target, byte[] contents) {
+    sequence++;
+    Entry previous = unsaved.put(target, new Entry(sequence, contents));
+    unsavedBytes += contents.length - (previous == null ? 0 : previous.contents.length);
+    append(record(CHANGED, sequence, target, contents));
+    if (size > compactBytes && size > 2 * unsavedBytes) {
+      compactOrClose();
+    }
+  }
+
+  /**
+   * Records that the contents of a file as of a sequence number are saved.
+   * Changes made after that sequence number stay unsaved.
+   *
+   * @param target   The file that was saved.
+   * @param sequence The {@link #sequence()} when its contents were rendered.
+   */
+  synchronized void recordSaved(Path target, long sequence) {
+    Entry entry = unsaved.get(target);
+    if (entry == null || entry.sequence > sequence) {
+      return;
+    }
+    unsaved.remove(target);
+    unsavedBytes -= entry.contents.length;
+    if (unsaved.isEmpty()) {
+      truncate();
+    } else {
+      append(record(SAVED, sequence, target, new byte[0]));
+    }
+  }
+
+  /**
+   * Forgets every unsaved change.
+   */
+  synchronized void clear() {
+    unsaved.clear();
+    unsavedBytes = 0;
+    truncate();
+  }
+
+  /**
+   * Closes the journal. Unsaved changes stay in the file.
+   */
+  synchronized void close() {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Could not close autosave journal " + file, e);
+      }
+      channel = null;
+    }
+  }
+
+  private void replay() throws IOException {
+    ByteBuffer buffer;
+    try {
+      buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+    } catch (NoSuchFileException e) {
+      return;
+    }
+    if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+      LOGGER.log(Level.WARNING, "Ignoring unreadable autosave journal " + file);
+      return;
+    }
+    CRC32 crc = new CRC32();
+    while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+      int start = buffer.position();
+      int length = buffer.getInt();
+      int checksum = buffer.getInt();
+      ByteBuffer payload = null;
+      if (length >= 1 + Long.BYTES + Integer.BYTES && length <= buffer.remaining()) {
+        payload = buffer.slice();
+        payload.limit(length);
+        crc.reset();
+        crc.update(payload.duplicate());
+      }
+      if (payload == null || (int) crc.getValue() != checksum) {
+        buffer.position(start);
+        break;
+      }
+      buffer.position(start + RECORD_HEADER_BYTES + length);
+
+      byte kind = payload.get();
+      long recordSequence = payload.getLong();
+      int targetLength = payload.getInt();
+      if (targetLength < 0 || targetLength > payload.remaining()) {
+        buffer.position(start);
+        break;
+      }
+      byte[] targetBytes = new byte[targetLength];
+      payload.get(targetBytes);
+      Path target = Paths.get(new String(targetBytes, StandardCharsets.UTF_8));
+      sequence = Math.max(sequence, recordSequence);
+      if (kind == CHANGED) {
+        byte[] contents = new byte[payload.remaining()];
+        payload.get(contents);
+        unsaved.put(target, new Entry(recordSequence, contents));
+      } else if (kind == SAVED) {
+        Entry entry = unsaved.get(target);
+        if (entry != null && entry.sequence <= recordSequence) {
+          unsaved.remove(target);
+        }
+      }
+    }
+    if (buffer.hasRemaining()) {
+      LOGGER.log(Level.WARNING, "Autosave journal " + file + " ends in a torn record, ignoring "
+          + buffer.remaining() + " bytes");
+    }
+    unsavedBytes = 0;
+    for (Entry entry : unsaved.values()) {
+      unsavedBytes += entry.contents.length;
+    }
+  }
+
+  /**
+   * Rewrites the journal with only the unsaved contents, through a temporary
+   * file moved over it.
+   */
+  private void compact() throws IOException {
+    close();
+    List<Map.Entry<Path, Entry>> entries = new ArrayList<>(unsaved.entrySet());
+    entries.sort(Comparator.comparingLong(entry -> entry.getValue().sequence));
+    Path directory = file.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        writeFully(out, header());
+        for (Map.Entry<Path, Entry> entry : entries) {
+          writeFully(out, record(CHANGED, entry.getValue().sequence, entry.getKey(), entry.getValue().contents));
+        }
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    size = channel.size();
+  }
+
+  private void compactOrClose() {
+    try {
+      compact();
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not compact autosave journal " + file + ", no longer recording", e);
+      close();
+    }
+  }
+
+  private void truncate() {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.truncate(HEADER_BYTES);
+      size = HEADER_BYTES;
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not truncate autosave journal " + file + ", no longer recording", e);
+      close();
+    }
+  }
+
+  private void append(ByteBuffer record) {
+    if (channel == null) {
+      return;
+    }
+    try {
+      size += writeFully(channel, record);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not append to autosave journal " + file + ", no longer recording", e);
+      close();
+    }
+  }
+
+  private static int writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+    int written = buffer.remaining();
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+    return written;
+  }
+
+  private static ByteBuffer header() {
+    return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+  }
+
+  private static ByteBuffer record(byte kind, long sequence, Path target, byte[] contents) {
+    byte[] targetBytes = target.toString().getBytes(StandardCharsets.UTF_8);
+    int length = 1 + Long.BYTES + Integer.BYTES + targetBytes.length + contents.length;
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+    buffer.putInt(length).putInt(0);
+    buffer.put(kind).putLong(sequence).putInt(targetBytes.length).put(targetBytes).put(contents);
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), RECORD_HEADER_BYTES, length);
+    buffer.putInt(Integer.BYTES, (int) crc.getValue());
+    return buffer.flip();
+  }
+
+  private static final class Entry {
+    private final long sequence;
+    private final byte[] contents;
+
+    private Entry(long sequence, byte[] contents) {
+      this.sequence = sequence;
+      this.contents = contents;
+    }
+  }
+}
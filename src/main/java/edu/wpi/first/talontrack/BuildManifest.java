@@ -0,0 +1,292 @@
+package edu.wpi.first.talontrack;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Record of the last build of each path, stored next to the output directory.
+ * An entry holds a hash of the .path file, a hash of the project preferences
+ * the export depends on, and a hash of each file the export wrote. A path whose
+ * hashes all still match does not need to be exported again, so its files are
+ * left untouched and the robot deploy does not upload them again.
+ *
+ * <p>
+ * The methods that read or update entries may be called from several build
+ * workers at once.
+ */
+public final class BuildManifest {
+  private static final Logger LOGGER = Logger.getLogger(BuildManifest.class.getName());
+
+  private static final String EXTENSION = ".manifest";
+  /**
+   * Bump whenever the export format changes, so paths exported by an older
+   * version are always exported again.
+   */
+  private static final int VERSION = 1;
+
+  private final Path file;
+  private final Path output;
+  private final Map<String, Entry> entries;
+
+  private BuildManifest(Path file, Path output, Map<String, Entry> entries) {
+    this.file = file;
+    this.output = output;
+    this.entries = entries;
+  }
+
+  /**
+   * Loads the manifest of an output directory. A missing, unreadable or outdated
+   * manifest loads as an empty one, so every path is exported again.
+   *
+   * @param output The output directory the paths are exported to.
+   * @return The manifest.
+   */
+  public static BuildManifest load(Path output) {
+    Path file = output.resolveSibling(output.getFileName() + EXTENSION);
+    Map<String, Entry> entries = new TreeMap<>();
+    try (Reader reader = Files.newBufferedReader(file)) {
+      Contents contents = new Gson().fromJson(reader, Contents.class);
+      if (contents != null && contents.version == VERSION && contents.paths != null) {
+        entries.putAll(contents.paths);
+      }
+    } catch (NoSuchFileException e) {
+      // Nothing has been built yet
+    } catch (IOException | JsonParseException e) {
+      LOGGER.log(Level.WARNING, "Could not read build manifest " + file, e);
+    }
+    return new BuildManifest(file, output, entries);
+  }
+
+  /**
+   * Computes the hash of the project preferences an export depends on.
+   *
+   * @param preferences The project preferences.
+   * @return The hex encoded hash.
+   */
+  public static String configHash(ProjectPreferences preferences) {
+    MessageDigest digest = newDigest();
+    ProjectPreferences.Values values = preferences.getValues();
+    try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+      out.writeInt(VERSION);
+      // The cache key of a path without waypoints covers every generation setting
+      out.writeUTF(TrajectoryCache.key(List.of(), preferences));
+      out.writeDouble(values.getExportTimestep());
+      ProjectPreferences.Decimation decimation = values.getDecimation();
+      out.writeBoolean(decimation != null);
+      if (decimation != null) {
+        out.writeDouble(decimation.getPosition());
+        out.writeDouble(decimation.getHeading());
+        out.writeDouble(decimation.getVelocity());
+        out.writeDouble(decimation.getAcceleration());
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not hash preferences", e);
+    }
+    return hex(digest.digest());
+  }
+
+  /**
+   * Computes the hash of the contents of a file.
+   *
+   * @param file The file.
+   * @return The hex encoded hash.
+   * @throws IOException if the file cannot be read.
+   */
+  public static String hashFile(Path file) throws IOException {
+    MessageDigest digest = newDigest();
+    try (InputStream in = Files.newInputStream(file)) {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) > 0) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return hex(digest.digest());
+  }
+
+  /**
+   * Returns whether the outputs of a path are up to date: the path and the
+   * preferences are unchanged since its last build, and each output still exists
+   * with the contents it was written with.
+   *
+   * @param pathName   The file name of the path.
+   * @param inputHash  The hash of the .path file.
+   * @param configHash The hash computed by {@link #configHash(ProjectPreferences)}.
+   * @param outputs    The files the export of the path writes.
+   * @return Whether the path can be skipped.
+   */
+  public boolean isUpToDate(String pathName, String inputHash, String configHash, List<Path> outputs) {
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(pathName);
+    }
+    if (entry == null || !inputHash.equals(entry.input) || !configHash.equals(entry.config)
+        || entry.outputs == null || entry.outputs.size() != outputs.size()) {
+      return false;
+    }
+    try {
+      for (Path output : outputs) {
+        String hash = entry.outputs.get(output.getFileName().toString());
+        if (hash == null || !Files.isRegularFile(output) || !hash.equals(hashFile(output))) {
+          return false;
+        }
+      }
+    } catch (IOException e) {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Records a successful build of a path.
+   *
+   * @param pathName   The file name of the path.
+   * @param inputHash  The hash of the .path file.
+   * @param configHash The hash computed by {@link #configHash(ProjectPreferences)}.
+   * @param outputs    The files the export of the path wrote, all in the output
+   *                   directory.
+   * @throws IOException if an output cannot be read.
+   */
+  public void record(String pathName, String inputHash, String configHash, List<Path> outputs) throws IOException {
+    Entry entry = new Entry();
+    entry.input = inputHash;
+    entry.config = configHash;
+    entry.outputs = new TreeMap<>();
+    for (Path output : outputs) {
+      entry.outputs.put(output.getFileName().toString(), hashFile(output));
+    }
+    synchronized (this) {
+      entries.put(pathName, entry);
+    }
+  }
+
+  /**
+   * Forgets a path, so that it is exported again by the next build.
+   *
+   * @param pathName The file name of the path.
+   */
+  public synchronized void remove(String pathName) {
+    entries.remove(pathName);
+  }
+
+  /**
+   * Deletes the outputs of every recorded path that is no longer in the project.
+   * Only files the manifest recorded are deleted.
+   *
+   * @param pathNames The file names of the paths in the project.
+   * @return The deleted files.
+   */
+  public synchronized List<Path> removeStale(Collection<String> pathNames) {
+    Set<String> current = new HashSet<>(pathNames);
+    List<Path> deleted = new ArrayList<>();
+    var iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      var entry = iterator.next();
+      if (current.contains(entry.getKey())) {
+        continue;
+      }
+      boolean removed = true;
+      if (entry.getValue().outputs != null) {
+        for (String name : entry.getValue().outputs.keySet()) {
+          Path stale = output.resolve(name);
+          try {
+            if (Files.deleteIfExists(stale)) {
+              deleted.add(stale);
+            }
+          } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not delete " + stale, e);
+            removed = false;
+          }
+        }
+      }
+      if (removed) {
+        iterator.remove();
+      }
+    }
+    return deleted;
+  }
+
+  /**
+   * Writes the manifest. It is written to a temporary file and moved into place,
+   * so an interrupted write leaves the previous manifest intact.
+   */
+  public synchronized void save() {
+    Contents contents = new Contents();
+    contents.version = VERSION;
+    contents.paths = entries;
+    Path temp = null;
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+        new GsonBuilder().setPrettyPrinting().create().toJson(contents, writer);
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not write build manifest " + file, e);
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+          // Nothing else to clean up
+        }
+      }
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder();
+    for (byte b : bytes) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  private static final class Contents {
+    private int version;
+    private Map<String, Entry> paths;
+  }
+
+  private static final class Entry {
+    private String input;
+    private String config;
+    private Map<String, String> outputs;
+  }
+}
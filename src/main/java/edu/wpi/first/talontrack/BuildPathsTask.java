@@ -0,0 +1,233 @@
+package edu.wpi.first.talontrack;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectory;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryInstance;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryUtil;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.TrajectoryBinary;
+import edu.wpi.first.talontrack.path.Path;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+/**
+ * Builds the paths of an auton off the JavaFX application thread. Each path is
+ * imported, generated and exported on a pool of worker threads, so a project
+ * with many paths builds in roughly the time of its slowest path and the UI
+ * stays responsive meanwhile.
+ *
+ * <p>
+ * Progress is reported through the usual {@link Task} properties, with the
+ * message naming the last path that finished. Paths that could not be built
+ * are added to {@link #getFailures()} on the JavaFX application thread as they
+ * fail. The value of the task is the exported trajectories in the order the
+ * paths were given, whatever order they finished in, so they can be registered
+ * in {@link edu.wpi.first.talontrack.global.PathExports} once the task
+ * succeeds.
+ *
+ * <p>
+ * Builds are incremental. A path whose {@link BuildManifest} entry is still up
+ * to date is not exported again; its files keep their contents and
+ * modification times, and its trajectory is loaded from the
+ * {@link TrajectoryCache} at full resolution rather than read back from the
+ * export, which may be resampled or decimated. A path whose trajectory is not
+ * in the cache is exported again. The outputs
+ * of paths that are no longer in the project are deleted, and once every path
+ * has been built the {@link TrajectoryCache} entries no path uses any more are
+ * deleted too.
+ *
+ * <p>
+ * Cancelling the task stops paths that have not started yet and interrupts the
+ * workers; the files of paths that already finished are left in place. The
+ * task is CANCELLED as soon as it is asked to stop, but call() only returns
+ * once the workers have stopped, or after {@value #WORKER_SHUTDOWN_SECONDS}
+ * seconds, and the manifest has been saved. Callers should not start another
+ * build into the same directory before then.
+ */
+public class BuildPathsTask extends Task<List<PratsTrajectoryInstance>> {
+  private static final Logger LOGGER = Logger.getLogger(BuildPathsTask.class.getName());
+  private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+  private static final long WORKER_SHUTDOWN_SECONDS = 10;
+
+  private final String pathDirectory;
+  private final List<String> pathNames;
+  private final java.nio.file.Path output;
+  private final ProjectPreferences preferences;
+  private final TrajectoryCache cache;
+  private final String configHash;
+  private final Set<String> cacheKeys = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger skipped = new AtomicInteger();
+  private final ObservableList<String> failures = FXCollections.observableArrayList();
+
+  /**
+   * Creates a task that builds paths.
+   *
+   * @param pathDirectory The directory holding the path files.
+   * @param pathNames     The file names of the paths to build, in auton order.
+   * @param output        The directory to export the trajectories to.
+   */
+  public BuildPathsTask(String pathDirectory, List<String> pathNames, java.nio.file.Path output) {
+    this.pathDirectory = pathDirectory;
+    this.pathNames = List.copyOf(pathNames);
+    this.output = output;
+    this.preferences = ProjectPreferences.getInstance();
+    this.cache = TrajectoryCache.forProject(preferences);
+    this.configHash = BuildManifest.configHash(preferences);
+  }
+
+  /**
+   * Returns a description of each path that could not be built. The list is only
+   * modified on the JavaFX application thread.
+   *
+   * @return The failures so far.
+   */
+  public ObservableList<String> getFailures() {
+    return failures;
+  }
+
+  @Override
+  protected List<PratsTrajectoryInstance> call() throws Exception {
+    final int total = pathNames.size();
+    updateProgress(0, total);
+    BuildManifest manifest = BuildManifest.load(output);
+    for (java.nio.file.Path stale : manifest.removeStale(pathNames)) {
+      LOGGER.log(Level.INFO, "Deleted " + stale + ", its path no longer exists");
+    }
+    int threads = Math.max(1, Math.min(total, Runtime.getRuntime().availableProcessors()));
+    ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "Path build worker " + WORKER_COUNT.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      CompletionService<Integer> completion = new ExecutorCompletionService<>(pool);
+      PratsTrajectoryInstance[] trajectories = new PratsTrajectoryInstance[total];
+      for (int i = 0; i < total; i++) {
+        final int index = i;
+        completion.submit(() -> {
+          trajectories[index] = build(manifest, pathNames.get(index));
+          return index;
+        });
+      }
+
+      for (int done = 1; done <= total; done++) {
+        // Throws InterruptedException once the task is cancelled
+        int index = completion.take().get();
+        updateProgress(done, total);
+        updateMessage(pathNames.get(index));
+      }
+
+      // Future.get() makes the workers' writes visible here
+      List<PratsTrajectoryInstance> built = new ArrayList<>(total);
+      for (PratsTrajectoryInstance trajectory : trajectories) {
+        if (trajectory != null) {
+          built.add(trajectory);
+        }
+      }
+      LOGGER.log(Level.INFO, "Built " + (total - skipped.get()) + " paths, " + skipped.get() + " were up to date");
+      int pruned = cache.retain(cacheKeys);
+      if (pruned > 0) {
+        LOGGER.log(Level.INFO, "Deleted " + pruned + " cached trajectories no path uses");
+      }
+      return built;
+    } finally {
+      pool.shutdownNow();
+      // Wait for interrupted workers, so none records a path after the save or
+      // writes a file once the task has ended
+      if (!awaitWorkers(pool)) {
+        LOGGER.log(Level.WARNING, "Path build workers did not stop within " + WORKER_SHUTDOWN_SECONDS + " seconds");
+      }
+      // Keep the paths built so far, even when cancelled
+      manifest.save();
+    }
+  }
+
+  private static boolean awaitWorkers(ExecutorService pool) {
+    // Cancelling interrupts this thread too; clear that so it can still wait,
+    // and restore it afterwards
+    boolean interrupted = Thread.interrupted();
+    try {
+      return pool.awaitTermination(WORKER_SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      interrupted = true;
+      return false;
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private PratsTrajectoryInstance build(BuildManifest manifest, String pathName) {
+    if (isCancelled()) {
+      return null;
+    }
+    try {
+      String inputHash = BuildManifest.hashFile(Paths.get(pathDirectory, pathName));
+      Path path = PathIOUtil.importPath(pathDirectory, pathName);
+      if (path == null) {
+        manifest.remove(pathName);
+        fail(pathName + ": could not read " + pathDirectory + pathName);
+        return null;
+      }
+      String cacheKey = TrajectoryCache.key(path.getWaypoints(), preferences);
+      cacheKeys.add(cacheKey);
+      if (isCancelled()) {
+        return null;
+      }
+      java.nio.file.Path pathNameFile = output.resolve(path.getPathNameNoExtension());
+      java.nio.file.Path jsonPath = output.resolve(pathNameFile.getFileName() + ".wpilib.json");
+      List<java.nio.file.Path> outputs = new ArrayList<>(List.of(jsonPath,
+          output.resolve(pathNameFile.getFileName() + TrajectoryBinary.kExtension)));
+      if (preferences.getValues().getExportTimestep() > 0) {
+        outputs.add(output.resolve(pathNameFile.getFileName() + PratsTrajectoryUtil.kUniformExtension));
+      }
+      if (manifest.isUpToDate(pathName, inputHash, configHash, outputs)) {
+        PratsTrajectory cached = cache.load(cacheKey);
+        if (cached != null) {
+          skipped.incrementAndGet();
+          return new PratsTrajectoryInstance(cached, jsonPath.getFileName().toString());
+        }
+        LOGGER.log(Level.INFO, pathName + " is up to date but not cached, exporting it again");
+      }
+
+      PratsTrajectoryInstance trajectory = path.getSpline().export(pathNameFile);
+      if (trajectory == null) {
+        manifest.remove(pathName);
+        fail(pathName + ": could not export to " + pathNameFile.toAbsolutePath());
+      } else {
+        manifest.record(pathName, inputHash, configHash, outputs);
+      }
+      return trajectory;
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not build " + pathName, e);
+      manifest.remove(pathName);
+      fail(pathName + ": " + e.getMessage());
+      return null;
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Could not build " + pathName, e);
+      manifest.remove(pathName);
+      fail(pathName + ": " + e);
+      return null;
+    }
+  }
+
+  private void fail(String message) {
+    Platform.runLater(() -> failures.add(message));
+  }
+}
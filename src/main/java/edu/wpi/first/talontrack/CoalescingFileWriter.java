@@ -0,0 +1,156 @@
+package edu.wpi.first.talontrack;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes files on a background thread. Contents submitted for the same file
+ * within the window of the first pending write replace each other, so only the
+ * latest contents are written however often a file is saved while it is being
+ * edited. Each file is written to a temporary file and moved into place, so a
+ * crash mid-write leaves the previous contents intact.
+ *
+ * <p>
+ * Callers render the contents before submitting them; the writer never reads
+ * the objects being saved, so they may keep changing on the JavaFX application
+ * thread.
+ */
+final class CoalescingFileWriter {
+  private static final Logger LOGGER = Logger.getLogger(CoalescingFileWriter.class.getName());
+
+  private final long windowMillis;
+  private final ScheduledExecutorService executor;
+  // Guarded by this
+  private final Map<Path, Pending> pending = new LinkedHashMap<>();
+  private boolean scheduled;
+
+  /**
+   * Creates a writer.
+   *
+   * @param name         The name of the writer thread.
+   * @param windowMillis How long a write waits for newer contents of the same
+   *                     file, in milliseconds.
+   */
+  CoalescingFileWriter(String name, long windowMillis) {
+    this.windowMillis = windowMillis;
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Queues contents to be written to a file, replacing any contents still
+   * pending for it. Returns without touching the disk.
+   *
+   * @param file     The file to write.
+   * @param contents The contents of the file.
+   */
+  void submit(Path file, byte[] contents) {
+    submit(file, contents, null);
+  }
+
+  /**
+   * Queues contents to be written to a file, replacing any contents still
+   * pending for it. Returns without touching the disk.
+   *
+   * @param file      The file to write.
+   * @param contents  The contents of the file.
+   * @param onWritten Run on the writer thread once these or newer contents of
+   *                  the file are written, or null. Not run if the write fails.
+   */
+  void submit(Path file, byte[] contents, Runnable onWritten) {
+    synchronized (this) {
+      Pending write = pending.computeIfAbsent(file, key -> new Pending());
+      write.contents = contents;
+      if (onWritten != null) {
+        write.onWritten.add(onWritten);
+      }
+      if (scheduled) {
+        return;
+      }
+      scheduled = true;
+    }
+    executor.schedule(this::writePending, windowMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Writes every pending file now and waits until they, and any write already in
+   * progress, are on disk.
+   */
+  void flush() {
+    try {
+      executor.submit(this::writePending).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      LOGGER.log(Level.WARNING, "Could not flush pending writes", e.getCause());
+    }
+  }
+
+  private void writePending() {
+    Map<Path, Pending> batch;
+    synchronized (this) {
+      batch = new LinkedHashMap<>(pending);
+      pending.clear();
+      scheduled = false;
+    }
+    batch.forEach((file, write) -> {
+      if (write(file, write.contents)) {
+        write.onWritten.forEach(Runnable::run);
+      }
+    });
+  }
+
+  /**
+   * Writes a file through a temporary file in the same directory that is then
+   * moved over it.
+   *
+   * @param file     The file to write.
+   * @param contents The contents of the file.
+   * @return true if the file was written.
+   */
+  static boolean write(Path file, byte[] contents) {
+    Path temp = null;
+    try {
+      Path directory = file.toAbsolutePath().getParent();
+      temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      Files.write(temp, contents);
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return true;
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not write " + file, e);
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+          // Nothing more to do; the temporary file is never read.
+        }
+      }
+      return false;
+    }
+  }
+
+  private static final class Pending {
+    private byte[] contents;
+    private final List<Runnable> onWritten = new ArrayList<>();
+  }
+}
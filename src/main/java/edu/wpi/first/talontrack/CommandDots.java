@@ -1,8 +1,11 @@
 package edu.wpi.first.talontrack;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryInstance;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.TrajectorySampler;
 import edu.wpi.first.talontrack.ProjectPreferences.Values;
 import edu.wpi.first.talontrack.global.PathExports;
 import javafx.beans.property.BooleanProperty;
@@ -22,6 +25,11 @@ public class CommandDots {
   private Circle startCircle;
   private Circle finishCircle;
   private List<PratsTrajectoryInstance> trajs;
+  // Kept across updates, one cursor per dot, so dragging an instance along the
+  // timeline moves each cursor a few states instead of searching again.
+  private final Map<PratsTrajectoryInstance, TrajectorySampler> startSamplers = new HashMap<>();
+  private final Map<PratsTrajectoryInstance, TrajectorySampler> finishSamplers = new HashMap<>();
+  private final TrajectorySampler.MutableState sampled = new TrajectorySampler.MutableState();
   private CommandInstance inst;
   private Values vals;
   double fieldHeight;
@@ -55,27 +63,36 @@ public class CommandDots {
     finishX.set(0);
     finishY.set(0);
     finishVis.set(false);
+    // Drop the samplers of trajectories replaced by a rebuild
+    startSamplers.keySet().retainAll(trajs);
+    finishSamplers.keySet().retainAll(trajs);
     for (int k = 0; k < trajs.size(); k++) {
-      if ((startTime <= trajs.get(k).getFinishTime())
-          && (startTime >= trajs.get(k).getStartTime())) {
-        startX.set(trajs.get(k).getPratsTrajRaw().sample((startTime -
-            trajs.get(k).getStartTime())).poseMeters.getX());
-        startY.set(fieldHeight - trajs.get(k).getPratsTrajRaw().sample(
-            (startTime - trajs.get(k).getStartTime())).poseMeters.getY());
+      PratsTrajectoryInstance traj = trajs.get(k);
+      boolean startInside = (startTime <= traj.getFinishTime()) && (startTime >= traj.getStartTime());
+      boolean finishInside = (finishTime <= traj.getFinishTime()) && (finishTime >= traj.getStartTime());
+      if (!startInside && !finishInside) {
+        continue;
+      }
+      if (startInside) {
+        getSampler(startSamplers, traj).sample(startTime - traj.getStartTime(), sampled);
+        startX.set(sampled.xMeters);
+        startY.set(fieldHeight - sampled.yMeters);
         startVis.set(true);
       }
-      if ((finishTime <= trajs.get(k).getFinishTime())
-          && (finishTime >= trajs.get(k).getStartTime())) {
-        finishX
-            .set(trajs.get(k).getPratsTrajRaw().sample((finishTime -
-                trajs.get(k).getStartTime())).poseMeters.getX());
-        finishY.set(fieldHeight - trajs.get(k).getPratsTrajRaw().sample(
-            (finishTime - trajs.get(k).getStartTime())).poseMeters.getY());
+      if (finishInside) {
+        getSampler(finishSamplers, traj).sample(finishTime - traj.getStartTime(), sampled);
+        finishX.set(sampled.xMeters);
+        finishY.set(fieldHeight - sampled.yMeters);
         finishVis.set(true);
       }
     }
   }
 
+  private static TrajectorySampler getSampler(Map<PratsTrajectoryInstance, TrajectorySampler> samplers,
+      PratsTrajectoryInstance traj) {
+    return samplers.computeIfAbsent(traj, t -> new TrajectorySampler(t.getPratsTrajRaw()));
+  }
+
   public Group getGroup() {
     return new Group(startCircle, finishCircle);
   }
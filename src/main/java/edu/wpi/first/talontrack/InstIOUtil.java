@@ -9,9 +9,10 @@ import edu.wpi.first.talontrack.global.CurrentSelections;
 import edu.wpi.first.talontrack.path.Path;
 import edu.wpi.first.talontrack.path.wpilib.WpilibPath;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -39,23 +40,35 @@ public final class InstIOUtil {
    * @return true if successful file write was preformed
    */
   public static boolean export(String fileLocation, CommandInstance inst) {
-    try (
-        BufferedWriter writer = Files.newBufferedWriter(Paths.get(fileLocation + inst.getName()));
+    try {
+      return CoalescingFileWriter.write(Paths.get(fileLocation + inst.getName()),
+          toCsv(inst).getBytes(StandardCharsets.UTF_8));
+    } catch (IOException except) {
+      LOGGER.log(Level.WARNING, "Could not save Inst file", except);
+      return false;
+    }
+  }
 
-        CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT
-            .withHeader(getKeysFromHash(inst.getMap())))) {
+  /**
+   * Renders a command instance as the contents of its csv file.
+   *
+   * @param inst Command instance to render
+   *
+   * @return the csv contents
+   * @throws IOException if the instance cannot be rendered
+   */
+  public static String toCsv(CommandInstance inst) throws IOException {
+    StringWriter writer = new StringWriter();
+    try (CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT
+        .withHeader(getKeysFromHash(inst.getMap())))) {
       double start = inst.getStart();
       double finish = inst.getFinish();
       String name = inst.getName();
       String parentName = inst.getParent().getName();
       Object[] hash = getObjFromHash(inst);
       csvPrinter.printRecord(start, finish, name, parentName, hash[0], hash[1], hash[2], hash[3], hash[4], hash[5]);
-      csvPrinter.flush();
-    } catch (IOException except) {
-      LOGGER.log(Level.WARNING, "Could not save Inst file", except);
-      return false;
     }
-    return true;
+    return writer.toString();
   }
 
   /**
@@ -68,6 +81,8 @@ public final class InstIOUtil {
    */
   public static CommandInstance importInstance(String fileLocation, String fileName) {
     k = 0;
+    // Read what was last saved, even if it is still being written
+    SaveManager.getInstance().flush();
     try (Reader reader = Files.newBufferedReader(java.nio.file.Path.of(fileLocation, fileName));
         CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
             .withFirstRecordAsHeader()
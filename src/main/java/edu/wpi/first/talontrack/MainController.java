@@ -13,6 +13,8 @@ import edu.wpi.first.talontrack.global.PathExports;
 import edu.wpi.first.talontrack.global.Timeline;
 import edu.wpi.first.talontrack.path.Path;
 import edu.wpi.first.talontrack.path.wpilib.WpilibPath;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
@@ -120,6 +122,7 @@ public class MainController {
   private List<CommandInstance> commandInstancesArr = new ArrayList<CommandInstance>();
 
   private static boolean pathBuilt = false;
+  private BuildPathsTask buildTask;
   private TreeItem<String> curInstItem = new TreeItem<>();
   private ChangeListener<CommandInstance> timelineListener;
 
@@ -156,6 +159,9 @@ public class MainController {
       e.printStackTrace();
     }
 
+    // Restore edits a crash left unsaved before any file is read
+    SaveManager.getInstance().openJournal();
+
     MainIOUtil.setupItemsInDirectory(pathDirectory, pathRoot);
     MainIOUtil.setupItemsInDirectory(autonDirectory, autonRoot);
     MainIOUtil.setupItemsInDirectory(commandDirectory, tempRoot);
@@ -614,31 +620,49 @@ public class MainController {
   @FXML
 
   private void buildPaths() {
+    if (buildTask != null) {
+      buildTask.cancel();
+      // The build keeps running until its workers have stopped; endBuild() is
+      // called once it has, so another build cannot write the same files
+      buildBtn.textProperty().unbind();
+      buildBtn.setText("Cancelling Build");
+      buildBtn.setDisable(true);
+      return;
+    }
     if (autonSelected) {
-      if (!pathBuilt) {
-        if (!SaveManager.getInstance().promptSaveAll()) {
-          return;
-        }
-
-        PathExports.clearTrajs();
-
-        java.nio.file.Path output = ProjectPreferences.getInstance().getOutputDir().toPath();
-        try {
-          Files.createDirectories(output);
-        } catch (IOException e) {
-          LOGGER.log(Level.WARNING, "Could not export to " + output, e);
-        }
-        for (TreeItem<String> pathName : pathRoot.getChildren()) {
-          Path path = PathIOUtil.importPath(pathDirectory, pathName.getValue());
+      if (pathBuilt) {
+        togglePathBuilt();
+        return;
+      }
+      if (!SaveManager.getInstance().promptSaveAll()) {
+        return;
+      }
 
-          java.nio.file.Path pathNameFile = output.resolve(path.getPathNameNoExtension());
+      java.nio.file.Path output = ProjectPreferences.getInstance().getOutputDir().toPath();
+      try {
+        Files.createDirectories(output);
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Could not export to " + output, e);
+      }
+      List<String> pathNames = new ArrayList<>();
+      for (TreeItem<String> pathName : pathRoot.getChildren()) {
+        pathNames.add(pathName.getValue());
+      }
 
-          if (!path.getSpline().writeToFile(pathNameFile)) {
-            Alert alert = new Alert(Alert.AlertType.WARNING);
-            FxUtils.applyDarkMode(alert);
-            alert.setTitle("Path export failure!");
-            alert.setContentText("Could not export to: " + output.toAbsolutePath());
-          }
+      BuildPathsTask task = new BuildPathsTask(pathDirectory, pathNames, output);
+      task.setOnSucceeded(event -> {
+        endBuild();
+        PathExports.clearTrajs();
+        task.getValue().forEach(PathExports::addTrajectory);
+        PathExports.initialize();
+        if (!task.getFailures().isEmpty()) {
+          Alert alert = new Alert(Alert.AlertType.WARNING);
+          FxUtils.applyDarkMode(alert);
+          alert.setTitle("Path export failure!");
+          alert.setHeaderText("Could not export " + task.getFailures().size() + " of " + pathNames.size()
+              + " paths");
+          alert.setContentText(String.join("\n", task.getFailures()));
+          alert.show();
         }
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         FxUtils.applyDarkMode(alert);
@@ -646,22 +670,29 @@ public class MainController {
         alert.setHeaderText("Path Built");
         alert.setContentText("Paths exported to: " + output.toAbsolutePath());
         alert.show();
-        PathExports.initialize();
-      }
-
-      pathBuilt = !pathBuilt;
-      setPaneExpansions();
-      buildBtn.setText(pathBuilt ? "Build Commands" : "Build Paths");
-      fieldDisplayController.getPathList().forEach(pl -> pl.getWaypoints().forEach(w -> w.setLineVisible(!pathBuilt)));
-      if (pathBuilt) {
-        fieldDisplayController.addDots();
-      } else {
-        fieldDisplayController.removeDots();
-      }
-      Timeline.create(commandTemplatesArr, commandInstancesArr);
-      CurrentSelections.setCurPathlist(fieldDisplayController.getPathList());
-      timelineSwitch();
-      timelineController.fillTimeline();
+        togglePathBuilt();
+      });
+      task.setOnFailed(event -> {
+        LOGGER.log(Level.WARNING, "Could not build paths", task.getException());
+        endBuild();
+      });
+
+      buildTask = task;
+      buildBtn.textProperty().bind(Bindings.createStringBinding(
+          () -> String.format("Cancel Build (%d%%)", Math.round(Math.max(0, task.getProgress()) * 100)),
+          task.progressProperty()));
+      Thread thread = new Thread(() -> {
+        task.run();
+        // A cancelled task is CANCELLED as soon as it is asked to stop, before
+        // call() has returned
+        Platform.runLater(() -> {
+          if (task.isCancelled() && buildTask == task) {
+            endBuild();
+          }
+        });
+      }, "Path build");
+      thread.setDaemon(true);
+      thread.start();
     } else if (!autonSelected && !pathBuilt) {
       Alert alert = new Alert(Alert.AlertType.INFORMATION);
       FxUtils.applyDarkMode(alert);
@@ -673,6 +704,29 @@ public class MainController {
 
   }
 
+  private void endBuild() {
+    buildTask = null;
+    buildBtn.setDisable(false);
+    buildBtn.textProperty().unbind();
+    buildBtn.setText(pathBuilt ? "Build Commands" : "Build Paths");
+  }
+
+  private void togglePathBuilt() {
+    pathBuilt = !pathBuilt;
+    setPaneExpansions();
+    buildBtn.setText(pathBuilt ? "Build Commands" : "Build Paths");
+    fieldDisplayController.getPathList().forEach(pl -> pl.getWaypoints().forEach(w -> w.setLineVisible(!pathBuilt)));
+    if (pathBuilt) {
+      fieldDisplayController.addDots();
+    } else {
+      fieldDisplayController.removeDots();
+    }
+    Timeline.create(commandTemplatesArr, commandInstancesArr);
+    CurrentSelections.setCurPathlist(fieldDisplayController.getPathList());
+    timelineSwitch();
+    timelineController.fillTimeline();
+  }
+
   private void setupInstanceSelectionListener() {
     timelineListener = new ChangeListener<CommandInstance>() {
       @Override
@@ -707,6 +761,7 @@ public class MainController {
 
   @FXML
   private void editProject() {
+    SaveManager.getInstance().flush();
     if (timelineSwitch) {
       timelineSwitch();
       removeInstanceSelectionListener();
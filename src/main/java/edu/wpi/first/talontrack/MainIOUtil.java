@@ -117,6 +117,8 @@ public final class MainIOUtil {
    * @param newName   The new name of the file
    */
   public static void rename(String directory, TreeItem<String> item, String newName) {
+    // A save still being written would otherwise recreate the old file
+    SaveManager.getInstance().flush();
     File oldFile = new File(directory, item.getValue());
     File newFile = new File(directory, newName);
 
@@ -134,6 +136,8 @@ public final class MainIOUtil {
   }
 
   public static void renameInst(String directory, CommandInstance inst, String newName) {
+    // A save still being written would otherwise recreate the old file
+    SaveManager.getInstance().flush();
     File oldFile = new File(directory, inst.getName());
     File newFile = new File(directory, newName);
 
@@ -171,6 +175,8 @@ public final class MainIOUtil {
    * @param item      Item to delete
    */
   public static void deleteItem(String directory, TreeItem<String> item) {
+    // A save still being written would otherwise recreate the old file
+    SaveManager.getInstance().flush();
 
     File itemFile = new File(directory + item.getValue());
     if (itemFile.exists()) {
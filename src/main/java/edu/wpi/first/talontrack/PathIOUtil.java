@@ -8,9 +8,10 @@ import org.apache.commons.csv.CSVRecord;
 import edu.wpi.first.talontrack.path.Path;
 import edu.wpi.first.talontrack.path.wpilib.WpilibPath;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -34,12 +35,28 @@ public final class PathIOUtil {
    * @return true if successful file write was preformed
    */
   public static boolean export(String fileLocation, Path path) {
-    try (
-        BufferedWriter writer = Files.newBufferedWriter(Paths.get(fileLocation + path.getPathName()));
+    try {
+      return CoalescingFileWriter.write(Paths.get(fileLocation + path.getPathName()),
+          toCsv(path).getBytes(StandardCharsets.UTF_8));
+    } catch (IOException except) {
+      LOGGER.log(Level.WARNING, "Could not save Path file", except);
+      return false;
+    }
+  }
 
-        CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT
-            .withHeader("X", "Y", "Tangent X", "Tangent Y", "Heading X", "Heading Y", "Fixed Theta", "Reversed",
-                "Name"))) {
+  /**
+   * Renders path object as the contents of its csv file.
+   *
+   * @param path Path object to render
+   *
+   * @return the csv contents
+   * @throws IOException if the path cannot be rendered
+   */
+  public static String toCsv(Path path) throws IOException {
+    StringWriter writer = new StringWriter();
+    try (CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT
+        .withHeader("X", "Y", "Tangent X", "Tangent Y", "Heading X", "Heading Y", "Fixed Theta", "Reversed",
+            "Name"))) {
       for (Waypoint wp : path.getWaypoints()) {
         double xPos = wp.getX();
         double yPos = wp.getY();
@@ -51,12 +68,8 @@ public final class PathIOUtil {
         csvPrinter.printRecord(xPos, yPos, tangentX, tangentY, headingX, headingY, wp.isLockTangent(), wp.isReversed(),
             name);
       }
-      csvPrinter.flush();
-    } catch (IOException except) {
-      LOGGER.log(Level.WARNING, "Could not save Path file", except);
-      return false;
     }
-    return true;
+    return writer.toString();
   }
 
   /**
@@ -68,6 +81,8 @@ public final class PathIOUtil {
    * @return Path object saved in Path file
    */
   public static Path importPath(String fileLocation, String fileName) {
+    // Read what was last saved, even if it is still being written
+    SaveManager.getInstance().flush();
     try (Reader reader = Files.newBufferedReader(java.nio.file.Path.of(fileLocation, fileName));
         CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
             .withFirstRecordAsHeader()
@@ -0,0 +1,140 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+/**
+ * A trajectory read in place from a memory-mapped {@link TrajectoryBinary}
+ * file. Each column is a view of the mapping, so opening the file costs the
+ * same however long the trajectory is, and pages are only read once states on
+ * them are accessed.
+ *
+ * <p>
+ * The column getters read single values without allocating. As a
+ * {@link TrajectoryView} it can also be sampled, and {@link #materialize()}
+ * copies it into memory when it will be read many times.
+ */
+public final class MappedTrajectory extends TrajectoryView {
+  private final int m_size;
+  private final boolean m_uniform;
+  private final double m_dtSeconds;
+  private final DoubleBuffer m_timeSeconds;
+  private final DoubleBuffer m_velocityMetersPerSecond;
+  private final DoubleBuffer m_accelerationMetersPerSecondSq;
+  private final DoubleBuffer m_xMeters;
+  private final DoubleBuffer m_yMeters;
+  private final DoubleBuffer m_headingRadians;
+  private final DoubleBuffer m_tangentRadians;
+  private final DoubleBuffer m_curvatureRadPerMeter;
+
+  /** Checks the header of a mapped file and slices its columns. */
+  MappedTrajectory(ByteBuffer buffer, String name) {
+    if (buffer.getInt(0) != TrajectoryBinary.kMagic) {
+      throw new PratsTrajectoryUtil.TrajectorySerializationException(name + " is not a binary trajectory.");
+    }
+    final int version = buffer.getInt(4);
+    if (version != TrajectoryBinary.kVersion) {
+      throw new PratsTrajectoryUtil.TrajectorySerializationException(
+          name + " has version " + version + ", expected " + TrajectoryBinary.kVersion + ".");
+    }
+    m_uniform = (buffer.getInt(8) & TrajectoryBinary.kFlagUniform) != 0;
+    m_size = buffer.getInt(12);
+    m_dtSeconds = buffer.getDouble(16);
+    final long expectedBytes = TrajectoryBinary.kHeaderBytes
+        + (long) TrajectoryBinary.kColumns * Double.BYTES * m_size;
+    if (m_size < 0 || buffer.capacity() != expectedBytes) {
+      throw new PratsTrajectoryUtil.TrajectorySerializationException(
+          name + " does not hold the " + m_size + " states its header declares.");
+    }
+
+    m_timeSeconds = column(buffer, 0);
+    m_velocityMetersPerSecond = column(buffer, 1);
+    m_accelerationMetersPerSecondSq = column(buffer, 2);
+    m_xMeters = column(buffer, 3);
+    m_yMeters = column(buffer, 4);
+    m_headingRadians = column(buffer, 5);
+    m_tangentRadians = column(buffer, 6);
+    m_curvatureRadPerMeter = column(buffer, 7);
+  }
+
+  private DoubleBuffer column(ByteBuffer buffer, int column) {
+    final int start = TrajectoryBinary.kHeaderBytes + column * Double.BYTES * m_size;
+    return buffer.duplicate()
+        .order(buffer.order())
+        .position(start)
+        .limit(start + Double.BYTES * m_size)
+        .slice()
+        .order(buffer.order())
+        .asDoubleBuffer();
+  }
+
+  /**
+   * Returns whether the states are uniformly spaced in time.
+   *
+   * @return Whether the trajectory is uniform.
+   */
+  public boolean isUniform() {
+    return m_uniform;
+  }
+
+  /**
+   * Returns the timestep of a uniform trajectory. State i is the state at
+   * i * dtSeconds.
+   *
+   * @return The timestep, or 0 if the trajectory is not uniform.
+   */
+  public double getDtSeconds() {
+    return m_dtSeconds;
+  }
+
+  @Override
+  public int size() {
+    return m_size;
+  }
+
+  @Override
+  public double getTimeSeconds(int index) {
+    return m_timeSeconds.get(index);
+  }
+
+  public double getVelocityMetersPerSecond(int index) {
+    return m_velocityMetersPerSecond.get(index);
+  }
+
+  public double getAccelerationMetersPerSecondSq(int index) {
+    return m_accelerationMetersPerSecondSq.get(index);
+  }
+
+  public double getX(int index) {
+    return m_xMeters.get(index);
+  }
+
+  public double getY(int index) {
+    return m_yMeters.get(index);
+  }
+
+  public double getHeadingRadians(int index) {
+    return m_headingRadians.get(index);
+  }
+
+  public double getTangentRadians(int index) {
+    return m_tangentRadians.get(index);
+  }
+
+  public double getCurvatureRadPerMeter(int index) {
+    return m_curvatureRadPerMeter.get(index);
+  }
+
+  @Override
+  public PratsTrajectory.State getState(int index) {
+    return new PratsTrajectory.State(
+        getTimeSeconds(index),
+        getVelocityMetersPerSecond(index),
+        getAccelerationMetersPerSecondSq(index),
+        new PratsPose2d(getX(index), getY(index), new Rotation2d(getHeadingRadians(index)),
+            new Rotation2d(getTangentRadians(index))),
+        getCurvatureRadPerMeter(index));
+  }
+}
@@ -0,0 +1,246 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+/**
+ * Allocation-free versions of the {@link PratsPose2d} pose operations. Poses,
+ * transforms and twists are passed as primitives and results are written into
+ * caller-owned arrays, laid out by the index constants below, so a hot loop can
+ * reuse one scratch array instead of building poses, transforms, rotations and
+ * translations on every call.
+ *
+ * <p>
+ * Angles are in radians. Each operation follows the arithmetic of its
+ * PratsPose2d counterpart step by step, including how Rotation2d normalizes its
+ * results, so for poses whose rotations were built from radians the results are
+ * bit-for-bit the same. Rotations built from a cosine and sine may differ in the
+ * last bits, since here they are rebuilt from their angle.
+ */
+public final class PoseMath {
+  /** Index of the x position in a pose or transform. */
+  public static final int kX = 0;
+  /** Index of the y position in a pose or transform. */
+  public static final int kY = 1;
+  /** Index of the rotation in a pose or transform. */
+  public static final int kRotation = 2;
+  /** Index of the tangent in a pose or transform. */
+  public static final int kTangent = 3;
+  /** Minimum length of a pose or transform output array. */
+  public static final int kPoseSize = 4;
+
+  /** Index of dx in a twist. */
+  public static final int kDx = 0;
+  /** Index of dy in a twist. */
+  public static final int kDy = 1;
+  /** Index of dtheta in a twist. */
+  public static final int kDtheta = 2;
+  /** Minimum length of a twist output array. */
+  public static final int kTwistSize = 3;
+
+  /** Private constructor because this is a utility class. */
+  private PoseMath() {
+  }
+
+  /**
+   * Transforms a pose by a transform. See
+   * {@link PratsPose2d#pratsTransformBy(PratsTransform2d)}.
+   *
+   * @param x                 The x position of the pose.
+   * @param y                 The y position of the pose.
+   * @param rotation          The rotation of the pose.
+   * @param tangent           The tangent of the pose.
+   * @param transformX        The x translation of the transform.
+   * @param transformY        The y translation of the transform.
+   * @param transformRotation The rotation of the transform.
+   * @param transformTangent  The tangent of the transform.
+   * @param out               The pose to write into.
+   */
+  @SuppressWarnings({ "ParameterName", "ParameterNumber" })
+  public static void transformBy(
+      double x, double y, double rotation, double tangent,
+      double transformX, double transformY, double transformRotation, double transformTangent,
+      double[] out) {
+    final double cos = Math.cos(rotation);
+    final double sin = Math.sin(rotation);
+    out[kX] = x + (transformX * cos - transformY * sin);
+    out[kY] = y + (transformX * sin + transformY * cos);
+    out[kRotation] = rotate(rotation, transformRotation);
+    out[kTangent] = rotate(tangent, transformTangent);
+  }
+
+  /**
+   * Returns a pose relative to an origin pose. Like
+   * {@link PratsPose2d#pratsRelativeTo(PratsPose2d)}, this measures the change in
+   * tangent, and writes it as both the rotation and the tangent of the result.
+   *
+   * @param x             The x position of the pose.
+   * @param y             The y position of the pose.
+   * @param tangent       The tangent of the pose.
+   * @param originX       The x position of the origin.
+   * @param originY       The y position of the origin.
+   * @param originTangent The tangent of the origin.
+   * @param out           The pose to write into.
+   */
+  @SuppressWarnings("ParameterName")
+  public static void relativeTo(
+      double x, double y, double tangent,
+      double originX, double originY, double originTangent,
+      double[] out) {
+    final double cos = Math.cos(-originTangent);
+    final double sin = Math.sin(-originTangent);
+    final double dx = x - originX;
+    final double dy = y - originY;
+    out[kX] = dx * cos - dy * sin;
+    out[kY] = dx * sin + dy * cos;
+    out[kRotation] = rotate(tangent, -originTangent);
+    out[kTangent] = out[kRotation];
+  }
+
+  /**
+   * Moves a pose along a constant curvature twist. See
+   * {@link PratsPose2d#pratsExp(PratsTwist2d)}.
+   *
+   * @param x        The x position of the pose.
+   * @param y        The y position of the pose.
+   * @param rotation The rotation of the pose.
+   * @param tangent  The tangent of the pose.
+   * @param dx       The dx of the twist.
+   * @param dy       The dy of the twist.
+   * @param dtheta   The dtheta of the twist.
+   * @param out      The pose to write into.
+   */
+  @SuppressWarnings({ "ParameterName", "ParameterNumber" })
+  public static void exp(
+      double x, double y, double rotation, double tangent,
+      double dx, double dy, double dtheta,
+      double[] out) {
+    final double sinTheta = Math.sin(dtheta);
+    final double cosTheta = Math.cos(dtheta);
+
+    double s;
+    double c;
+    if (Math.abs(dtheta) < 1E-9) {
+      s = 1.0 - 1.0 / 6.0 * dtheta * dtheta;
+      c = 0.5 * dtheta;
+    } else {
+      s = sinTheta / dtheta;
+      c = (1 - cosTheta) / dtheta;
+    }
+    final double theta = angle(cosTheta, sinTheta);
+    transformBy(x, y, rotation, tangent, dx * s - dy * c, dx * c + dy * s, theta, theta, out);
+  }
+
+  /**
+   * Returns the twist that maps one pose to another. Like
+   * {@link PratsPose2d#pratsLog(PratsPose2d)}, this only depends on the
+   * positions and tangents of the poses.
+   *
+   * @param startX       The x position of the start pose.
+   * @param startY       The y position of the start pose.
+   * @param startTangent The tangent of the start pose.
+   * @param endX         The x position of the end pose.
+   * @param endY         The y position of the end pose.
+   * @param endTangent   The tangent of the end pose.
+   * @param out          The twist to write into.
+   */
+  @SuppressWarnings("ParameterName")
+  public static void log(
+      double startX, double startY, double startTangent,
+      double endX, double endY, double endTangent,
+      double[] out) {
+    final double cos = Math.cos(-startTangent);
+    final double sin = Math.sin(-startTangent);
+    final double worldDx = endX - startX;
+    final double worldDy = endY - startY;
+    final double transformX = worldDx * cos - worldDy * sin;
+    final double transformY = worldDx * sin + worldDy * cos;
+
+    // The rotation of the transform, kept as the normalized cosine and sine that
+    // Rotation2d holds rather than rebuilt from its angle.
+    final double endCos = Math.cos(endTangent);
+    final double endSin = Math.sin(endTangent);
+    double dthetaCos = endCos * cos - endSin * sin;
+    double dthetaSin = endCos * sin + endSin * cos;
+    final double magnitude = Math.hypot(dthetaCos, dthetaSin);
+    if (magnitude > 1e-6) {
+      dthetaSin /= magnitude;
+      dthetaCos /= magnitude;
+    } else {
+      dthetaSin = 0.0;
+      dthetaCos = 1.0;
+    }
+    final double dtheta = Math.atan2(dthetaSin, dthetaCos);
+    final double halfDtheta = dtheta / 2.0;
+
+    final double cosMinusOne = dthetaCos - 1;
+
+    double halfThetaByTanOfHalfDtheta;
+    if (Math.abs(cosMinusOne) < 1E-9) {
+      halfThetaByTanOfHalfDtheta = 1.0 - 1.0 / 12.0 * dtheta * dtheta;
+    } else {
+      halfThetaByTanOfHalfDtheta = -(halfDtheta * dthetaSin) / cosMinusOne;
+    }
+
+    // Rotate by the normalized (halfThetaByTanOfHalfDtheta, -halfDtheta) and
+    // scale by its length.
+    final double length = Math.hypot(halfThetaByTanOfHalfDtheta, halfDtheta);
+    double rotationCos;
+    double rotationSin;
+    if (length > 1e-6) {
+      rotationCos = halfThetaByTanOfHalfDtheta / length;
+      rotationSin = -halfDtheta / length;
+    } else {
+      rotationCos = 1.0;
+      rotationSin = 0.0;
+    }
+    out[kDx] = (transformX * rotationCos - transformY * rotationSin) * length;
+    out[kDy] = (transformX * rotationSin + transformY * rotationCos) * length;
+    out[kDtheta] = dtheta;
+  }
+
+  /**
+   * Interpolates between two poses by scaling the transform between them, the
+   * way trajectory states interpolate their poses. This is
+   * {@code start.pratsPlus(end.pratsMinus(start).times(t))}.
+   *
+   * @param startX        The x position of the start pose.
+   * @param startY        The y position of the start pose.
+   * @param startRotation The rotation of the start pose.
+   * @param startTangent  The tangent of the start pose.
+   * @param endX          The x position of the end pose.
+   * @param endY          The y position of the end pose.
+   * @param endTangent    The tangent of the end pose.
+   * @param t             The fraction of the transform to apply.
+   * @param out           The pose to write into.
+   */
+  @SuppressWarnings({ "ParameterName", "ParameterNumber" })
+  public static void lerp(
+      double startX, double startY, double startRotation, double startTangent,
+      double endX, double endY, double endTangent,
+      double t,
+      double[] out) {
+    relativeTo(endX, endY, endTangent, startX, startY, startTangent, out);
+    final double angle = out[kRotation] * t;
+    transformBy(startX, startY, startRotation, startTangent, out[kX] * t, out[kY] * t, angle, angle, out);
+  }
+
+  /**
+   * Adds two angles the way Rotation2d.rotateBy does, through their cosines and
+   * sines, and returns the result in (-π, π].
+   */
+  private static double rotate(double first, double second) {
+    final double cos = Math.cos(first);
+    final double sin = Math.sin(first);
+    final double otherCos = Math.cos(second);
+    final double otherSin = Math.sin(second);
+    return angle(cos * otherCos - sin * otherSin, cos * otherSin + sin * otherCos);
+  }
+
+  /** Returns the angle of a vector the way the Rotation2d(x, y) constructor does. */
+  @SuppressWarnings("ParameterName")
+  private static double angle(double x, double y) {
+    final double magnitude = Math.hypot(x, y);
+    if (magnitude > 1e-6) {
+      return Math.atan2(y / magnitude, x / magnitude);
+    }
+    return 0.0;
+  }
+}
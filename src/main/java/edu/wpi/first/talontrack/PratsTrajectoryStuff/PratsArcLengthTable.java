@@ -0,0 +1,155 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.util.Arrays;
+
+/**
+ * Maps between the parameter t of a spline and the arc length along it. The
+ * table holds the arc length at evenly spaced values of t, integrated with
+ * five-point Gauss-Legendre quadrature, so it is a single array of doubles.
+ * Queries between two entries integrate the rest of the way with the same
+ * quadrature.
+ *
+ * <p>
+ * {@link #distanceForT(double)} is O(1), since the entry below t follows from t
+ * directly. {@link #tForDistance(double)} binary searches the table and then
+ * refines t with a few Newton steps on the arc length, so it is O(log n) in the
+ * size of the table.
+ */
+public final class PratsArcLengthTable {
+  /** The number of table intervals used when none is given. */
+  public static final int kDefaultIntervals = 16;
+
+  // Gauss-Legendre nodes and weights on [-1, 1].
+  private static final double[] kNodes = {
+      -0.9061798459386640, -0.5384693101056831, 0.0, 0.5384693101056831, 0.9061798459386640
+  };
+  private static final double[] kWeights = {
+      0.2369268850561891, 0.4786286704993665, 0.5688888888888889, 0.4786286704993665, 0.2369268850561891
+  };
+
+  private static final int kMaxNewtonIterations = 16;
+  private static final double kDistanceToleranceMeters = 1E-10;
+
+  private final PratsSpline m_spline;
+  private final int m_intervals;
+  // The arc length from t = 0 to t = i / m_intervals.
+  private final double[] m_distance;
+
+  /**
+   * Builds the table of a spline with {@link #kDefaultIntervals} intervals.
+   *
+   * @param spline The spline.
+   */
+  public PratsArcLengthTable(PratsSpline spline) {
+    this(spline, kDefaultIntervals);
+  }
+
+  /**
+   * Builds the table of a spline.
+   *
+   * @param spline    The spline.
+   * @param intervals The number of evenly spaced intervals of t to tabulate.
+   */
+  public PratsArcLengthTable(PratsSpline spline, int intervals) {
+    if (intervals < 1) {
+      throw new IllegalArgumentException("An arc length table needs at least one interval, got " + intervals);
+    }
+    m_spline = spline;
+    m_intervals = intervals;
+    m_distance = new double[intervals + 1];
+    for (int i = 0; i < intervals; i++) {
+      m_distance[i + 1] = m_distance[i] + integrate(getT(i), getT(i + 1));
+    }
+  }
+
+  /**
+   * Returns the length of the spline.
+   *
+   * @return The arc length from t = 0 to t = 1.
+   */
+  public double getLength() {
+    return m_distance[m_intervals];
+  }
+
+  /**
+   * Returns the arc length from the start of the spline to some point t.
+   *
+   * @param t The point t, clamped to [0, 1].
+   * @return The arc length up to t.
+   */
+  @SuppressWarnings("ParameterName")
+  public double distanceForT(double t) {
+    if (t <= 0.0) {
+      return 0.0;
+    }
+    if (t >= 1.0) {
+      return getLength();
+    }
+    final int interval = Math.min((int) (t * m_intervals), m_intervals - 1);
+    return m_distance[interval] + integrate(getT(interval), t);
+  }
+
+  /**
+   * Returns the point t at which the arc length from the start of the spline
+   * reaches the given distance.
+   *
+   * @param distanceMeters The arc length, clamped to the length of the spline.
+   * @return The point t.
+   */
+  public double tForDistance(double distanceMeters) {
+    if (distanceMeters <= 0.0) {
+      return 0.0;
+    }
+    if (distanceMeters >= getLength()) {
+      return 1.0;
+    }
+
+    // Find the last entry at or below the distance.
+    int interval = Arrays.binarySearch(m_distance, distanceMeters);
+    if (interval >= 0) {
+      return getT(interval);
+    }
+    interval = -interval - 2;
+
+    final double remaining = distanceMeters - m_distance[interval];
+    double low = getT(interval);
+    double high = getT(interval + 1);
+    final double start = low;
+    double t = low + (high - low) * remaining / (m_distance[interval + 1] - m_distance[interval]);
+
+    // Newton's method on the arc length, falling back to bisection whenever a
+    // step would leave the bracket.
+    for (int iteration = 0; iteration < kMaxNewtonIterations; iteration++) {
+      final double error = integrate(start, t) - remaining;
+      if (Math.abs(error) < kDistanceToleranceMeters) {
+        break;
+      }
+      if (error > 0.0) {
+        high = t;
+      } else {
+        low = t;
+      }
+      double next = t - error / m_spline.getParametricSpeed(t);
+      if (!(next > low && next < high)) {
+        next = (low + high) / 2.0;
+      }
+      t = next;
+    }
+    return t;
+  }
+
+  private double getT(int entry) {
+    return (double) entry / m_intervals;
+  }
+
+  /** Integrates the parametric speed of the spline from t0 to t1. */
+  private double integrate(double t0, double t1) {
+    final double halfWidth = (t1 - t0) / 2.0;
+    final double center = (t0 + t1) / 2.0;
+    double sum = 0.0;
+    for (int i = 0; i < kNodes.length; i++) {
+      sum += kWeights[i] * m_spline.getParametricSpeed(center + halfWidth * kNodes[i]);
+    }
+    return sum * halfWidth;
+  }
+}
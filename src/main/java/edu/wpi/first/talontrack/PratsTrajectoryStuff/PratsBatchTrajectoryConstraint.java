@@ -0,0 +1,132 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.util.List;
+
+/**
+ * A trajectory constraint that can be evaluated for a range of points at once,
+ * writing its limits into primitive arrays instead of returning a value per
+ * point. The time parameterizer uses this form whenever a constraint provides
+ * it; any other constraint is evaluated through {@link #adapt}.
+ *
+ * <p>
+ * All arrays are indexed by point index, so only the entries from fromIndex to
+ * toIndex are read or written.
+ */
+public interface PratsBatchTrajectoryConstraint extends PratsTrajectoryConstraint {
+  /**
+   * Replaces every velocity in the range with the max velocity this constraint
+   * allows at that point, as
+   * {@link #getMaxVelocityMetersPerSecond(PratsPose2d, double, double)} would
+   * return for it.
+   *
+   * @param points                   The points of the trajectory.
+   * @param fromIndex                The first point to evaluate.
+   * @param toIndex                  One past the last point to evaluate.
+   * @param velocitiesMetersPerSecond The velocities before this constraint is
+   *                                 applied; overwritten with the max velocities.
+   */
+  void fillMaxVelocitiesMetersPerSecond(
+      List<PratsPoseWithCurvature> points, int fromIndex, int toIndex, double[] velocitiesMetersPerSecond);
+
+  /**
+   * Writes the min and max acceleration this constraint allows at every point
+   * in the range, as
+   * {@link #getMinMaxAccelerationMetersPerSecondSq(PratsPose2d, double, double)}
+   * would return for it.
+   *
+   * @param points                           The points of the trajectory.
+   * @param fromIndex                        The first point to evaluate.
+   * @param toIndex                          One past the last point to evaluate.
+   * @param velocitiesMetersPerSecond        The velocity at every point.
+   * @param minAccelerationsMetersPerSecondSq Receives the min accelerations.
+   * @param maxAccelerationsMetersPerSecondSq Receives the max accelerations.
+   */
+  void fillMinMaxAccelerationsMetersPerSecondSq(
+      List<PratsPoseWithCurvature> points, int fromIndex, int toIndex, double[] velocitiesMetersPerSecond,
+      double[] minAccelerationsMetersPerSecondSq, double[] maxAccelerationsMetersPerSecondSq);
+
+  /**
+   * Returns whether the max velocity of this constraint only caps the velocity it
+   * is given: at every point there is a limit such that the max velocity for a
+   * velocity v is min(v, limit). The parameterizer evaluates such a constraint
+   * once for the whole path, instead of at every step of its passes.
+   *
+   * @return Whether the max velocity is a cap independent of the velocity.
+   */
+  default boolean isVelocityCap() {
+    return false;
+  }
+
+  /**
+   * Returns a batch view of a constraint. Batch constraints are returned as
+   * they are; any other constraint is wrapped so that it is evaluated one point
+   * at a time.
+   *
+   * @param constraint The constraint.
+   * @return The batch constraint.
+   */
+  static PratsBatchTrajectoryConstraint adapt(PratsTrajectoryConstraint constraint) {
+    if (constraint instanceof PratsBatchTrajectoryConstraint) {
+      return (PratsBatchTrajectoryConstraint) constraint;
+    }
+    return new SinglePointAdapter(constraint);
+  }
+
+  /** Evaluates a single-point constraint over a range, one point at a time. */
+  final class SinglePointAdapter implements PratsBatchTrajectoryConstraint {
+    private final PratsTrajectoryConstraint m_constraint;
+
+    private SinglePointAdapter(PratsTrajectoryConstraint constraint) {
+      m_constraint = constraint;
+    }
+
+    /**
+     * Returns the constraint this adapter evaluates.
+     *
+     * @return The adapted constraint.
+     */
+    public PratsTrajectoryConstraint getConstraint() {
+      return m_constraint;
+    }
+
+    @Override
+    public double getMaxVelocityMetersPerSecond(
+        PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return m_constraint.getMaxVelocityMetersPerSecond(poseMeters, curvatureRadPerMeter, velocityMetersPerSecond);
+    }
+
+    @Override
+    public MinMax getMinMaxAccelerationMetersPerSecondSq(
+        PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return m_constraint.getMinMaxAccelerationMetersPerSecondSq(
+          poseMeters, curvatureRadPerMeter, velocityMetersPerSecond);
+    }
+
+    @Override
+    public void fillMaxVelocitiesMetersPerSecond(
+        List<PratsPoseWithCurvature> points, int fromIndex, int toIndex, double[] velocitiesMetersPerSecond) {
+      for (int i = fromIndex; i < toIndex; i++) {
+        final var point = points.get(i);
+        velocitiesMetersPerSecond[i] = m_constraint.getMaxVelocityMetersPerSecond(
+            point.poseMeters, point.curvatureRadPerMeter, velocitiesMetersPerSecond[i]);
+      }
+    }
+
+    @Override
+    public void fillMinMaxAccelerationsMetersPerSecondSq(
+        List<PratsPoseWithCurvature> points, int fromIndex, int toIndex, double[] velocitiesMetersPerSecond,
+        double[] minAccelerationsMetersPerSecondSq, double[] maxAccelerationsMetersPerSecondSq) {
+      for (int i = fromIndex; i < toIndex; i++) {
+        final var point = points.get(i);
+        final var minMax = m_constraint.getMinMaxAccelerationMetersPerSecondSq(
+            point.poseMeters, point.curvatureRadPerMeter, velocitiesMetersPerSecond[i]);
+        minAccelerationsMetersPerSecondSq[i] = minMax.minAccelerationMetersPerSecondSq;
+        maxAccelerationsMetersPerSecondSq[i] = minMax.maxAccelerationMetersPerSecondSq;
+      }
+    }
+  }
+}
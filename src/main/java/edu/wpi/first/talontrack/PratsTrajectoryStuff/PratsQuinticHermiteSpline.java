@@ -9,8 +9,10 @@ import org.ejml.simple.SimpleMatrix;
 import edu.wpi.first.math.geometry.Rotation2d;
 
 public class PratsQuinticHermiteSpline extends PratsSpline {
-  private static SimpleMatrix hermiteBasis;
+  private static final SimpleMatrix hermiteBasis = makeHermiteBasis();
   private final SimpleMatrix m_coefficients;
+  private final double[][] m_coefficientRows;
+  private final PratsArcLengthTable m_arcLengthTable;
 
   /**
    * Constructs a quintic hermite spline with the specified control vectors. Each
@@ -33,12 +35,37 @@ public class PratsQuinticHermiteSpline extends PratsSpline {
       double[] xFinalControlVector,
       double[] yInitialControlVector,
       double[] yFinalControlVector) {
+    this(xInitialControlVector, xFinalControlVector, yInitialControlVector, yFinalControlVector, false);
+  }
+
+  /**
+   * Constructs a quintic hermite spline with the specified control vectors,
+   * optionally with an arc length table. See
+   * {@link #PratsQuinticHermiteSpline(double[], double[], double[], double[])}.
+   *
+   * @param xInitialControlVector The control vector for the initial point in the
+   *                              x dimension.
+   * @param xFinalControlVector   The control vector for the final point in the x
+   *                              dimension.
+   * @param yInitialControlVector The control vector for the initial point in the
+   *                              y dimension.
+   * @param yFinalControlVector   The control vector for the final point in the y
+   *                              dimension.
+   * @param arcLengthTable        Whether to build the arc length table.
+   */
+  @SuppressWarnings("ParameterName")
+  public PratsQuinticHermiteSpline(
+      double[] xInitialControlVector,
+      double[] xFinalControlVector,
+      double[] yInitialControlVector,
+      double[] yFinalControlVector,
+      boolean arcLengthTable) {
     super(5);
 
     // Populate the coefficients for the actual spline equations.
     // Row 0 is x coefficients
     // Row 1 is y coefficients
-    final var hermite = makeHermiteBasis();
+    final var hermite = hermiteBasis;
     final var x = getControlVectorFromArrays(xInitialControlVector, xFinalControlVector);
     final var y = getControlVectorFromArrays(yInitialControlVector, yFinalControlVector);
 
@@ -69,6 +96,27 @@ public class PratsQuinticHermiteSpline extends PratsSpline {
       m_coefficients.set(4, i, m_coefficients.get(2, i) * (4 - i));
       m_coefficients.set(5, i, m_coefficients.get(3, i) * (4 - i));
     }
+
+    // Keep a primitive copy of the coefficients so that evaluation does not have
+    // to go through the matrix on every call.
+    m_coefficientRows = new double[6][6];
+    for (int row = 0; row < 6; row++) {
+      for (int col = 0; col < 6; col++) {
+        m_coefficientRows[row][col] = m_coefficients.get(row, col);
+      }
+    }
+
+    m_arcLengthTable = arcLengthTable ? new PratsArcLengthTable(this) : null;
+  }
+
+  /**
+   * Returns the arc length table of the spline, if it was built at
+   * construction.
+   *
+   * @return The arc length table, or null.
+   */
+  public PratsArcLengthTable getArcLengthTable() {
+    return m_arcLengthTable;
   }
 
   /**
@@ -81,51 +129,58 @@ public class PratsQuinticHermiteSpline extends PratsSpline {
     return m_coefficients;
   }
 
+  /**
+   * Returns the coefficients as primitive rows.
+   *
+   * @return The coefficient rows.
+   */
+  @Override
+  protected double[][] getCoefficientRows() {
+    return m_coefficientRows;
+  }
+
   /**
    * Returns the hermite basis matrix for quintic hermite spline interpolation.
    *
    * @return The hermite basis matrix for quintic hermite spline interpolation.
    */
-  private SimpleMatrix makeHermiteBasis() {
-    if (hermiteBasis == null) {
-      // Given P(i), P'(i), P"(i), P(i+1), P'(i+1), P"(i+1), the control vectors,
-      // we want to find the coefficients of the spline
-      // P(t) = a₅t⁵ + a₄t⁴ + a₃t³ + a₂t² + a₁t + a₀.
-      //
-      // P(i) = P(0) = a₀
-      // P'(i) = P'(0) = a₁
-      // P''(i) = P"(0) = 2a₂
-      // P(i+1) = P(1) = a₅ + a₄ + a₃ + a₂ + a₁ + a₀
-      // P'(i+1) = P'(1) = 5a₅ + 4a₄ + 3a₃ + 2a₂ + a₁
-      // P"(i+1) = P"(1) = 20a₅ + 12a₄ + 6a₃ + 2a₂
-      //
-      // [P(i) ] = [ 0 0 0 0 0 1][a₅]
-      // [P'(i) ] = [ 0 0 0 0 1 0][a₄]
-      // [P"(i) ] = [ 0 0 0 2 0 0][a₃]
-      // [P(i+1) ] = [ 1 1 1 1 1 1][a₂]
-      // [P'(i+1)] = [ 5 4 3 2 1 0][a₁]
-      // [P"(i+1)] = [20 12 6 2 0 0][a₀]
-      //
-      // To solve for the coefficients, we can invert the 6x6 matrix and move it
-      // to the other side of the equation.
-      //
-      // [a₅] = [ -6.0 -3.0 -0.5 6.0 -3.0 0.5][P(i) ]
-      // [a₄] = [ 15.0 8.0 1.5 -15.0 7.0 -1.0][P'(i) ]
-      // [a₃] = [-10.0 -6.0 -1.5 10.0 -4.0 0.5][P"(i) ]
-      // [a₂] = [ 0.0 0.0 0.5 0.0 0.0 0.0][P(i+1) ]
-      // [a₁] = [ 0.0 1.0 0.0 0.0 0.0 0.0][P'(i+1)]
-      // [a₀] = [ 1.0 0.0 0.0 0.0 0.0 0.0][P"(i+1)]
-      hermiteBasis = new SimpleMatrix(
-          6,
-          6,
-          true,
-          new double[] {
-              -06.0, -03.0, -00.5, +06.0, -03.0, +00.5, +15.0, +08.0, +01.5, -15.0, +07.0, -01.0,
-              -10.0, -06.0, -01.5, +10.0, -04.0, +00.5, +00.0, +00.0, +00.5, +00.0, +00.0, +00.0,
-              +00.0, +01.0, +00.0, +00.0, +00.0, +00.0, +01.0, +00.0, +00.0, +00.0, +00.0, +00.0
-          });
-    }
-    return hermiteBasis;
+  private static SimpleMatrix makeHermiteBasis() {
+    // Given P(i), P'(i), P"(i), P(i+1), P'(i+1), P"(i+1), the control vectors,
+    // we want to find the coefficients of the spline
+    // P(t) = a₅t⁵ + a₄t⁴ + a₃t³ + a₂t² + a₁t + a₀.
+    //
+    // P(i) = P(0) = a₀
+    // P'(i) = P'(0) = a₁
+    // P''(i) = P"(0) = 2a₂
+    // P(i+1) = P(1) = a₅ + a₄ + a₃ + a₂ + a₁ + a₀
+    // P'(i+1) = P'(1) = 5a₅ + 4a₄ + 3a₃ + 2a₂ + a₁
+    // P"(i+1) = P"(1) = 20a₅ + 12a₄ + 6a₃ + 2a₂
+    //
+    // [P(i) ] = [ 0 0 0 0 0 1][a₅]
+    // [P'(i) ] = [ 0 0 0 0 1 0][a₄]
+    // [P"(i) ] = [ 0 0 0 2 0 0][a₃]
+    // [P(i+1) ] = [ 1 1 1 1 1 1][a₂]
+    // [P'(i+1)] = [ 5 4 3 2 1 0][a₁]
+    // [P"(i+1)] = [20 12 6 2 0 0][a₀]
+    //
+    // To solve for the coefficients, we can invert the 6x6 matrix and move it
+    // to the other side of the equation.
+    //
+    // [a₅] = [ -6.0 -3.0 -0.5 6.0 -3.0 0.5][P(i) ]
+    // [a₄] = [ 15.0 8.0 1.5 -15.0 7.0 -1.0][P'(i) ]
+    // [a₃] = [-10.0 -6.0 -1.5 10.0 -4.0 0.5][P"(i) ]
+    // [a₂] = [ 0.0 0.0 0.5 0.0 0.0 0.0][P(i+1) ]
+    // [a₁] = [ 0.0 1.0 0.0 0.0 0.0 0.0][P'(i+1)]
+    // [a₀] = [ 1.0 0.0 0.0 0.0 0.0 0.0][P"(i+1)]
+    return new SimpleMatrix(
+        6,
+        6,
+        true,
+        new double[] {
+            -06.0, -03.0, -00.5, +06.0, -03.0, +00.5, +15.0, +08.0, +01.5, -15.0, +07.0, -01.0,
+            -10.0, -06.0, -01.5, +10.0, -04.0, +00.5, +00.0, +00.0, +00.5, +00.0, +00.0, +00.0,
+            +00.0, +01.0, +00.0, +00.0, +00.0, +00.0, +01.0, +00.0, +00.0, +00.0, +00.0, +00.0
+        });
   }
 
   /**
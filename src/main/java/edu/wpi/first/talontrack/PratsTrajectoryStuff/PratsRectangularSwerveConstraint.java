@@ -0,0 +1,98 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.util.List;
+
+/**
+ * Swerve drive kinematics constraint for four modules on the corners of a
+ * rectangle centered on the robot. It gives the same limits as
+ * {@link PratsSwerveDriveKinematicsConstraint}, but computes them in closed
+ * form without going through the kinematics matrices.
+ *
+ * <p>
+ * Driving along a tangent θ at speed v with curvature k, a module at (x, y)
+ * moves at v·|(cos θ - k·y, sin θ + k·x)|. Over the four corners (±a, ±b) the
+ * fastest module moves at v·√(1 + k²(a² + b²) + 2|k|(a|sin θ| + b|cos θ|)),
+ * so desaturating the module speeds caps the chassis speed at the max module
+ * speed divided by that root.
+ */
+public class PratsRectangularSwerveConstraint implements PratsBatchTrajectoryConstraint {
+  private final double m_maxSpeedMetersPerSecond;
+  private final double m_halfWheelBaseMeters;
+  private final double m_halfTrackWidthMeters;
+  private final double m_radiusSqMeters;
+
+  /**
+   * Constructs a rectangular swerve drive kinematics constraint.
+   *
+   * @param wheelBaseMeters         Distance between the front and back modules.
+   * @param trackWidthMeters        Distance between the left and right modules.
+   * @param maxSpeedMetersPerSecond The max speed that a module can travel at.
+   */
+  public PratsRectangularSwerveConstraint(
+      double wheelBaseMeters, double trackWidthMeters, double maxSpeedMetersPerSecond) {
+    m_maxSpeedMetersPerSecond = maxSpeedMetersPerSecond;
+    m_halfWheelBaseMeters = Math.abs(wheelBaseMeters) / 2;
+    m_halfTrackWidthMeters = Math.abs(trackWidthMeters) / 2;
+    m_radiusSqMeters = m_halfWheelBaseMeters * m_halfWheelBaseMeters
+        + m_halfTrackWidthMeters * m_halfTrackWidthMeters;
+  }
+
+  /**
+   * Returns the fastest chassis speed that keeps every module at or below the
+   * max module speed.
+   */
+  private double getSpeedLimit(double tangentCos, double tangentSin, double curvatureRadPerMeter) {
+    final double curvature = Math.abs(curvatureRadPerMeter);
+    final double fastestModule = Math.sqrt(
+        1.0 + curvature * curvature * m_radiusSqMeters
+            + 2.0 * curvature * (m_halfWheelBaseMeters * Math.abs(tangentSin)
+                + m_halfTrackWidthMeters * Math.abs(tangentCos)));
+    return m_maxSpeedMetersPerSecond / fastestModule;
+  }
+
+  @Override
+  public double getMaxVelocityMetersPerSecond(
+      PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+    final var tangent = poseMeters.getTangent();
+    return Math.min(
+        Math.abs(velocityMetersPerSecond),
+        getSpeedLimit(tangent.getCos(), tangent.getSin(), curvatureRadPerMeter));
+  }
+
+  @Override
+  public MinMax getMinMaxAccelerationMetersPerSecondSq(
+      PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+    return new MinMax();
+  }
+
+  @Override
+  public boolean isVelocityCap() {
+    return true;
+  }
+
+  @Override
+  public void fillMaxVelocitiesMetersPerSecond(
+      List<PratsPoseWithCurvature> points, int fromIndex, int toIndex, double[] velocitiesMetersPerSecond) {
+    for (int i = fromIndex; i < toIndex; i++) {
+      final var point = points.get(i);
+      final var tangent = point.poseMeters.getTangent();
+      velocitiesMetersPerSecond[i] = Math.min(
+          Math.abs(velocitiesMetersPerSecond[i]),
+          getSpeedLimit(tangent.getCos(), tangent.getSin(), point.curvatureRadPerMeter));
+    }
+  }
+
+  @Override
+  public void fillMinMaxAccelerationsMetersPerSecondSq(
+      List<PratsPoseWithCurvature> points, int fromIndex, int toIndex, double[] velocitiesMetersPerSecond,
+      double[] minAccelerationsMetersPerSecondSq, double[] maxAccelerationsMetersPerSecondSq) {
+    for (int i = fromIndex; i < toIndex; i++) {
+      minAccelerationsMetersPerSecondSq[i] = -Double.MAX_VALUE;
+      maxAccelerationsMetersPerSecondSq[i] = Double.MAX_VALUE;
+    }
+  }
+}
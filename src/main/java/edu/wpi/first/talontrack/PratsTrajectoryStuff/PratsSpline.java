@@ -26,6 +26,23 @@ public abstract class PratsSpline {
     m_degree = degree;
   }
 
+  /** Index of the x position in the output of {@link #getPoint(double, double[])}. */
+  public static final int kX = 0;
+  /** Index of the y position in the output of {@link #getPoint(double, double[])}. */
+  public static final int kY = 1;
+  /** Index of dx/dt in the output of {@link #getPoint(double, double[])}. */
+  public static final int kDx = 2;
+  /** Index of dy/dt in the output of {@link #getPoint(double, double[])}. */
+  public static final int kDy = 3;
+  /** Index of d²x/dt² in the output of {@link #getPoint(double, double[])}. */
+  public static final int kDdx = 4;
+  /** Index of d²y/dt² in the output of {@link #getPoint(double, double[])}. */
+  public static final int kDdy = 5;
+  /** Index of the curvature in the output of {@link #getPoint(double, double[])}. */
+  public static final int kCurvature = 6;
+  /** Minimum length of the output array of {@link #getPoint(double, double[])}. */
+  public static final int kPointSize = 7;
+
   /**
    * Returns the coefficients of the spline.
    *
@@ -33,6 +50,16 @@ public abstract class PratsSpline {
    */
   protected abstract SimpleMatrix getCoefficients();
 
+  /**
+   * Returns the coefficients of the spline as primitive rows. The rows are laid
+   * out like {@link #getCoefficients()}: rows 0 and 1 are x and y, rows 2 and 3
+   * their first derivatives and rows 4 and 5 their second derivatives, each
+   * ordered from the highest power of t down to the constant term.
+   *
+   * @return The coefficient rows of the spline.
+   */
+  protected abstract double[][] getCoefficientRows();
+
   /**
    * Gets the pose and curvature at some point t on the spline.
    *
@@ -41,46 +68,135 @@ public abstract class PratsSpline {
    */
   @SuppressWarnings("ParameterName")
   public PratsPoseWithCurvature getPoint(double t) {
-    SimpleMatrix polynomialBases = new SimpleMatrix(m_degree + 1, 1);
-    final var coefficients = getCoefficients();
+    final var rows = getCoefficientRows();
+
+    final double x = horner(rows[0], m_degree, t);
+    final double y = horner(rows[1], m_degree, t);
+    final double dx = horner(rows[2], m_degree - 1, t);
+    final double dy = horner(rows[3], m_degree - 1, t);
+    final double ddx = horner(rows[4], m_degree - 2, t);
+    final double ddy = horner(rows[5], m_degree - 2, t);
+
+    return new PratsPoseWithCurvature(new PratsPose2d(x, y, m_rot, new Rotation2d(dx, dy)),
+        curvature(dx, dy, ddx, ddy));
+  }
+
+  /**
+   * Evaluates the spline at some point t without allocating. The position, both
+   * derivatives and the curvature are written into the caller-owned array at the
+   * indices {@link #kX} through {@link #kCurvature}.
+   *
+   * @param t   The point t
+   * @param out The array to write into. Must hold at least {@link #kPointSize}
+   *            elements.
+   */
+  @SuppressWarnings("ParameterName")
+  public void getPoint(double t, double[] out) {
+    final var rows = getCoefficientRows();
+
+    out[kX] = horner(rows[0], m_degree, t);
+    out[kY] = horner(rows[1], m_degree, t);
+    out[kDx] = horner(rows[2], m_degree - 1, t);
+    out[kDy] = horner(rows[3], m_degree - 1, t);
+    out[kDdx] = horner(rows[4], m_degree - 2, t);
+    out[kDdy] = horner(rows[5], m_degree - 2, t);
+    out[kCurvature] = curvature(out[kDx], out[kDy], out[kDdx], out[kDdy]);
+  }
 
-    // Populate the polynomial bases.
-    for (int i = 0; i <= m_degree; i++) {
-      polynomialBases.set(i, 0, Math.pow(t, m_degree - i));
+  /**
+   * Evaluates the spline at many points t at once, writing each quantity into
+   * its own column of the output. Every polynomial is evaluated one Horner step
+   * at a time across the whole batch, so each step is a plain loop over
+   * primitive arrays that the JIT compiles to SIMD instructions where the CPU
+   * has them, and to scalar code where it does not.
+   *
+   * <p>
+   * The positions and derivatives are bit-for-bit those of
+   * {@link #getPoint(double, double[])}. The curvature takes the length of the
+   * first derivative with a square root instead of {@link Math#hypot}, so it may
+   * differ from getPoint in the last few bits.
+   *
+   * @param t     The points t.
+   * @param count The number of points to evaluate, from the start of t.
+   * @param out   The columns to write into.
+   */
+  @SuppressWarnings("ParameterName")
+  public void getPoints(double[] t, int count, SplineSamples out) {
+    if (count < 0 || count > t.length || count > out.getCapacity()) {
+      throw new IllegalArgumentException("Cannot evaluate " + count + " points from " + t.length
+          + " values of t into room for " + out.getCapacity());
     }
+    final var rows = getCoefficientRows();
+
+    hornerColumn(rows[0], m_degree, t, count, out.getX());
+    hornerColumn(rows[1], m_degree, t, count, out.getY());
+    hornerColumn(rows[2], m_degree - 1, t, count, out.getDx());
+    hornerColumn(rows[3], m_degree - 1, t, count, out.getDy());
+    hornerColumn(rows[4], m_degree - 2, t, count, out.getDdx());
+    hornerColumn(rows[5], m_degree - 2, t, count, out.getDdy());
+
+    final double[] dx = out.getDx();
+    final double[] dy = out.getDy();
+    final double[] ddx = out.getDdx();
+    final double[] ddy = out.getDdy();
+    final double[] curvature = out.getCurvature();
+    for (int i = 0; i < count; i++) {
+      final double speedSq = dx[i] * dx[i] + dy[i] * dy[i];
+      curvature[i] = (dx[i] * ddy[i] - ddx[i] * dy[i]) / (speedSq * Math.sqrt(speedSq));
+    }
+  }
+
+  /**
+   * Returns the parametric speed |dP/dt| of the spline at some point t, which is
+   * the rate at which arc length grows with t.
+   *
+   * @param t The point t
+   * @return The length of the first derivative at that point.
+   */
+  @SuppressWarnings("ParameterName")
+  public double getParametricSpeed(double t) {
+    final var rows = getCoefficientRows();
+    return Math.hypot(horner(rows[2], m_degree - 1, t), horner(rows[3], m_degree - 1, t));
+  }
 
-    // This simply multiplies by the coefficients. We need to divide out t some
-    // n number of times where n is the derivative we want to take.
-    SimpleMatrix combined = coefficients.mult(polynomialBases);
-
-    // Get x and y
-    final double x = combined.get(0, 0);
-    final double y = combined.get(1, 0);
-
-    double dx;
-    double dy;
-    double ddx;
-    double ddy;
-
-    if (t == 0) {
-      dx = coefficients.get(2, m_degree - 1);
-      dy = coefficients.get(3, m_degree - 1);
-      ddx = coefficients.get(4, m_degree - 2);
-      ddy = coefficients.get(5, m_degree - 2);
-    } else {
-      // Divide out t once for first derivative.
-      dx = combined.get(2, 0) / t;
-      dy = combined.get(3, 0) / t;
-
-      // Divide out t twice for second derivative.
-      ddx = combined.get(4, 0) / t / t;
-      ddy = combined.get(5, 0) / t / t;
+  /**
+   * Evaluates a polynomial using Horner's method.
+   *
+   * @param coefficients The coefficients, ordered from the highest power down.
+   * @param degree       The degree of the polynomial. Only the first degree + 1
+   *                     coefficients are used.
+   * @param t            The point to evaluate at.
+   * @return The value of the polynomial at t.
+   */
+  @SuppressWarnings("ParameterName")
+  private static double horner(double[] coefficients, int degree, double t) {
+    double result = coefficients[0];
+    for (int i = 1; i <= degree; i++) {
+      result = result * t + coefficients[i];
     }
+    return result;
+  }
 
-    // Find the curvature.
-    final double curvature = (dx * ddy - ddx * dy) / ((dx * dx + dy * dy) * Math.hypot(dx, dy));
+  /**
+   * Evaluates a polynomial at many points with Horner's method, in the same order
+   * of operations as {@link #horner(double[], int, double)}.
+   */
+  @SuppressWarnings("ParameterName")
+  private static void hornerColumn(double[] coefficients, int degree, double[] t, int count, double[] out) {
+    final double leading = coefficients[0];
+    for (int i = 0; i < count; i++) {
+      out[i] = leading;
+    }
+    for (int k = 1; k <= degree; k++) {
+      final double coefficient = coefficients[k];
+      for (int i = 0; i < count; i++) {
+        out[i] = out[i] * t[i] + coefficient;
+      }
+    }
+  }
 
-    return new PratsPoseWithCurvature(new PratsPose2d(x, y, m_rot, new Rotation2d(dx, dy)), curvature);
+  private static double curvature(double dx, double dy, double ddx, double ddy) {
+    return (dx * ddy - ddx * dy) / ((dx * dx + dy * dy) * Math.hypot(dx, dy));
   }
 
   /**
@@ -25,21 +25,57 @@ public final class PratsSplineHelper {
    * @return List of splines.
    */
   public static PratsQuinticHermiteSpline[] getQuinticSplinesFromWaypoints(List<PratsPose2d> waypoints) {
+    return getQuinticSplinesFromWaypoints(waypoints, false);
+  }
+
+  /**
+   * Returns quintic splines from a set of waypoints, optionally with arc length
+   * tables.
+   *
+   * @param waypoints       The waypoints
+   * @param arcLengthTables Whether to build an arc length table for every
+   *                        spline.
+   * @return List of splines.
+   */
+  public static PratsQuinticHermiteSpline[] getQuinticSplinesFromWaypoints(List<PratsPose2d> waypoints,
+      boolean arcLengthTables) {
     PratsQuinticHermiteSpline[] splines = new PratsQuinticHermiteSpline[waypoints.size() - 1];
     for (int i = 0; i < waypoints.size() - 1; ++i) {
-      var p0 = waypoints.get(i);
-      var p1 = waypoints.get(i + 1);
+      splines[i] = getQuinticSpline(waypoints.get(i), waypoints.get(i + 1), arcLengthTables);
+    }
+    return splines;
+  }
 
-      // This just makes the splines look better.
-      final var scalar = 1.2 * p0.getTranslation().getDistance(p1.getTranslation());
+  /**
+   * Returns the quintic spline between two adjacent waypoints.
+   *
+   * @param p0 The waypoint the spline starts on.
+   * @param p1 The waypoint the spline ends on.
+   * @return The spline.
+   */
+  public static PratsQuinticHermiteSpline getQuinticSpline(PratsPose2d p0, PratsPose2d p1) {
+    return getQuinticSpline(p0, p1, false);
+  }
 
-      var controlVecA = getQuinticControlVector(scalar, p0);
-      var controlVecB = getQuinticControlVector(scalar, p1);
+  /**
+   * Returns the quintic spline between two adjacent waypoints, optionally with an
+   * arc length table.
+   *
+   * @param p0             The waypoint the spline starts on.
+   * @param p1             The waypoint the spline ends on.
+   * @param arcLengthTable Whether to build the arc length table.
+   * @return The spline.
+   */
+  public static PratsQuinticHermiteSpline getQuinticSpline(PratsPose2d p0, PratsPose2d p1,
+      boolean arcLengthTable) {
+    // This just makes the splines look better.
+    final var scalar = 1.2 * p0.getTranslation().getDistance(p1.getTranslation());
 
-      splines[i] = new PratsQuinticHermiteSpline(controlVecA.x, controlVecB.x, controlVecA.y, controlVecB.y);
+    var controlVecA = getQuinticControlVector(scalar, p0);
+    var controlVecB = getQuinticControlVector(scalar, p1);
 
-    }
-    return splines;
+    return new PratsQuinticHermiteSpline(controlVecA.x, controlVecB.x, controlVecA.y, controlVecB.y,
+        arcLengthTable);
   }
 
   /**
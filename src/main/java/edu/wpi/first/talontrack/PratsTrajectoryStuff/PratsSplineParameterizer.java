@@ -28,13 +28,10 @@
 
 package edu.wpi.first.talontrack.PratsTrajectoryStuff;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-import edu.wpi.first.math.spline.PoseWithCurvature;
-import edu.wpi.first.math.spline.Spline;
-
 /** Class used to parameterize a spline by its arc length. */
 public final class PratsSplineParameterizer {
   private static final double kMaxDx = 0.127;
@@ -52,17 +49,6 @@ public final class PratsSplineParameterizer {
    */
   private static final int kMaxIterations = 5000;
 
-  @SuppressWarnings("MemberName")
-  private static class StackContents {
-    final double t1;
-    final double t0;
-
-    StackContents(double t0, double t1) {
-      this.t0 = t0;
-      this.t1 = t1;
-    }
-  }
-
   @SuppressWarnings("serial")
   public static class MalformedSplineException extends RuntimeException {
     /**
@@ -111,55 +97,141 @@ public final class PratsSplineParameterizer {
    *                                  with approximately opposing headings)
    */
   public static List<PratsPoseWithCurvature> parameterize(PratsSpline spline, double t0, double t1) {
-    var splinePoints = new ArrayList<PratsPoseWithCurvature>();
-
-    // The parameterization does not add the initial point. Let's add that.
-    splinePoints.add(spline.getPoint(t0));
-
-    // System.out.println(" __ ");
-    // System.out.println(spline.getPoint(t0).poseMeters.getRotation());
-    // System.out.println(spline.getPoint(t1).poseMeters.getRotation());
-    // System.out.println(" __ ");
-
-    // We use an "explicit stack" to simulate recursion, instead of a recursive
-    // function call
-    // This give us greater control, instead of a stack overflow
-    var stack = new ArrayDeque<StackContents>();
-    stack.push(new StackContents(t0, t1));
-
-    StackContents current;
-    PratsPoseWithCurvature start;
-    PratsPoseWithCurvature end;
-    int iterations = 0;
-
-    while (!stack.isEmpty()) {
-      current = stack.removeFirst();
-      start = spline.getPoint(current.t0);
-      end = spline.getPoint(current.t1);
-
-      final var twist = start.poseMeters.pratsLog(end.poseMeters);
-      if (Math.abs(twist.dy) > kMaxDy
-          || Math.abs(twist.dx) > kMaxDx
-          || Math.abs(twist.dtheta) > kMaxDtheta) {
-        stack.addFirst(new StackContents((current.t0 + current.t1) / 2, current.t1));
-        stack.addFirst(new StackContents(current.t0, (current.t0 + current.t1) / 2));
-      } else {
-        splinePoints.add(spline.getPoint(current.t1));
+    return new Subdivider().parameterize(spline, t0, t1);
+  }
+
+  /**
+   * Returns the number of subdivision iterations after which a spline is
+   * considered malformed.
+   *
+   * @return The maximum number of iterations.
+   */
+  public static int getMaxIterations() {
+    return kMaxIterations;
+  }
+
+  /**
+   * Subdivides splines into arcs that are within the parameterizer's tolerances.
+   *
+   * <p>
+   * Every entry on the explicit stack carries the already evaluated points at
+   * both of its ends, so each spline parameter is evaluated exactly once: an
+   * interval that is too long only evaluates its midpoint, and an accepted
+   * interval reuses its end point. The twist across an interval is computed
+   * with {@link PoseMath#log} into a scratch array, so checking an interval
+   * allocates nothing. The stack lives in primitive arrays that
+   * are kept between calls, so a subdivider should be reused for all the
+   * splines of a path. A subdivider is not thread-safe.
+   */
+  public static final class Subdivider {
+    private double[] m_t0 = new double[32];
+    private double[] m_t1 = new double[32];
+    private PratsPoseWithCurvature[] m_start = new PratsPoseWithCurvature[32];
+    private PratsPoseWithCurvature[] m_end = new PratsPoseWithCurvature[32];
+    private int m_size;
+    private int m_iterations;
+    // The twist across the interval being checked, written by PoseMath.log.
+    private final double[] m_twist = new double[PoseMath.kTwistSize];
+
+    /**
+     * Parameterizes the spline. See
+     * {@link PratsSplineParameterizer#parameterize(PratsSpline, double, double)}.
+     *
+     * @param spline The spline to parameterize.
+     * @param t0     Starting internal spline parameter. It is recommended to use
+     *               0.0.
+     * @param t1     Ending internal spline parameter. It is recommended to use
+     *               1.0.
+     * @return A list of poses and curvatures that represents various points on
+     *         the spline.
+     * @throws MalformedSplineException When the spline is malformed (e.g. has
+     *                                  close adjacent points with
+     *                                  approximately opposing headings)
+     */
+    public List<PratsPoseWithCurvature> parameterize(PratsSpline spline, double t0, double t1) {
+      var splinePoints = new ArrayList<PratsPoseWithCurvature>();
+
+      // The parameterization does not add the initial point. Let's add that.
+      final var first = spline.getPoint(t0);
+      splinePoints.add(first);
+
+      // We use an "explicit stack" to simulate recursion, instead of a recursive
+      // function call
+      // This give us greater control, instead of a stack overflow
+      m_size = 0;
+      m_iterations = 0;
+      push(t0, t1, first, spline.getPoint(t1));
+
+      while (m_size > 0) {
+        m_size--;
+        final double currentT0 = m_t0[m_size];
+        final double currentT1 = m_t1[m_size];
+        final var start = m_start[m_size];
+        final var end = m_end[m_size];
+        m_start[m_size] = null;
+        m_end[m_size] = null;
+
+        final var startPose = start.poseMeters;
+        final var endPose = end.poseMeters;
+        PoseMath.log(startPose.getX(), startPose.getY(), startPose.getTangent().getRadians(),
+            endPose.getX(), endPose.getY(), endPose.getTangent().getRadians(), m_twist);
+        if (Math.abs(m_twist[PoseMath.kDy]) > kMaxDy
+            || Math.abs(m_twist[PoseMath.kDx]) > kMaxDx
+            || Math.abs(m_twist[PoseMath.kDtheta]) > kMaxDtheta) {
+          final double mid = (currentT0 + currentT1) / 2;
+          final var midPoint = spline.getPoint(mid);
+          push(mid, currentT1, midPoint, end);
+          push(currentT0, mid, start, midPoint);
+        } else {
+          splinePoints.add(end);
+        }
+
+        m_iterations++;
+
+        if (m_iterations >= kMaxIterations) {
+          clear();
+          throw new MalformedSplineException(
+              "Could not parameterize a malformed spline after " + m_iterations + " of " + kMaxIterations
+                  + " iterations. This means that you probably had two or more adjacent waypoints that were"
+                  + " very close together with headings in opposing directions.");
+        }
       }
 
-      iterations++;
-
-      // if (iterations >= kMaxIterations) {
-      // System.out.println(start.poseMeters.getTangent().getDegrees());
-      // System.out.println(end.poseMeters.getTangent().getDegrees());
-      // throw new MalformedSplineException(
-      // "Could not parameterize a malformed spline. This means that you probably had
-      // two or "
-      // + " more adjacent waypoints that were very close together with headings in "
-      // + "opposing directions.");
-      // }
+      return splinePoints;
+    }
+
+    /**
+     * Returns the number of iterations the last call to
+     * {@link #parameterize(PratsSpline, double, double)} used. Compare it with
+     * {@link PratsSplineParameterizer#getMaxIterations()} to see how close a
+     * spline came to being rejected.
+     *
+     * @return The number of iterations used.
+     */
+    public int getIterations() {
+      return m_iterations;
     }
 
-    return splinePoints;
+    @SuppressWarnings("ParameterName")
+    private void push(double t0, double t1, PratsPoseWithCurvature start, PratsPoseWithCurvature end) {
+      if (m_size == m_t0.length) {
+        final int capacity = m_size * 2;
+        m_t0 = Arrays.copyOf(m_t0, capacity);
+        m_t1 = Arrays.copyOf(m_t1, capacity);
+        m_start = Arrays.copyOf(m_start, capacity);
+        m_end = Arrays.copyOf(m_end, capacity);
+      }
+      m_t0[m_size] = t0;
+      m_t1[m_size] = t1;
+      m_start[m_size] = start;
+      m_end[m_size] = end;
+      m_size++;
+    }
+
+    private void clear() {
+      Arrays.fill(m_start, 0, m_size, null);
+      Arrays.fill(m_end, 0, m_size, null);
+      m_size = 0;
+    }
   }
 }
@@ -5,6 +5,7 @@
 package edu.wpi.first.talontrack.PratsTrajectoryStuff;
 
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 
@@ -32,6 +33,47 @@ public class PratsSwerveDriveKinematicsConstraint implements PratsTrajectoryCons
     m_kinematics = kinematics;
   }
 
+  /**
+   * Creates a swerve drive kinematics constraint for the given module
+   * locations. Four modules on the corners of a rectangle centered on the robot
+   * get the closed form {@link PratsRectangularSwerveConstraint}; any other
+   * layout goes through {@link SwerveDriveKinematics}.
+   *
+   * @param maxSpeedMetersPerSecond The max speed that a module can travel at.
+   * @param moduleLocationsMeters   The locations of the modules relative to the
+   *                                center of the robot.
+   * @return The constraint.
+   */
+  public static PratsTrajectoryConstraint forModules(
+      double maxSpeedMetersPerSecond, Translation2d... moduleLocationsMeters) {
+    if (isCenteredRectangle(moduleLocationsMeters)) {
+      return new PratsRectangularSwerveConstraint(
+          2 * moduleLocationsMeters[0].getX(), 2 * moduleLocationsMeters[0].getY(), maxSpeedMetersPerSecond);
+    }
+    return new PratsSwerveDriveKinematicsConstraint(
+        new SwerveDriveKinematics(moduleLocationsMeters), maxSpeedMetersPerSecond);
+  }
+
+  private static boolean isCenteredRectangle(Translation2d[] modules) {
+    if (modules.length != 4) {
+      return false;
+    }
+    final double x = Math.abs(modules[0].getX());
+    final double y = Math.abs(modules[0].getY());
+    if (x == 0.0 || y == 0.0) {
+      return false;
+    }
+    // One bit per corner; all four corners have to be taken.
+    int corners = 0;
+    for (final var module : modules) {
+      if (Math.abs(module.getX()) != x || Math.abs(module.getY()) != y) {
+        return false;
+      }
+      corners |= 1 << ((module.getX() > 0 ? 2 : 0) + (module.getY() > 0 ? 1 : 0));
+    }
+    return corners == 0b1111;
+  }
+
   /**
    * Returns the max velocity given the current pose and curvature.
    *
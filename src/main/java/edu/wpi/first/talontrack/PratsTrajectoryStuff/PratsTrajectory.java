@@ -20,11 +20,13 @@ import java.util.stream.Collectors;
 public class PratsTrajectory {
   private final double m_totalTimeSeconds;
   private final List<State> m_states;
+  private final PrimitiveTrajectory m_primitive;
 
   /** Constructs an empty PratsTrajectory. */
   public PratsTrajectory() {
     m_states = new ArrayList<>();
     m_totalTimeSeconds = 0.0;
+    m_primitive = null;
   }
 
   /**
@@ -35,6 +37,19 @@ public class PratsTrajectory {
   public PratsTrajectory(final List<State> states) {
     m_states = states;
     m_totalTimeSeconds = m_states.get(m_states.size() - 1).timeSeconds;
+    m_primitive = null;
+  }
+
+  /**
+   * Constructs a PratsTrajectory backed by a columnar trajectory. The columns
+   * are not copied; {@link #getStates()} returns a view over them.
+   *
+   * @param primitive The columnar trajectory.
+   */
+  public PratsTrajectory(final PrimitiveTrajectory primitive) {
+    m_primitive = primitive;
+    m_states = primitive.asStateList();
+    m_totalTimeSeconds = primitive.getTotalTimeSeconds();
   }
 
   /**
@@ -84,12 +99,40 @@ public class PratsTrajectory {
   /**
    * Return the states of the PratsTrajectory.
    *
+   * <p>
+   * A PratsTrajectory built from a {@link PrimitiveTrajectory}, which includes
+   * every generated one, returns a view over its columns. Each get builds a new
+   * State, so assigning a field of a returned State is lost unless the State is
+   * written back with {@link List#set(int, Object)}. A PratsTrajectory built
+   * from a list returns that list.
+   *
    * @return The states of the PratsTrajectory.
    */
   public List<State> getStates() {
     return m_states;
   }
 
+  /**
+   * Returns the PratsTrajectory in columnar form. If this PratsTrajectory is
+   * already backed by columns, they are returned as is; otherwise the states are
+   * copied.
+   *
+   * @return The columnar PratsTrajectory.
+   */
+  public PrimitiveTrajectory toPrimitive() {
+    return m_primitive != null ? m_primitive : PrimitiveTrajectory.fromStates(m_states);
+  }
+
+  /**
+   * Returns a lazy view of the PratsTrajectory. Transforming or concatenating
+   * the view does not copy any states; see {@link TrajectoryView}.
+   *
+   * @return A view of the PratsTrajectory.
+   */
+  public TrajectoryView view() {
+    return m_primitive != null ? TrajectoryView.of(m_primitive) : TrajectoryView.of(m_states);
+  }
+
   /**
    * Sample the PratsTrajectory at a point in time.
    *
@@ -99,6 +142,9 @@ public class PratsTrajectory {
    * @return The state at that point in time.
    */
   public State sample(double timeSeconds) {
+    if (m_primitive != null) {
+      return m_primitive.sample(timeSeconds);
+    }
     if (timeSeconds <= m_states.get(0).timeSeconds) {
       return m_states.get(0);
     }
@@ -156,10 +202,18 @@ public class PratsTrajectory {
    * respect to the
    * first pose in the PratsTrajectory.
    *
+   * <p>
+   * This copies every state; use {@link #view()} to defer the work until the
+   * result is read.
+   *
    * @param transform The transform to transform the PratsTrajectory by.
    * @return The transformed PratsTrajectory.
    */
   public PratsTrajectory transformBy(PratsTransform2d transform) {
+    if (m_primitive != null) {
+      return new PratsTrajectory(m_primitive.transformBy(transform));
+    }
+
     var firstState = m_states.get(0);
     var firstPose = firstState.poseMeters;
 
@@ -197,12 +251,19 @@ public class PratsTrajectory {
    * useful for converting a field-relative PratsTrajectory into a robot-relative
    * PratsTrajectory.
    *
+   * <p>
+   * Like {@link #transformBy(PratsTransform2d)}, this copies every state.
+   *
    * @param pose The pose that is the origin of the coordinate frame that the
    *             current PratsTrajectory
    *             will be transformed into.
    * @return The transformed PratsTrajectory.
    */
   public PratsTrajectory relativeTo(PratsPose2d pose) {
+    if (m_primitive != null) {
+      return new PratsTrajectory(m_primitive.relativeTo(pose));
+    }
+
     return new PratsTrajectory(
         m_states.stream()
             .map(
@@ -224,6 +285,10 @@ public class PratsTrajectory {
    * PratsTrajectory match (if
    * that is the desired behavior).
    *
+   * <p>
+   * Both trajectories are copied. To stitch paths without copying, concatenate
+   * their {@link #view()}s instead.
+   *
    * @param other The PratsTrajectory to concatenate.
    * @return The concatenated PratsTrajectory.
    */
@@ -234,6 +299,10 @@ public class PratsTrajectory {
       return other;
     }
 
+    if (m_primitive != null) {
+      return new PratsTrajectory(m_primitive.concatenate(other.toPrimitive()));
+    }
+
     // Deep copy the current states.
     List<State> states = m_states.stream()
         .map(
@@ -4,6 +4,7 @@
 
 package edu.wpi.first.talontrack.PratsTrajectoryStuff;
 
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +29,8 @@ public class PratsTrajectoryConfig {
   private double m_startVelocity;
   private double m_endVelocity;
   private boolean m_reversed;
+  private boolean m_parallelParameterization = true;
+  private boolean m_reachabilityParameterization;
 
   /**
    * Constructs the trajectory configuration class.
@@ -78,6 +81,22 @@ public class PratsTrajectoryConfig {
     return this;
   }
 
+  /**
+   * Adds a swerve drive kinematics constraint for the given module locations to
+   * ensure that no wheel velocity of a swerve drive goes above the max velocity.
+   * The usual four modules on the corners of a rectangle are constrained in
+   * closed form; see
+   * {@link PratsSwerveDriveKinematicsConstraint#forModules(double, Translation2d...)}.
+   *
+   * @param moduleLocationsMeters The locations of the modules relative to the
+   *                              center of the robot.
+   * @return Instance of the current config object.
+   */
+  public PratsTrajectoryConfig setSwerveModules(Translation2d... moduleLocationsMeters) {
+    addConstraint(PratsSwerveDriveKinematicsConstraint.forModules(m_maxVelocity, moduleLocationsMeters));
+    return this;
+  }
+
   /**
    * Returns the starting velocity of the trajectory.
    *
@@ -164,4 +183,50 @@ public class PratsTrajectoryConfig {
     m_reversed = reversed;
     return this;
   }
+
+  /**
+   * Returns whether the splines of the trajectory may be parameterized
+   * concurrently.
+   *
+   * @return whether the splines may be parameterized concurrently.
+   */
+  public boolean isParallelParameterization() {
+    return m_parallelParameterization;
+  }
+
+  /**
+   * Sets whether the splines of the trajectory may be parameterized
+   * concurrently. Short paths are parameterized on the calling thread either
+   * way, and the generated trajectory is the same in both modes.
+   *
+   * @param parallel Whether the splines may be parameterized concurrently.
+   * @return Instance of the current config object.
+   */
+  public PratsTrajectoryConfig setParallelParameterization(boolean parallel) {
+    m_parallelParameterization = parallel;
+    return this;
+  }
+
+  /**
+   * Returns whether the trajectory is time parameterized by reachability
+   * analysis instead of the forward-backward pass.
+   *
+   * @return whether reachability parameterization is used.
+   */
+  public boolean isReachabilityParameterization() {
+    return m_reachabilityParameterization;
+  }
+
+  /**
+   * Sets whether the trajectory is time parameterized by reachability analysis
+   * instead of the forward-backward pass. See
+   * {@link PratsTrajectoryParameterizer#reachabilityParameterizeTrajectory}.
+   *
+   * @param reachability Whether to use reachability parameterization.
+   * @return Instance of the current config object.
+   */
+  public PratsTrajectoryConfig setReachabilityParameterization(boolean reachability) {
+    m_reachabilityParameterization = reachability;
+    return this;
+  }
 }
@@ -5,31 +5,25 @@
 package edu.wpi.first.talontrack.PratsTrajectoryStuff;
 
 import edu.wpi.first.math.MathSharedStore;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.spline.Spline;
-import edu.wpi.first.math.spline.SplineParameterizer.MalformedSplineException;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsSplineParameterizer.MalformedSplineException;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.BiConsumer;
 
 public final class PratsTrajectoryGenerator {
-  private static final PratsTrajectory kDoNothingTrajectory = new PratsTrajectory(
-      Arrays.asList(new PratsTrajectory.State()));
-  private static BiConsumer<String, StackTraceElement[]> errorFunc;
+  private static volatile BiConsumer<String, StackTraceElement[]> errorFunc;
 
   /** Private constructor because this is a utility class. */
   private PratsTrajectoryGenerator() {
   }
 
   private static void reportError(String error, StackTraceElement[] stackTrace) {
-    if (errorFunc != null) {
-      errorFunc.accept(error, stackTrace);
+    final var func = errorFunc;
+    if (func != null) {
+      func.accept(error, stackTrace);
     } else {
       MathSharedStore.reportError(error, stackTrace);
     }
@@ -37,7 +31,8 @@ public final class PratsTrajectoryGenerator {
 
   /**
    * Set error reporting function. By default, DriverStation.reportError() is
-   * used.
+   * used. Code that generates trajectories concurrently should create its own
+   * {@link TrajectoryEngine} instead.
    *
    * @param func Error reporting function, arguments are error and stackTrace.
    */
@@ -56,49 +51,10 @@ public final class PratsTrajectoryGenerator {
    * @param config    The configuration for the trajectory.
    * @return The generated trajectory.
    */
-  @SuppressWarnings("LocalVariableName")
   public static PratsTrajectory generateTrajectory(List<PratsPose2d> waypoints, PratsTrajectoryConfig config) {
-    final var flip = new PratsTransform2d(new Translation2d(), Rotation2d.fromDegrees(180.0),
-        Rotation2d.fromDegrees(180.0));
-
-    List<PratsPose2d> newWaypoints = new ArrayList<>();
-    if (config.isReversed()) {
-      for (PratsPose2d originalWaypoint : waypoints) {
-        newWaypoints.add(originalWaypoint.pratsPlus(flip));
-      }
-    } else {
-      newWaypoints.addAll(waypoints);
-    }
-    // Get the spline points
-    List<PratsPoseWithCurvature> points;
-    try {
-      points = splinePointsFromSplines(PratsSplineHelper.getQuinticSplinesFromWaypoints(newWaypoints), newWaypoints);
-    } catch (MalformedSplineException ex) {
-      reportError(ex.getMessage(), ex.getStackTrace());
-      return kDoNothingTrajectory;
-    }
-
-    // Change the points back to their original orientation.
-    if (config.isReversed()) {
-      for (var point : points) {
-        point.poseMeters = point.poseMeters.pratsPlus(flip);
-        point.curvatureRadPerMeter *= -1;
-      }
-    }
-
-    // Generate and return trajectory.
-    return PratsTrajectoryParameterizer.timeParameterizeTrajectory(
-        points,
-        config.getConstraints(),
-        config.getStartVelocity(),
-        config.getEndVelocity(),
-        config.getMaxVelocity(),
-        config.getMaxAcceleration(),
-        config.isReversed());
+    return new TrajectoryEngine(PratsTrajectoryGenerator::reportError).generateTrajectory(waypoints, config);
   }
 
-  public static List<PratsPoseWithCurvature> finalizedSplinePoints;
-
   /**
    * Generate spline points from a vector of splines by parameterizing the
    * splines.
@@ -110,83 +66,22 @@ public final class PratsTrajectoryGenerator {
    *                                  with approximately opposing headings)
    */
   public static List<PratsPoseWithCurvature> splinePointsFromSplines(PratsSpline[] splines, List<PratsPose2d> wps) {
-    // Create the vector of spline points.
-    var splinePoints = new ArrayList<PratsPoseWithCurvature>();
-
-    // Add the first point to the vector.
-    splinePoints.add(splines[0].getPoint(0.0));
-
-    // Iterate through the vector and parameterize each spline, adding the
-    // parameterized points to the final vector.
-    for (final var spline : splines) {
-      var points = PratsSplineParameterizer.parameterize(spline);
-
-      // Append the array of poses to the vector. We are removing the first
-      // point because it's a duplicate of the last point from the previous
-      // spline.
-      splinePoints.addAll(points.subList(1, points.size()));
-    }
-
-    int i = 0;
-    int x = 0;
-    int k = 0;
-    int[] wi = new int[500];
-
-    for (final var splinePoint : splinePoints) {
-      for (final var wp : wps) {
-        if ((round(splinePoint.poseMeters.getTranslation().getX(), 3) == round(wp.getTranslation().getX(), 3)) &&
-            (round(splinePoint.poseMeters.getTranslation().getY(), 3) == round(wp.getTranslation().getY(), 3))) {
-          splinePoint.poseMeters.setRotation(wp.getRotation());
-          wi[x] = i;
-          x++;
-        }
-      }
-      splinePoints.set(i, splinePoint);
-      i++;
-    }
-
-    finalizedSplinePoints = splinePoints;
-
-    for (final var splinePointB : splinePoints) {
-      PratsPose2d point = splinePointB.poseMeters;
-      if (point.getRotation().getRadians() != 4) {
-
-      } else {
-        point.setRotation(Rotation2d.fromDegrees(rotationAvg(k, x, wi, i)));
-      }
-      k++;
-    }
-
-    return splinePoints;
-  }
-
-  private static double round(double value, int places) {
-    if (places < 0)
-      throw new IllegalArgumentException();
-
-    BigDecimal bd = BigDecimal.valueOf(value);
-    bd = bd.setScale(places, RoundingMode.HALF_UP);
-    return bd.doubleValue();
+    return TrajectoryEngine.splinePointsFromSplines(splines, wps, false);
   }
 
-  private static double rotationAvg(int index, int x, int[] wi, int i) {
-    int smallerIndex = 0;
-    int biggerIndex = 0;
-    int indexDifferenceRange = 0;
-    int indexDifferencePoint = 0;
-    for (int _i = 0; _i < (x - 1); _i++) {
-      if (index > wi[_i] && index < wi[_i + 1]) {
-        smallerIndex = wi[_i];
-        biggerIndex = wi[_i + 1];
-        indexDifferenceRange = biggerIndex - smallerIndex;
-        indexDifferencePoint = index - smallerIndex;
-      }
-    }
-    double returnVal = finalizedSplinePoints.get(smallerIndex).poseMeters.getRotation().getDegrees();
-    double pointOneDeg = finalizedSplinePoints.get(smallerIndex).poseMeters.getRotation().getDegrees();
-    double pointTwoDeg = finalizedSplinePoints.get(biggerIndex).poseMeters.getRotation().getDegrees();
-    double range = findDegDist(pointOneDeg, pointTwoDeg);
-    return returnVal += sCurve(range, indexDifferenceRange, indexDifferencePoint);
+  /**
+   * Generate spline points from a vector of splines by parameterizing the
+   * splines. See
+   * {@link TrajectoryEngine#splinePointsFromSplines(PratsSpline[], List, boolean)}.
+   *
+   * @param splines  The splines to parameterize.
+   * @param wps      The waypoints the splines were built from.
+   * @param parallel Whether to parameterize the splines concurrently.
+   * @return The spline points for use in time parameterization of a trajectory.
+   */
+  public static List<PratsPoseWithCurvature> splinePointsFromSplines(PratsSpline[] splines, List<PratsPose2d> wps,
+      boolean parallel) {
+    return TrajectoryEngine.splinePointsFromSplines(splines, wps, parallel);
   }
 
   public static double sCurve(double range, double totalDomain, double curDomain) {
@@ -1,7 +1,5 @@
 package edu.wpi.first.talontrack.PratsTrajectoryStuff;
 
-import edu.wpi.first.talontrack.global.PathExports;
-
 public class PratsTrajectoryInstance {
 
   double startTime;
@@ -14,7 +12,6 @@ public class PratsTrajectoryInstance {
     this.startTime = 0.0;
     this.finishTime = startTime + traj.getTotalTimeSeconds();
     this.name = name;
-    PathExports.addTrajectory(this);
   }
 
   public double getStartTime() {
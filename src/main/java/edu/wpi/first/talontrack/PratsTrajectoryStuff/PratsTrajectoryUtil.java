@@ -4,94 +4,121 @@
 
 package edu.wpi.first.talontrack.PratsTrajectoryStuff;
 
-import edu.wpi.first.math.WPIMathJNI;
 import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.trajectory.TrajectoryUtil;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 
 public final class PratsTrajectoryUtil {
+  /**
+   * The file extension of a uniform export. The uniform export is not in the
+   * array form WPILib's TrajectoryUtil reads, so it never uses the .wpilib.json
+   * extension.
+   */
+  public static final String kUniformExtension = ".uniform.json";
+
   private PratsTrajectoryUtil() {
     throw new UnsupportedOperationException("This is a utility class!");
   }
 
   /**
-   * Creates a trajectory from a double[] of elements.
+   * Imports a Trajectory from a talontrack-style JSON file.
    *
-   * @param elements A double[] containing the raw elements of the trajectory.
-   * @return A trajectory created from the elements.
+   * @param path The path of the json file to import from
+   * @return The trajectory represented by the file.
+   * @throws IOException if reading from the file fails.
    */
-  private static PratsTrajectory createTrajectoryFromElements(double[] elements) {
-    // Make sure that the elements have the correct length.
-    if (elements.length % 7 != 0) {
-      throw new TrajectorySerializationException(
-          "An error occurred when converting trajectory elements into a trajectory.");
-    }
-
-    // Create a list of states from the elements.
-    List<PratsTrajectory.State> states = new ArrayList<>();
-    for (int i = 0; i < elements.length; i += 8) {
-      states.add(
-          new PratsTrajectory.State(
-              elements[i],
-              elements[i + 1],
-              elements[i + 2],
-              new PratsPose2d(elements[i + 3], elements[i + 4], new Rotation2d(elements[i + 5]),
-                  new Rotation2d(elements[i + 6])),
-              elements[i + 7]));
+  public static PratsTrajectory fromPathweaverJson(Path path) throws IOException {
+    try (var channel = FileChannel.open(path)) {
+      return TrajectoryJson.read(channel);
     }
-    return new PratsTrajectory(states);
   }
 
   /**
-   * Returns a double[] of elements from the given trajectory.
+   * Exports a Trajectory to a talontrack-style JSON file.
    *
-   * @param trajectory The trajectory to retrieve raw elements from.
-   * @return A double[] of elements from the given trajectory.
+   * @param trajectory The trajectory to export
+   * @param path       The path of the file to export to
+   * @throws IOException if writing to the file fails.
    */
-  private static double[] getElementsFromTrajectory(PratsTrajectory trajectory) {
-    // Create a double[] of elements and fill it from the trajectory states.
-    double[] elements = new double[trajectory.getStates().size() * 7];
-
-    for (int i = 0; i < trajectory.getStates().size() * 7; i += 7) {
-      var state = trajectory.getStates().get(i / 7);
-      elements[i] = state.timeSeconds;
-      elements[i + 1] = state.velocityMetersPerSecond;
-      elements[i + 2] = state.accelerationMetersPerSecondSq;
-      elements[i + 3] = state.poseMeters.getX();
-      elements[i + 4] = state.poseMeters.getY();
-      elements[i + 5] = state.poseMeters.getRotation().getRadians();
-      // elements[i + 6] = state.poseMeters.getTangent().getRadians();
-      elements[i + 6] = state.curvatureRadPerMeter;
+  public static void toPathweaverJson(PratsTrajectory trajectory, Path path) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(path)) {
+      TrajectoryJson.write(trajectory, writer);
     }
-    System.out.println("Trajectory created.");
-    return elements;
   }
 
   /**
-   * Imports a Trajectory from a talontrack-style JSON file.
+   * Resamples a trajectory at a fixed timestep. Sample i is the state at
+   * i * dtSeconds, so a follower running at that period can look up the state
+   * for time t as sample (int) (t / dtSeconds) instead of searching. The last
+   * sample is the first one at or past the end of the trajectory and holds the
+   * final state.
    *
-   * @param path The path of the json file to import from
-   * @return The trajectory represented by the file.
-   * @throws IOException if reading from the file fails.
+   * @param trajectory The trajectory to resample.
+   * @param dtSeconds  The timestep.
+   * @return The resampled trajectory.
    */
-  public static PratsTrajectory fromPathweaverJson(Path path) throws IOException {
-    return createTrajectoryFromElements(WPIMathJNI.fromPathweaverJson(path.toString()));
+  public static PrimitiveTrajectory resample(PratsTrajectory trajectory, double dtSeconds) {
+    if (!(dtSeconds > 0.0)) {
+      throw new IllegalArgumentException("Timestep must be positive, got " + dtSeconds);
+    }
+    var sampler = new TrajectorySampler(trajectory);
+    var state = new TrajectorySampler.MutableState();
+    int size = (int) Math.ceil(trajectory.getTotalTimeSeconds() / dtSeconds) + 1;
+    var resampled = new PrimitiveTrajectory(size);
+    for (int i = 0; i < size; i++) {
+      double timeSeconds = i * dtSeconds;
+      sampler.sample(timeSeconds, state);
+      resampled.set(i, timeSeconds, state.velocityMetersPerSecond, state.accelerationMetersPerSecondSq,
+          state.xMeters, state.yMeters, state.headingRadians, state.tangentRadians, state.curvatureRadPerMeter);
+    }
+    return resampled;
   }
 
   /**
-   * Exports a Trajectory to a talontrack-style JSON file.
+   * Exports a trajectory resampled at a fixed timestep. The file is a JSON
+   * object whose "uniform" and "dtSeconds" header fields mark the table as
+   * uniformly sampled, followed by the states in the same form as
+   * {@link #toPathweaverJson(PratsTrajectory, Path)}. WPILib cannot read the
+   * object, so the file should be named with {@link #kUniformExtension}.
    *
    * @param trajectory The trajectory to export
+   * @param dtSeconds  The timestep to resample at.
    * @param path       The path of the file to export to
    * @throws IOException if writing to the file fails.
    */
-  public static void toPathweaverJson(PratsTrajectory trajectory, Path path) throws IOException {
-    WPIMathJNI.toPathweaverJson(getElementsFromTrajectory(trajectory), path.toString());
+  public static void toUniformPathweaverJson(PratsTrajectory trajectory, double dtSeconds, Path path)
+      throws IOException {
+    toUniformPathweaverJson(resample(trajectory, dtSeconds), dtSeconds, path);
+  }
+
+  /**
+   * Exports a trajectory that has already been resampled with
+   * {@link #resample(PratsTrajectory, double)}, in the same form as
+   * {@link #toUniformPathweaverJson(PratsTrajectory, double, Path)}.
+   *
+   * @param states    The resampled states.
+   * @param dtSeconds The timestep the states were resampled at.
+   * @param path      The path of the file to export to
+   * @throws IOException if writing to the file fails.
+   */
+  public static void toUniformPathweaverJson(PrimitiveTrajectory states, double dtSeconds, Path path)
+      throws IOException {
+    try (Writer writer = Files.newBufferedWriter(path)) {
+      writer.write("{\"uniform\":true,\"dtSeconds\":");
+      writer.write(Double.toString(dtSeconds));
+      writer.write(",\"states\":");
+      TrajectoryJson.write(states, writer);
+      writer.write('}');
+    }
   }
 
   /**
@@ -103,7 +130,12 @@ public final class PratsTrajectoryUtil {
    *                                          fails.
    */
   public static PratsTrajectory deserializeTrajectory(String json) {
-    return createTrajectoryFromElements(WPIMathJNI.deserializeTrajectory(json));
+    try {
+      var bytes = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+      return TrajectoryJson.read(Channels.newChannel(bytes));
+    } catch (IOException e) {
+      throw new TrajectorySerializationException("Could not read trajectory JSON: " + e.getMessage());
+    }
   }
 
   /**
@@ -115,7 +147,13 @@ public final class PratsTrajectoryUtil {
    *                                          fails.
    */
   public static String serializeTrajectory(PratsTrajectory trajectory) {
-    return WPIMathJNI.serializeTrajectory(getElementsFromTrajectory(trajectory));
+    var writer = new StringWriter();
+    try {
+      TrajectoryJson.write(trajectory, writer);
+    } catch (IOException e) {
+      throw new TrajectorySerializationException("Could not write trajectory JSON: " + e.getMessage());
+    }
+    return writer.toString();
   }
 
   public static class TrajectorySerializationException extends RuntimeException {
@@ -0,0 +1,427 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * A time-parameterized trajectory stored as parallel primitive columns instead
+ * of a list of {@link PratsTrajectory.State} objects. Each sample costs eight
+ * doubles rather than a State, a pose, two rotations and a translation, which
+ * keeps long autons cheap to hold in memory.
+ *
+ * <p>
+ * Use {@link #asStateList()} or wrap it in a {@link PratsTrajectory} to hand it
+ * to code written against the State API. Neither copies the columns.
+ */
+public class PrimitiveTrajectory {
+  private final int m_size;
+  private final double[] m_timeSeconds;
+  private final double[] m_velocityMetersPerSecond;
+  private final double[] m_accelerationMetersPerSecondSq;
+  private final double[] m_xMeters;
+  private final double[] m_yMeters;
+  private final double[] m_headingRadians;
+  private final double[] m_tangentRadians;
+  private final double[] m_curvatureRadPerMeter;
+
+  /**
+   * Constructs a trajectory with room for the given number of samples. All
+   * columns start out zeroed and are filled with
+   * {@link #set(int, double, double, double, double, double, double, double, double)}.
+   *
+   * @param size The number of samples.
+   */
+  public PrimitiveTrajectory(int size) {
+    this(size, new double[size], new double[size], new double[size], new double[size],
+        new double[size], new double[size], new double[size], new double[size]);
+  }
+
+  /**
+   * Constructs a trajectory around existing columns. The arrays are not copied.
+   */
+  @SuppressWarnings("ParameterNumber")
+  PrimitiveTrajectory(
+      int size,
+      double[] timeSeconds,
+      double[] velocityMetersPerSecond,
+      double[] accelerationMetersPerSecondSq,
+      double[] xMeters,
+      double[] yMeters,
+      double[] headingRadians,
+      double[] tangentRadians,
+      double[] curvatureRadPerMeter) {
+    m_size = size;
+    m_timeSeconds = timeSeconds;
+    m_velocityMetersPerSecond = velocityMetersPerSecond;
+    m_accelerationMetersPerSecondSq = accelerationMetersPerSecondSq;
+    m_xMeters = xMeters;
+    m_yMeters = yMeters;
+    m_headingRadians = headingRadians;
+    m_tangentRadians = tangentRadians;
+    m_curvatureRadPerMeter = curvatureRadPerMeter;
+  }
+
+  /**
+   * Copies a list of states into a new columnar trajectory.
+   *
+   * @param states The states to copy.
+   * @return The columnar trajectory.
+   */
+  public static PrimitiveTrajectory fromStates(List<PratsTrajectory.State> states) {
+    var trajectory = new PrimitiveTrajectory(states.size());
+    for (int i = 0; i < states.size(); i++) {
+      trajectory.set(i, states.get(i));
+    }
+    return trajectory;
+  }
+
+  /**
+   * Returns the number of samples in the trajectory.
+   *
+   * @return The number of samples.
+   */
+  public int size() {
+    return m_size;
+  }
+
+  /**
+   * Returns the overall duration of the trajectory.
+   *
+   * @return The duration of the trajectory.
+   */
+  public double getTotalTimeSeconds() {
+    return m_size == 0 ? 0.0 : m_timeSeconds[m_size - 1];
+  }
+
+  public double getTimeSeconds(int index) {
+    return m_timeSeconds[index];
+  }
+
+  public double getVelocityMetersPerSecond(int index) {
+    return m_velocityMetersPerSecond[index];
+  }
+
+  public double getAccelerationMetersPerSecondSq(int index) {
+    return m_accelerationMetersPerSecondSq[index];
+  }
+
+  public double getX(int index) {
+    return m_xMeters[index];
+  }
+
+  public double getY(int index) {
+    return m_yMeters[index];
+  }
+
+  public double getHeadingRadians(int index) {
+    return m_headingRadians[index];
+  }
+
+  public double getTangentRadians(int index) {
+    return m_tangentRadians[index];
+  }
+
+  public double getCurvatureRadPerMeter(int index) {
+    return m_curvatureRadPerMeter[index];
+  }
+
+  /**
+   * Overwrites a sample.
+   *
+   * @param index                         The sample to overwrite.
+   * @param timeSeconds                   The time elapsed since the beginning of
+   *                                      the trajectory.
+   * @param velocityMetersPerSecond       The speed at that sample.
+   * @param accelerationMetersPerSecondSq The acceleration at that sample.
+   * @param xMeters                       The x position at that sample.
+   * @param yMeters                       The y position at that sample.
+   * @param headingRadians                The robot heading at that sample.
+   * @param tangentRadians                The direction of travel at that sample.
+   * @param curvatureRadPerMeter          The curvature at that sample.
+   */
+  @SuppressWarnings("ParameterNumber")
+  public void set(
+      int index,
+      double timeSeconds,
+      double velocityMetersPerSecond,
+      double accelerationMetersPerSecondSq,
+      double xMeters,
+      double yMeters,
+      double headingRadians,
+      double tangentRadians,
+      double curvatureRadPerMeter) {
+    m_timeSeconds[index] = timeSeconds;
+    m_velocityMetersPerSecond[index] = velocityMetersPerSecond;
+    m_accelerationMetersPerSecondSq[index] = accelerationMetersPerSecondSq;
+    m_xMeters[index] = xMeters;
+    m_yMeters[index] = yMeters;
+    m_headingRadians[index] = headingRadians;
+    m_tangentRadians[index] = tangentRadians;
+    m_curvatureRadPerMeter[index] = curvatureRadPerMeter;
+  }
+
+  /**
+   * Overwrites a sample with the contents of a state.
+   *
+   * @param index The sample to overwrite.
+   * @param state The state to copy from.
+   */
+  public void set(int index, PratsTrajectory.State state) {
+    set(
+        index,
+        state.timeSeconds,
+        state.velocityMetersPerSecond,
+        state.accelerationMetersPerSecondSq,
+        state.poseMeters.getX(),
+        state.poseMeters.getY(),
+        state.poseMeters.getRotation().getRadians(),
+        state.poseMeters.getTangent().getRadians(),
+        state.curvatureRadPerMeter);
+  }
+
+  /**
+   * Overwrites the acceleration of a sample. The time parameterizer only knows
+   * the acceleration of a sample once its successor has been placed.
+   *
+   * @param index                         The sample to overwrite.
+   * @param accelerationMetersPerSecondSq The acceleration at that sample.
+   */
+  public void setAccelerationMetersPerSecondSq(int index, double accelerationMetersPerSecondSq) {
+    m_accelerationMetersPerSecondSq[index] = accelerationMetersPerSecondSq;
+  }
+
+  /**
+   * Returns the pose of a sample.
+   *
+   * @param index The sample.
+   * @return A new pose built from the sample's columns.
+   */
+  public PratsPose2d getPose(int index) {
+    return new PratsPose2d(
+        m_xMeters[index],
+        m_yMeters[index],
+        new Rotation2d(m_headingRadians[index]),
+        new Rotation2d(m_tangentRadians[index]));
+  }
+
+  /**
+   * Returns a sample as a state. The state is a copy; changing it does not change
+   * the trajectory.
+   *
+   * @param index The sample.
+   * @return A new state built from the sample's columns.
+   */
+  public PratsTrajectory.State getState(int index) {
+    return new PratsTrajectory.State(
+        m_timeSeconds[index],
+        m_velocityMetersPerSecond[index],
+        m_accelerationMetersPerSecondSq[index],
+        getPose(index),
+        m_curvatureRadPerMeter[index]);
+  }
+
+  /**
+   * Sample the trajectory at a point in time.
+   *
+   * @param timeSeconds The point in time since the beginning of the trajectory to
+   *                    sample.
+   * @return The state at that point in time.
+   */
+  public PratsTrajectory.State sample(double timeSeconds) {
+    if (timeSeconds <= m_timeSeconds[0]) {
+      return getState(0);
+    }
+    if (timeSeconds >= getTotalTimeSeconds()) {
+      return getState(m_size - 1);
+    }
+
+    final int index = indexAfter(timeSeconds);
+
+    // If the difference in states is negligible, then we are spot on!
+    if (Math.abs(m_timeSeconds[index] - m_timeSeconds[index - 1]) < 1E-9) {
+      return getState(index);
+    }
+    // Interpolate between the two states for the state that we want.
+    return getState(index - 1).interpolate(
+        getState(index),
+        (timeSeconds - m_timeSeconds[index - 1]) / (m_timeSeconds[index] - m_timeSeconds[index - 1]));
+  }
+
+  /**
+   * Finds the first sample at or after the given time with a binary search. The
+   * time must lie strictly inside the trajectory.
+   *
+   * @param timeSeconds The time to look up.
+   * @return The index of the first sample whose time is at least timeSeconds.
+   *         Always at least 1.
+   */
+  int indexAfter(double timeSeconds) {
+    // This starts at 1 because we use the previous state later on for
+    // interpolation.
+    return indexAfter(timeSeconds, 1, m_size - 1);
+  }
+
+  /**
+   * Finds the first sample at or after the given time with a binary search
+   * between two indices. The answer must lie between them.
+   *
+   * @param timeSeconds The time to look up.
+   * @param low         The lowest index the answer can be.
+   * @param high        The highest index the answer can be.
+   * @return The index of the first sample whose time is at least timeSeconds.
+   */
+  int indexAfter(double timeSeconds, int low, int high) {
+    while (low != high) {
+      int mid = (low + high) / 2;
+      if (m_timeSeconds[mid] < timeSeconds) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Transforms all poses in the trajectory by the given transform, with respect
+   * to the first pose. See {@link PratsTrajectory#transformBy(PratsTransform2d)}.
+   *
+   * @param transform The transform to transform the trajectory by.
+   * @return The transformed trajectory.
+   */
+  public PrimitiveTrajectory transformBy(PratsTransform2d transform) {
+    var result = copyColumns(m_size);
+    if (m_size == 0) {
+      return result;
+    }
+
+    var firstPose = getPose(0);
+    var newFirstPose = firstPose.pratsPlus(transform);
+    result.setPose(0, newFirstPose);
+
+    for (int i = 1; i < m_size; i++) {
+      // We are transforming relative to the coordinate frame of the new initial pose.
+      result.setPose(i, newFirstPose.pratsPlus(getPose(i).pratsMinus(firstPose)));
+    }
+    return result;
+  }
+
+  /**
+   * Transforms all poses in the trajectory so that they are relative to the
+   * given pose. See {@link PratsTrajectory#relativeTo(PratsPose2d)}.
+   *
+   * @param pose The pose that is the origin of the new coordinate frame.
+   * @return The transformed trajectory.
+   */
+  public PrimitiveTrajectory relativeTo(PratsPose2d pose) {
+    var result = copyColumns(m_size);
+    for (int i = 0; i < m_size; i++) {
+      result.setPose(i, getPose(i).pratsRelativeTo(pose));
+    }
+    return result;
+  }
+
+  /**
+   * Concatenates another trajectory to this one. See
+   * {@link PratsTrajectory#concatenate(PratsTrajectory)}.
+   *
+   * @param other The trajectory to concatenate.
+   * @return The concatenated trajectory.
+   */
+  public PrimitiveTrajectory concatenate(PrimitiveTrajectory other) {
+    if (m_size == 0) {
+      return other;
+    }
+
+    // The first state of the other trajectory is omitted so that there are not
+    // two states with the same timestamp.
+    final int appended = Math.max(other.m_size - 1, 0);
+    final int size = m_size + appended;
+    var result = copyColumns(size);
+    if (appended == 0) {
+      return result;
+    }
+    final double offset = getTotalTimeSeconds();
+
+    for (int i = 0; i < appended; i++) {
+      result.m_timeSeconds[m_size + i] = other.m_timeSeconds[i + 1] + offset;
+    }
+    System.arraycopy(other.m_velocityMetersPerSecond, 1, result.m_velocityMetersPerSecond, m_size, appended);
+    System.arraycopy(
+        other.m_accelerationMetersPerSecondSq, 1, result.m_accelerationMetersPerSecondSq, m_size, appended);
+    System.arraycopy(other.m_xMeters, 1, result.m_xMeters, m_size, appended);
+    System.arraycopy(other.m_yMeters, 1, result.m_yMeters, m_size, appended);
+    System.arraycopy(other.m_headingRadians, 1, result.m_headingRadians, m_size, appended);
+    System.arraycopy(other.m_tangentRadians, 1, result.m_tangentRadians, m_size, appended);
+    System.arraycopy(other.m_curvatureRadPerMeter, 1, result.m_curvatureRadPerMeter, m_size, appended);
+    return result;
+  }
+
+  /**
+   * Returns a list view of the trajectory. Reading an element builds a new
+   * state from the columns, so changing a field of the returned state does not
+   * change the trajectory; write it back with {@link List#set(int, Object)},
+   * which copies the state into the columns. The columns themselves are never
+   * copied.
+   *
+   * @return A list of states backed by this trajectory.
+   */
+  public List<PratsTrajectory.State> asStateList() {
+    return new StateList();
+  }
+
+  private void setPose(int index, PratsPose2d pose) {
+    m_xMeters[index] = pose.getX();
+    m_yMeters[index] = pose.getY();
+    m_headingRadians[index] = pose.getRotation().getRadians();
+    m_tangentRadians[index] = pose.getTangent().getRadians();
+  }
+
+  /**
+   * Copies the columns of this trajectory into a new trajectory of the given
+   * size. Samples past the end of this trajectory are zeroed.
+   */
+  private PrimitiveTrajectory copyColumns(int size) {
+    return new PrimitiveTrajectory(
+        size,
+        Arrays.copyOf(m_timeSeconds, size),
+        Arrays.copyOf(m_velocityMetersPerSecond, size),
+        Arrays.copyOf(m_accelerationMetersPerSecondSq, size),
+        Arrays.copyOf(m_xMeters, size),
+        Arrays.copyOf(m_yMeters, size),
+        Arrays.copyOf(m_headingRadians, size),
+        Arrays.copyOf(m_tangentRadians, size),
+        Arrays.copyOf(m_curvatureRadPerMeter, size));
+  }
+
+  private final class StateList extends AbstractList<PratsTrajectory.State> implements RandomAccess {
+    @Override
+    public PratsTrajectory.State get(int index) {
+      checkIndex(index);
+      return getState(index);
+    }
+
+    @Override
+    public PratsTrajectory.State set(int index, PratsTrajectory.State element) {
+      checkIndex(index);
+      var previous = getState(index);
+      PrimitiveTrajectory.this.set(index, element);
+      return previous;
+    }
+
+    @Override
+    public int size() {
+      return m_size;
+    }
+
+    private void checkIndex(int index) {
+      if (index < 0 || index >= m_size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_size);
+      }
+    }
+  }
+}
@@ -0,0 +1,197 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A time-optimal velocity profile found by reachability analysis, in the manner
+ * of TOPP-RA. The profile works on the squared speed x = v² along the path, which
+ * changes by 2·a·ds between two points. A backward pass finds, for every point,
+ * the fastest speed from which the end of the path can still be reached within
+ * the deceleration limits (the controllable set). A forward pass then
+ * accelerates as hard as the limits allow while staying inside those sets.
+ *
+ * <p>
+ * Velocity limits are evaluated once for the whole path, one bulk call per
+ * constraint. Acceleration limits may depend on the speed, so a point is
+ * refined at most {@link #kMaxRefinements} times in the backward pass and
+ * queried once in the forward pass. Unlike {@link VelocityProfile}, whose
+ * passes retry until the limits settle, the work per point is bounded and the
+ * profile is linear in the number of points.
+ */
+final class ReachabilityProfile {
+  /**
+   * The most times the backward pass re-evaluates the acceleration limits of a
+   * point after lowering its speed.
+   */
+  private static final int kMaxRefinements = 4;
+
+  private final List<PratsPoseWithCurvature> m_points;
+  private final PratsBatchTrajectoryConstraint[] m_constraints;
+  private final double m_startVelocity;
+  private final double m_endVelocity;
+  private final double m_maxVelocity;
+  private final double m_maxAcceleration;
+  private final boolean m_reversed;
+  private final int m_size;
+
+  private final double[] m_distance;
+  // The max velocity at each point allowed by the constraints.
+  private final double[] m_velocityLimit;
+  // The fastest squared speed at each point from which the end is reachable.
+  private final double[] m_controllable;
+  private final double[] m_velocity;
+
+  // Acceleration limits written by enforceAccelerationLimits.
+  private double m_minAccelerationScratch;
+  private double m_maxAccelerationScratch;
+  // Arguments and results of single point constraint queries.
+  private final double[] m_queryVelocity;
+  private final double[] m_queryMinAcceleration;
+  private final double[] m_queryMaxAcceleration;
+
+  @SuppressWarnings("ParameterNumber")
+  ReachabilityProfile(
+      List<PratsPoseWithCurvature> points,
+      List<PratsTrajectoryConstraint> constraints,
+      double startVelocityMetersPerSecond,
+      double endVelocityMetersPerSecond,
+      double maxVelocityMetersPerSecond,
+      double maxAccelerationMetersPerSecondSq,
+      boolean reversed) {
+    m_points = points;
+    m_startVelocity = startVelocityMetersPerSecond;
+    m_endVelocity = endVelocityMetersPerSecond;
+    m_maxVelocity = maxVelocityMetersPerSecond;
+    m_maxAcceleration = maxAccelerationMetersPerSecondSq;
+    m_reversed = reversed;
+    m_size = points.size();
+
+    m_constraints = new PratsBatchTrajectoryConstraint[constraints.size()];
+    for (int i = 0; i < m_constraints.length; i++) {
+      m_constraints[i] = PratsBatchTrajectoryConstraint.adapt(constraints.get(i));
+    }
+
+    m_distance = new double[m_size];
+    m_velocityLimit = new double[m_size];
+    m_controllable = new double[m_size];
+    m_velocity = new double[m_size];
+    m_queryVelocity = new double[m_size];
+    m_queryMinAcceleration = new double[m_size];
+    m_queryMaxAcceleration = new double[m_size];
+  }
+
+  /** Runs the backward and forward passes over the whole path. */
+  void compute() {
+    fillVelocityLimits();
+    computeControllableSets();
+    computeVelocities();
+  }
+
+  /** Accumulates the distance along the path and evaluates the velocity limits. */
+  private void fillVelocityLimits() {
+    for (int i = 1; i < m_size; i++) {
+      m_distance[i] = m_distance[i - 1] + m_points.get(i).poseMeters.getTranslation()
+          .getDistance(m_points.get(i - 1).poseMeters.getTranslation());
+    }
+
+    Arrays.fill(m_velocityLimit, m_maxVelocity);
+    for (final var constraint : m_constraints) {
+      constraint.fillMaxVelocitiesMetersPerSecond(m_points, 0, m_size, m_velocityLimit);
+    }
+  }
+
+  /**
+   * Walks the path backwards, finding for every point the fastest squared speed
+   * that can still brake into the controllable set of the next point.
+   */
+  private void computeControllableSets() {
+    final int last = m_size - 1;
+    m_controllable[last] = Math.min(square(m_velocityLimit[last]), square(m_endVelocity));
+
+    for (int i = last - 1; i >= 0; i--) {
+      final double ds = m_distance[i + 1] - m_distance[i];
+      final double successor = m_controllable[i + 1];
+
+      // A point no faster than the next controllable set reaches it without
+      // braking.
+      double controllable = square(m_velocityLimit[i]);
+      if (controllable <= successor) {
+        m_controllable[i] = controllable;
+        continue;
+      }
+
+      // x + 2·a_min(√x)·ds ≤ successor. The min acceleration may depend on the
+      // speed, so lower x until it holds at its own speed.
+      for (int refinement = 0; refinement < kMaxRefinements; refinement++) {
+        enforceAccelerationLimits(i, Math.sqrt(controllable));
+        final double reachable = successor - 2.0 * m_minAccelerationScratch * ds;
+        if (reachable >= controllable) {
+          break;
+        }
+        controllable = Math.max(reachable, 0.0);
+      }
+      m_controllable[i] = controllable;
+    }
+  }
+
+  /**
+   * Walks the path forwards, accelerating as hard as the limits allow without
+   * leaving the controllable sets.
+   */
+  private void computeVelocities() {
+    double x = Math.min(square(m_startVelocity), m_controllable[0]);
+    m_velocity[0] = Math.sqrt(x);
+
+    for (int i = 0; i < m_size - 1; i++) {
+      enforceAccelerationLimits(i, m_velocity[i]);
+      final double ds = m_distance[i + 1] - m_distance[i];
+      x = Math.max(Math.min(x + 2.0 * m_maxAccelerationScratch * ds, m_controllable[i + 1]), 0.0);
+      m_velocity[i + 1] = Math.sqrt(x);
+    }
+  }
+
+  /**
+   * Sets the scratch acceleration limits to the global limits narrowed by every
+   * constraint at the given point and velocity.
+   */
+  private void enforceAccelerationLimits(int index, double velocity) {
+    m_minAccelerationScratch = -m_maxAcceleration;
+    m_maxAccelerationScratch = m_maxAcceleration;
+    for (final var constraint : m_constraints) {
+      m_queryVelocity[index] = m_reversed ? -velocity : velocity;
+      constraint.fillMinMaxAccelerationsMetersPerSecondSq(
+          m_points, index, index + 1, m_queryVelocity, m_queryMinAcceleration, m_queryMaxAcceleration);
+      final double minAcceleration = m_queryMinAcceleration[index];
+      final double maxAcceleration = m_queryMaxAcceleration[index];
+
+      if (minAcceleration > maxAcceleration) {
+        throw VelocityProfile.invertedAccelerationLimits(constraint);
+      }
+
+      m_minAccelerationScratch = Math.max(
+          m_minAccelerationScratch,
+          m_reversed ? -maxAcceleration : minAcceleration);
+      m_maxAccelerationScratch = Math.min(
+          m_maxAccelerationScratch,
+          m_reversed ? -minAcceleration : maxAcceleration);
+    }
+  }
+
+  private static double square(double value) {
+    return value * value;
+  }
+
+  /**
+   * Integrates the profile forward in time to obtain the trajectory states.
+   *
+   * @return The trajectory.
+   */
+  PratsTrajectory toTrajectory() {
+    return VelocityProfile.toTrajectory(m_points, m_distance, m_velocity, m_reversed);
+  }
+}
@@ -0,0 +1,108 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+/**
+ * Columns of spline evaluations filled by
+ * {@link PratsSpline#getPoints(double[], int, SplineSamples)}. Each column is a
+ * primitive array indexed like the array of t values it was evaluated at, so a
+ * batch can be reused across sweeps without allocating.
+ *
+ * <p>
+ * The getters return the backing arrays, not copies. Only the first count
+ * elements written by the last evaluation are meaningful.
+ */
+public final class SplineSamples {
+  private final double[] m_x;
+  private final double[] m_y;
+  private final double[] m_dx;
+  private final double[] m_dy;
+  private final double[] m_ddx;
+  private final double[] m_ddy;
+  private final double[] m_curvature;
+
+  /**
+   * Constructs columns with room for the given number of evaluations.
+   *
+   * @param capacity The number of evaluations.
+   */
+  public SplineSamples(int capacity) {
+    m_x = new double[capacity];
+    m_y = new double[capacity];
+    m_dx = new double[capacity];
+    m_dy = new double[capacity];
+    m_ddx = new double[capacity];
+    m_ddy = new double[capacity];
+    m_curvature = new double[capacity];
+  }
+
+  /**
+   * Returns the number of evaluations the columns have room for.
+   *
+   * @return The capacity.
+   */
+  public int getCapacity() {
+    return m_x.length;
+  }
+
+  /**
+   * Returns the x positions.
+   *
+   * @return The x column.
+   */
+  public double[] getX() {
+    return m_x;
+  }
+
+  /**
+   * Returns the y positions.
+   *
+   * @return The y column.
+   */
+  public double[] getY() {
+    return m_y;
+  }
+
+  /**
+   * Returns the values of dx/dt.
+   *
+   * @return The dx column.
+   */
+  public double[] getDx() {
+    return m_dx;
+  }
+
+  /**
+   * Returns the values of dy/dt.
+   *
+   * @return The dy column.
+   */
+  public double[] getDy() {
+    return m_dy;
+  }
+
+  /**
+   * Returns the values of d²x/dt².
+   *
+   * @return The ddx column.
+   */
+  public double[] getDdx() {
+    return m_ddx;
+  }
+
+  /**
+   * Returns the values of d²y/dt².
+   *
+   * @return The ddy column.
+   */
+  public double[] getDdy() {
+    return m_ddy;
+  }
+
+  /**
+   * Returns the curvatures.
+   *
+   * @return The curvature column.
+   */
+  public double[] getCurvature() {
+    return m_curvature;
+  }
+}
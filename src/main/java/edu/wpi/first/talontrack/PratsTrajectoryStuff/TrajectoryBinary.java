@@ -0,0 +1,150 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A compact binary trajectory file that loads by memory-mapping it instead of
+ * parsing it.
+ *
+ * <p>
+ * All values are little-endian. The file starts with a {@value #kHeaderBytes}
+ * byte header:
+ *
+ * <pre>
+ * int    magic      "TTRB"
+ * int    version    {@value #kVersion}
+ * int    flags      bit 0 set when the states are uniformly spaced in time
+ * int    size       the number of states
+ * double dtSeconds  the timestep of a uniform trajectory, otherwise 0
+ * </pre>
+ *
+ * <p>
+ * The header is followed by one column of size doubles for each state field,
+ * in the order time, velocity, acceleration, x, y, heading, tangent and
+ * curvature. The values are the ones the JSON export writes for the same
+ * trajectory.
+ */
+public final class TrajectoryBinary {
+  /** The file name suffix of binary trajectories. */
+  public static final String kExtension = ".wpilib.bin";
+  /** The version written by {@link #write(PrimitiveTrajectory, double, Path)}. */
+  public static final int kVersion = 1;
+  /** The size of the header in bytes. */
+  public static final int kHeaderBytes = 24;
+
+  static final int kMagic = 0x54545242; // "TTRB"
+  static final int kColumns = 8;
+  static final int kFlagUniform = 1;
+
+  private TrajectoryBinary() {
+    throw new UnsupportedOperationException("This is a utility class!");
+  }
+
+  /**
+   * Writes a trajectory whose states are not uniformly spaced.
+   *
+   * @param trajectory The trajectory to write.
+   * @param path       The file to write.
+   * @throws IOException if writing fails.
+   */
+  public static void write(PratsTrajectory trajectory, Path path) throws IOException {
+    write(trajectory.toPrimitive(), 0.0, path);
+  }
+
+  /**
+   * Writes a trajectory. The file is written next to the target and moved over
+   * it, so a reader that still has the old file mapped keeps seeing the old
+   * contents instead of a file truncated under it.
+   *
+   * @param trajectory The trajectory to write.
+   * @param dtSeconds  The timestep the states are spaced at, as produced by
+   *                   {@link PratsTrajectoryUtil#resample}, or 0 if they are
+   *                   not uniformly spaced.
+   * @param path       The file to write.
+   * @throws IOException if writing fails.
+   */
+  public static void write(PrimitiveTrajectory trajectory, double dtSeconds, Path path) throws IOException {
+    final int size = trajectory.size();
+    final var buffer = ByteBuffer.allocate(kHeaderBytes + kColumns * Double.BYTES * size)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(kMagic)
+        .putInt(kVersion)
+        .putInt(dtSeconds > 0.0 ? kFlagUniform : 0)
+        .putInt(size)
+        .putDouble(dtSeconds > 0.0 ? dtSeconds : 0.0);
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(trajectory.getTimeSeconds(i));
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(trajectory.getVelocityMetersPerSecond(i));
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(trajectory.getAccelerationMetersPerSecondSq(i));
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(trajectory.getX(i));
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(trajectory.getY(i));
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(trajectory.getHeadingRadians(i));
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(trajectory.getTangentRadians(i));
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(trajectory.getCurvatureRadPerMeter(i));
+    }
+    buffer.flip();
+
+    final Path directory = path.toAbsolutePath().getParent();
+    final Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+    try {
+      try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      try {
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Memory-maps a trajectory file. Nothing is copied or parsed beyond the
+   * header; states are read from the mapping as they are accessed.
+   *
+   * @param path The file to map.
+   * @return The mapped trajectory.
+   * @throws IOException if the file cannot be mapped.
+   * @throws PratsTrajectoryUtil.TrajectorySerializationException if the file is
+   *                                                              not a binary
+   *                                                              trajectory of a
+   *                                                              known version.
+   */
+  public static MappedTrajectory map(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long length = channel.size();
+      if (length < kHeaderBytes) {
+        throw new PratsTrajectoryUtil.TrajectorySerializationException(path + " is too short for a trajectory.");
+      }
+      // The mapping stays valid after the channel is closed.
+      final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+      return new MappedTrajectory(buffer, path.toString());
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drops states that a trajectory can do without. The time parameterizer adds a
+ * state whenever the pose moves far enough, so straight or gently curving
+ * stretches carry many states that lie almost exactly between their
+ * neighbours.
+ *
+ * <p>
+ * The decimator runs a Douglas-Peucker pass over the states: a span between
+ * two kept states is accepted when {@link PratsTrajectory#sample(double)}, the
+ * same interpolation WPILib's Trajectory.sample() does on the robot, gives
+ * within the tolerances what sampling the original trajectory gives at the
+ * time of every state inside the span and of the state ending it. Otherwise
+ * the span is split at the state that misses them by the most. The first and
+ * last states are always kept. The original trajectory is the reference
+ * rather than its states because sample() interpolates poses by the chord
+ * between two states, so even undecimated it does not land exactly on the
+ * later state's pose on a curve.
+ *
+ * <p>
+ * sample() integrates the acceleration of the earlier state across the whole
+ * span, so a kept state followed by dropped ones gets the constant
+ * acceleration that takes its speed to that of the next kept state over the
+ * distance between them, (v1² - v0²) / 2Δs. This is how the time
+ * parameterizer sets the acceleration of every state, so an undecimated span
+ * is reproduced exactly and a kept state whose successor is kept is left as it
+ * is.
+ */
+public class TrajectoryDecimator {
+  private final double m_positionToleranceMeters;
+  private final double m_headingToleranceRadians;
+  private final double m_velocityToleranceMetersPerSecond;
+  private final double m_accelerationToleranceMetersPerSecondSq;
+
+  /**
+   * Constructs a decimator. Each tolerance is the largest difference allowed
+   * between the original and the decimated trajectory sampled at the time of a
+   * state of the original. Headings are compared along the shorter way round.
+   *
+   * @param positionToleranceMeters                The position tolerance.
+   * @param headingToleranceRadians                The heading tolerance.
+   * @param velocityToleranceMetersPerSecond       The velocity tolerance.
+   * @param accelerationToleranceMetersPerSecondSq The acceleration tolerance.
+   */
+  public TrajectoryDecimator(
+      double positionToleranceMeters,
+      double headingToleranceRadians,
+      double velocityToleranceMetersPerSecond,
+      double accelerationToleranceMetersPerSecondSq) {
+    m_positionToleranceMeters = checkTolerance("Position", positionToleranceMeters);
+    m_headingToleranceRadians = checkTolerance("Heading", headingToleranceRadians);
+    m_velocityToleranceMetersPerSecond = checkTolerance("Velocity", velocityToleranceMetersPerSecond);
+    m_accelerationToleranceMetersPerSecondSq = checkTolerance("Acceleration", accelerationToleranceMetersPerSecondSq);
+  }
+
+  private static double checkTolerance(String name, double tolerance) {
+    if (!(tolerance >= 0.0)) {
+      throw new IllegalArgumentException(name + " tolerance must not be negative, got " + tolerance);
+    }
+    return tolerance;
+  }
+
+  /**
+   * Decimates a trajectory.
+   *
+   * @param trajectory The trajectory to decimate.
+   * @return The decimated trajectory and how much it shrank.
+   */
+  public Result decimate(PratsTrajectory trajectory) {
+    final var states = trajectory.getStates().toArray(new PratsTrajectory.State[0]);
+    final int size = states.length;
+    if (size <= 2) {
+      return new Result(trajectory, size);
+    }
+
+    // The distance travelled up to every state, signed like the velocities.
+    final double[] distance = new double[size];
+    for (int i = 1; i < size; i++) {
+      final var previous = states[i - 1];
+      final double dt = states[i].timeSeconds - previous.timeSeconds;
+      distance[i] = distance[i - 1] + previous.velocityMetersPerSecond * dt
+          + 0.5 * previous.accelerationMetersPerSecondSq * dt * dt;
+    }
+
+    // What sampling the original trajectory gives at the time of every state.
+    final var reference = new PratsTrajectory.State[size];
+    reference[0] = states[0];
+    for (int i = 1; i < size; i++) {
+      reference[i] = states[i].timeSeconds - states[i - 1].timeSeconds < 1E-9
+          ? states[i]
+          : states[i - 1].interpolate(states[i], 1.0);
+    }
+
+    final boolean[] keep = new boolean[size];
+    keep[0] = true;
+    keep[size - 1] = true;
+
+    // Spans still to be checked, as pairs of start and end indices.
+    final int[] stack = new int[2 * size];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = size - 1;
+    while (top > 0) {
+      final int end = stack[--top];
+      final int start = stack[--top];
+      if (end - start < 2) {
+        continue;
+      }
+
+      final var spanStart = getSpanStart(states, distance, start, end);
+      int worstIndex = -1;
+      double worstExcess = 0.0;
+      for (int i = start + 1; i < end; i++) {
+        final double excess = getExcess(spanStart, states[end], states[i], reference[i], true);
+        if (excess > worstExcess) {
+          worstExcess = excess;
+          worstIndex = i;
+        }
+      }
+      // The span also has to arrive at the state ending it; if only that
+      // misses, split the span in the middle.
+      if (worstIndex == -1 && getExcess(spanStart, states[end], states[end], reference[end], false) > 0.0) {
+        worstIndex = (start + end) >>> 1;
+      }
+
+      if (worstIndex != -1) {
+        keep[worstIndex] = true;
+        stack[top++] = start;
+        stack[top++] = worstIndex;
+        stack[top++] = worstIndex;
+        stack[top++] = end;
+      }
+    }
+
+    final List<PratsTrajectory.State> kept = new ArrayList<>();
+    int previous = 0;
+    for (int i = 1; i < size; i++) {
+      if (keep[i]) {
+        kept.add(getSpanStart(states, distance, previous, i));
+        previous = i;
+      }
+    }
+    kept.add(states[size - 1]);
+    return new Result(new PratsTrajectory(PrimitiveTrajectory.fromStates(kept)), size);
+  }
+
+  /**
+   * Returns the state starting a span as it is kept, with the acceleration that
+   * takes it to the state ending the span.
+   */
+  private static PratsTrajectory.State getSpanStart(
+      PratsTrajectory.State[] states, double[] distance, int start, int end) {
+    final var state = states[start];
+    if (end == start + 1) {
+      return state;
+    }
+    final double v0 = state.velocityMetersPerSecond;
+    final double v1 = states[end].velocityMetersPerSecond;
+    final double ds = distance[end] - distance[start];
+    final double dt = states[end].timeSeconds - state.timeSeconds;
+    final double acceleration;
+    if (Math.abs(ds) > 1E-9) {
+      acceleration = (v1 * v1 - v0 * v0) / (2 * ds);
+    } else {
+      acceleration = dt > 1E-9 ? (v1 - v0) / dt : 0.0;
+    }
+    return new PratsTrajectory.State(
+        state.timeSeconds, v0, acceleration, state.poseMeters, state.curvatureRadPerMeter);
+  }
+
+  /**
+   * Returns how far sampling between the start and end of a span at the time of
+   * a state is outside the tolerances of the reference sample, as a multiple of
+   * the tolerance it misses by the most. The acceleration is compared to that of
+   * the state, which the original trajectory holds until its next state. The
+   * result is 0 when the sample is within every tolerance.
+   */
+  private double getExcess(PratsTrajectory.State start, PratsTrajectory.State end, PratsTrajectory.State state,
+      PratsTrajectory.State reference, boolean checkAcceleration) {
+    final double duration = end.timeSeconds - start.timeSeconds;
+    final var sampled = duration < 1E-9
+        ? end
+        : start.interpolate(end, (state.timeSeconds - start.timeSeconds) / duration);
+
+    final var sampledPose = sampled.poseMeters;
+    final var pose = reference.poseMeters;
+    final double positionError = Math.hypot(sampledPose.getX() - pose.getX(), sampledPose.getY() - pose.getY());
+    final double headingError = Math.abs(
+        wrap(sampledPose.getRotation().getRadians() - pose.getRotation().getRadians()));
+    final double velocityError = Math.abs(sampled.velocityMetersPerSecond - reference.velocityMetersPerSecond);
+    final double accelerationError = checkAcceleration
+        ? Math.abs(sampled.accelerationMetersPerSecondSq - state.accelerationMetersPerSecondSq)
+        : 0.0;
+
+    return Math.max(
+        Math.max(getExcess(positionError, m_positionToleranceMeters),
+            getExcess(headingError, m_headingToleranceRadians)),
+        Math.max(getExcess(velocityError, m_velocityToleranceMetersPerSecond),
+            getExcess(accelerationError, m_accelerationToleranceMetersPerSecondSq)));
+  }
+
+  /** Wraps an angle into (-π, π], as Rotation2d does. */
+  private static double wrap(double radians) {
+    return Math.atan2(Math.sin(radians), Math.cos(radians));
+  }
+
+  private static double getExcess(double error, double tolerance) {
+    if (error <= tolerance) {
+      return 0.0;
+    }
+    // NaN, as sampling between two states at the same position gives, never fits
+    return tolerance > 0.0 && !Double.isNaN(error) ? error / tolerance : Double.POSITIVE_INFINITY;
+  }
+
+  /** A decimated trajectory and the number of states it was decimated from. */
+  public static final class Result {
+    private final PratsTrajectory m_trajectory;
+    private final int m_originalSize;
+
+    private Result(PratsTrajectory trajectory, int originalSize) {
+      m_trajectory = trajectory;
+      m_originalSize = originalSize;
+    }
+
+    /**
+     * Returns the decimated trajectory.
+     *
+     * @return The decimated trajectory.
+     */
+    public PratsTrajectory getTrajectory() {
+      return m_trajectory;
+    }
+
+    /**
+     * Returns the number of states before decimation.
+     *
+     * @return The original number of states.
+     */
+    public int getOriginalSize() {
+      return m_originalSize;
+    }
+
+    /**
+     * Returns the number of states after decimation.
+     *
+     * @return The decimated number of states.
+     */
+    public int getDecimatedSize() {
+      return m_trajectory.getStates().size();
+    }
+
+    /**
+     * Returns the original number of states divided by the decimated number, so
+     * 4 means the trajectory shrank to a quarter of its states.
+     *
+     * @return The compression ratio.
+     */
+    public double getCompressionRatio() {
+      return getDecimatedSize() == 0 ? 1.0 : (double) m_originalSize / getDecimatedSize();
+    }
+  }
+}
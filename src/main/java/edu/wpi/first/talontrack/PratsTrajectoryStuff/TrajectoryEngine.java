@@ -0,0 +1,237 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import edu.wpi.first.math.MathSharedStore;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsSplineParameterizer.MalformedSplineException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+
+/**
+ * Generates trajectories. Unlike the static {@link PratsTrajectoryGenerator},
+ * every build keeps its intermediate state on the stack and errors go to the
+ * handler the engine was created with, so one engine can be shared by any
+ * number of threads generating trajectories at the same time.
+ */
+public final class TrajectoryEngine {
+  /**
+   * Paths with fewer splines than this are always parameterized on the calling
+   * thread; forking is not worth it for a handful of segments.
+   */
+  private static final int kParallelSplineThreshold = 6;
+
+  private final BiConsumer<String, StackTraceElement[]> m_errorHandler;
+
+  /** Constructs an engine that reports errors through MathSharedStore. */
+  public TrajectoryEngine() {
+    this(MathSharedStore::reportError);
+  }
+
+  /**
+   * Constructs an engine with the given error reporting function.
+   *
+   * @param errorHandler Error reporting function, arguments are error and
+   *                     stackTrace. It may be called from any thread that
+   *                     generates a trajectory.
+   */
+  public TrajectoryEngine(BiConsumer<String, StackTraceElement[]> errorHandler) {
+    m_errorHandler = Objects.requireNonNull(errorHandler, "errorHandler");
+  }
+
+  /**
+   * Generates a trajectory from the given waypoints and config. This method uses
+   * quintic hermite
+   * splines -- therefore, all points must be represented by Pose2d objects.
+   * Continuous curvature is
+   * guaranteed in this method.
+   *
+   * @param waypoints List of waypoints..
+   * @param config    The configuration for the trajectory.
+   * @return The generated trajectory.
+   */
+  @SuppressWarnings("LocalVariableName")
+  public PratsTrajectory generateTrajectory(List<PratsPose2d> waypoints, PratsTrajectoryConfig config) {
+    final var flip = new PratsTransform2d(new Translation2d(), Rotation2d.fromDegrees(180.0),
+        Rotation2d.fromDegrees(180.0));
+
+    List<PratsPose2d> newWaypoints = new ArrayList<>();
+    if (config.isReversed()) {
+      for (PratsPose2d originalWaypoint : waypoints) {
+        newWaypoints.add(originalWaypoint.pratsPlus(flip));
+      }
+    } else {
+      newWaypoints.addAll(waypoints);
+    }
+    // Get the spline points
+    List<PratsPoseWithCurvature> points;
+    try {
+      points = splinePointsFromSplines(PratsSplineHelper.getQuinticSplinesFromWaypoints(newWaypoints), newWaypoints,
+          config.isParallelParameterization());
+    } catch (MalformedSplineException ex) {
+      m_errorHandler.accept(ex.getMessage(), ex.getStackTrace());
+      return new PratsTrajectory(Arrays.asList(new PratsTrajectory.State()));
+    }
+
+    // Change the points back to their original orientation.
+    if (config.isReversed()) {
+      for (var point : points) {
+        point.poseMeters = point.poseMeters.pratsPlus(flip);
+        point.curvatureRadPerMeter *= -1;
+      }
+    }
+
+    // Generate and return trajectory.
+    if (config.isReachabilityParameterization()) {
+      return PratsTrajectoryParameterizer.reachabilityParameterizeTrajectory(
+          points,
+          config.getConstraints(),
+          config.getStartVelocity(),
+          config.getEndVelocity(),
+          config.getMaxVelocity(),
+          config.getMaxAcceleration(),
+          config.isReversed());
+    }
+    return PratsTrajectoryParameterizer.timeParameterizeTrajectory(
+        points,
+        config.getConstraints(),
+        config.getStartVelocity(),
+        config.getEndVelocity(),
+        config.getMaxVelocity(),
+        config.getMaxAcceleration(),
+        config.isReversed());
+  }
+
+  /**
+   * Generate spline points from a vector of splines by parameterizing the
+   * splines. In parallel mode the splines are parameterized concurrently on the
+   * common fork/join pool once there are enough of them; the result is identical
+   * to the sequential mode.
+   *
+   * @param splines  The splines to parameterize.
+   * @param wps      The waypoints the splines were built from.
+   * @param parallel Whether to parameterize the splines concurrently.
+   * @return The spline points for use in time parameterization of a trajectory.
+   * @throws MalformedSplineException When the spline is malformed (e.g. has close
+   *                                  adjacent points
+   *                                  with approximately opposing headings)
+   */
+  public static List<PratsPoseWithCurvature> splinePointsFromSplines(PratsSpline[] splines, List<PratsPose2d> wps,
+      boolean parallel) {
+    List<PratsPoseWithCurvature>[] parameterized = parameterizeSplines(splines, parallel);
+
+    // Create the vector of spline points.
+    int size = 1;
+    for (final var points : parameterized) {
+      size += points.size() - 1;
+    }
+    var splinePoints = new ArrayList<PratsPoseWithCurvature>(size);
+
+    // Add the first point to the vector.
+    splinePoints.add(splines[0].getPoint(0.0));
+
+    // Index of the spline point that sits on each waypoint. The first waypoint
+    // is the first point, and every spline ends on the next waypoint.
+    int[] waypointIndices = new int[splines.length + 1];
+
+    // Stitch the parameterized splines together in order.
+    for (int i = 0; i < parameterized.length; i++) {
+      final var points = parameterized[i];
+
+      // Append the array of poses to the vector. We are removing the first
+      // point because it's a duplicate of the last point from the previous
+      // spline.
+      splinePoints.addAll(points.subList(1, points.size()));
+      waypointIndices[i + 1] = splinePoints.size() - 1;
+    }
+
+    anchorRotations(splinePoints, wps, waypointIndices);
+
+    return splinePoints;
+  }
+
+  /**
+   * Gives every spline point a heading. Points on a waypoint take the waypoint's
+   * heading, and the points between two waypoints ease from one heading to the
+   * next along an S-curve.
+   *
+   * @param splinePoints    The stitched spline points.
+   * @param wps             The waypoints the splines were built from.
+   * @param waypointIndices The index of the spline point on each waypoint.
+   */
+  private static void anchorRotations(List<PratsPoseWithCurvature> splinePoints, List<PratsPose2d> wps,
+      int[] waypointIndices) {
+    for (int i = 0; i < waypointIndices.length; i++) {
+      splinePoints.get(waypointIndices[i]).poseMeters.setRotation(wps.get(i).getRotation());
+    }
+
+    for (int i = 0; i < waypointIndices.length - 1; i++) {
+      final int start = waypointIndices[i];
+      final int end = waypointIndices[i + 1];
+      final double startDeg = splinePoints.get(start).poseMeters.getRotation().getDegrees();
+      final double endDeg = splinePoints.get(end).poseMeters.getRotation().getDegrees();
+      final double range = PratsTrajectoryGenerator.findDegDist(startDeg, endDeg);
+      for (int k = start + 1; k < end; k++) {
+        splinePoints.get(k).poseMeters.setRotation(
+            Rotation2d.fromDegrees(startDeg + PratsTrajectoryGenerator.sCurve(range, end - start, k - start)));
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<PratsPoseWithCurvature>[] parameterizeSplines(PratsSpline[] splines, boolean parallel) {
+    List<PratsPoseWithCurvature>[] parameterized = new List[splines.length];
+    if (parallel && splines.length >= kParallelSplineThreshold) {
+      ForkJoinPool.commonPool().invoke(new ParameterizeAction(splines, parameterized, 0, splines.length));
+    } else {
+      final var subdivider = new PratsSplineParameterizer.Subdivider();
+      for (int i = 0; i < splines.length; i++) {
+        parameterized[i] = subdivider.parameterize(splines[i], 0.0, 1.0);
+      }
+    }
+    return parameterized;
+  }
+
+  /**
+   * Parameterizes a range of splines, splitting the range in half until it is
+   * small enough to do on one thread. Every spline writes into its own slot of
+   * the output array, so the order of the result does not depend on scheduling.
+   */
+  @SuppressWarnings("serial")
+  private static final class ParameterizeAction extends RecursiveAction {
+    private final PratsSpline[] m_splines;
+    private final List<PratsPoseWithCurvature>[] m_output;
+    private final int m_start;
+    private final int m_end;
+
+    ParameterizeAction(PratsSpline[] splines, List<PratsPoseWithCurvature>[] output, int start, int end) {
+      m_splines = splines;
+      m_output = output;
+      m_start = start;
+      m_end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (m_end - m_start <= 1) {
+        for (int i = m_start; i < m_end; i++) {
+          m_output[i] = PratsSplineParameterizer.parameterize(m_splines[i]);
+        }
+        return;
+      }
+      int mid = (m_start + m_end) >>> 1;
+      invokeAll(
+          new ParameterizeAction(m_splines, m_output, m_start, mid),
+          new ParameterizeAction(m_splines, m_output, mid, m_end));
+    }
+  }
+}
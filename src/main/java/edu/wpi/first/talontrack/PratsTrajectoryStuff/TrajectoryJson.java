@@ -0,0 +1,532 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Streams trajectories to and from talontrack-style JSON in plain Java, without
+ * going through the native WPILib serializer.
+ *
+ * <p>
+ * The format is the one WPILib's TrajectoryUtil writes: an array of states,
+ * each with "time", "velocity", "acceleration", "curvature" and a "pose" holding
+ * a "translation" with "x" and "y" and a "rotation" with "radians". The pose
+ * also carries a "tangent" with "radians". WPILib ignores fields it does not
+ * know, so robot code can still load the files, and files without a tangent
+ * read back with the tangent equal to the rotation.
+ *
+ * <p>
+ * The reader also accepts an object whose "states" field holds that array, as
+ * written by {@link PratsTrajectoryUtil#toUniformPathweaverJson}. States are
+ * written and read one at a time, so neither side builds the whole document or
+ * a flat array of elements in memory.
+ */
+public final class TrajectoryJson {
+  private TrajectoryJson() {
+    throw new UnsupportedOperationException("This is a utility class!");
+  }
+
+  /**
+   * Writes the states of a trajectory as a JSON array.
+   *
+   * @param trajectory The trajectory to write.
+   * @param writer     The writer to write to. It is neither flushed nor closed.
+   * @throws IOException if writing fails.
+   */
+  public static void write(PratsTrajectory trajectory, Writer writer) throws IOException {
+    writer.write('[');
+    boolean first = true;
+    for (var state : trajectory.getStates()) {
+      if (!first) {
+        writer.write(',');
+      }
+      first = false;
+      writeState(writer, state.timeSeconds, state.velocityMetersPerSecond, state.accelerationMetersPerSecondSq,
+          state.poseMeters.getX(), state.poseMeters.getY(), state.poseMeters.getRotation().getRadians(),
+          state.poseMeters.getTangent().getRadians(), state.curvatureRadPerMeter);
+    }
+    writer.write(']');
+  }
+
+  /**
+   * Writes the states of a columnar trajectory as a JSON array.
+   *
+   * @param trajectory The trajectory to write.
+   * @param writer     The writer to write to. It is neither flushed nor closed.
+   * @throws IOException if writing fails.
+   */
+  public static void write(PrimitiveTrajectory trajectory, Writer writer) throws IOException {
+    writer.write('[');
+    for (int i = 0; i < trajectory.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writeState(writer, trajectory.getTimeSeconds(i), trajectory.getVelocityMetersPerSecond(i),
+          trajectory.getAccelerationMetersPerSecondSq(i), trajectory.getX(i), trajectory.getY(i),
+          trajectory.getHeadingRadians(i), trajectory.getTangentRadians(i), trajectory.getCurvatureRadPerMeter(i));
+    }
+    writer.write(']');
+  }
+
+  /**
+   * Reads a trajectory written by {@link #write(PratsTrajectory, Writer)} or by
+   * WPILib's TrajectoryUtil.
+   *
+   * @param channel The channel to read from. It is read to the end but not
+   *                closed.
+   * @return The trajectory.
+   * @throws IOException if reading fails.
+   * @throws PratsTrajectoryUtil.TrajectorySerializationException if the JSON is
+   *                                                              malformed, is
+   *                                                              followed by
+   *                                                              anything but
+   *                                                              whitespace, or
+   *                                                              a state is
+   *                                                              missing a field.
+   */
+  public static PratsTrajectory read(ReadableByteChannel channel) throws IOException {
+    return new PratsTrajectory(new Reader(channel).readTrajectory());
+  }
+
+  @SuppressWarnings("ParameterNumber")
+  private static void writeState(Writer writer, double timeSeconds, double velocityMetersPerSecond,
+      double accelerationMetersPerSecondSq, double xMeters, double yMeters, double headingRadians,
+      double tangentRadians, double curvatureRadPerMeter) throws IOException {
+    writer.write("{\"acceleration\":");
+    writeNumber(writer, accelerationMetersPerSecondSq);
+    writer.write(",\"curvature\":");
+    writeNumber(writer, curvatureRadPerMeter);
+    writer.write(",\"pose\":{\"rotation\":{\"radians\":");
+    writeNumber(writer, headingRadians);
+    writer.write("},\"tangent\":{\"radians\":");
+    writeNumber(writer, tangentRadians);
+    writer.write("},\"translation\":{\"x\":");
+    writeNumber(writer, xMeters);
+    writer.write(",\"y\":");
+    writeNumber(writer, yMeters);
+    writer.write("}},\"time\":");
+    writeNumber(writer, timeSeconds);
+    writer.write(",\"velocity\":");
+    writeNumber(writer, velocityMetersPerSecond);
+    writer.write('}');
+  }
+
+  private static void writeNumber(Writer writer, double value) throws IOException {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw new PratsTrajectoryUtil.TrajectorySerializationException(
+          "Cannot write " + value + " to trajectory JSON.");
+    }
+    writer.write(Double.toString(value));
+  }
+
+  /**
+   * A pull parser over a channel. Only the fields of a state are kept; any other
+   * value is skipped.
+   */
+  private static final class Reader {
+    private static final int kBufferSize = 8192;
+
+    // Bits of the fields a state has been given.
+    private static final int kTime = 1;
+    private static final int kVelocity = 1 << 1;
+    private static final int kAcceleration = 1 << 2;
+    private static final int kX = 1 << 3;
+    private static final int kY = 1 << 4;
+    private static final int kHeading = 1 << 5;
+    private static final int kTangent = 1 << 6;
+    private static final int kCurvature = 1 << 7;
+    private static final int kRequired = kTime | kVelocity | kAcceleration | kX | kY | kHeading | kCurvature;
+
+    private final ReadableByteChannel m_channel;
+    private final ByteBuffer m_buffer = ByteBuffer.allocate(kBufferSize);
+    private final StringBuilder m_token = new StringBuilder();
+
+    private int m_size;
+    private double[][] m_columns = new double[8][64];
+    private final double[] m_state = new double[8];
+    private int m_fields;
+
+    Reader(ReadableByteChannel channel) {
+      m_channel = channel;
+      m_buffer.limit(0);
+    }
+
+    PrimitiveTrajectory readTrajectory() throws IOException {
+      final int start = peekToken();
+      if (start == '[') {
+        readStates();
+      } else if (start == '{') {
+        next();
+        boolean found = false;
+        if (peekToken() != '}') {
+          do {
+            if ("states".contentEquals(readKey())) {
+              readStates();
+              found = true;
+            } else {
+              skipValue();
+            }
+          } while (nextSeparator('}'));
+        } else {
+          next();
+        }
+        if (!found) {
+          throw error("Trajectory JSON has no \"states\" array");
+        }
+      } else {
+        throw error("Trajectory JSON must be an array or an object");
+      }
+      if (peekToken() >= 0) {
+        throw error("Unexpected data after the trajectory");
+      }
+
+      return new PrimitiveTrajectory(m_size, Arrays.copyOf(m_columns[0], m_size),
+          Arrays.copyOf(m_columns[1], m_size), Arrays.copyOf(m_columns[2], m_size),
+          Arrays.copyOf(m_columns[3], m_size), Arrays.copyOf(m_columns[4], m_size),
+          Arrays.copyOf(m_columns[5], m_size), Arrays.copyOf(m_columns[6], m_size),
+          Arrays.copyOf(m_columns[7], m_size));
+    }
+
+    private void readStates() throws IOException {
+      expect('[');
+      if (peekToken() == ']') {
+        next();
+        return;
+      }
+      do {
+        readState();
+      } while (nextSeparator(']'));
+    }
+
+    private void readState() throws IOException {
+      m_fields = 0;
+      readObject(Field.STATE);
+      if ((m_fields & kRequired) != kRequired) {
+        throw error("Trajectory state " + m_size + " is missing a field");
+      }
+      if ((m_fields & kTangent) == 0) {
+        m_state[6] = m_state[5];
+      }
+
+      if (m_size == m_columns[0].length) {
+        for (int column = 0; column < m_columns.length; column++) {
+          m_columns[column] = Arrays.copyOf(m_columns[column], m_size * 2);
+        }
+      }
+      for (int column = 0; column < m_columns.length; column++) {
+        m_columns[column][m_size] = m_state[column];
+      }
+      m_size++;
+    }
+
+    /** Reads an object, storing the fields that belong to the given level. */
+    private void readObject(Field level) throws IOException {
+      expect('{');
+      if (peekToken() == '}') {
+        next();
+        return;
+      }
+      do {
+        final var key = readKey();
+        final var field = level.child(key);
+        if (field == null) {
+          skipValue();
+        } else if (field.m_column < 0) {
+          readObject(field);
+        } else {
+          m_state[field.m_column] = readNumber();
+          m_fields |= field.m_bit;
+        }
+      } while (nextSeparator('}'));
+    }
+
+    /** Reads an object key and the colon after it. */
+    private CharSequence readKey() throws IOException {
+      if (peekToken() != '"') {
+        throw error("Expected an object key");
+      }
+      readString();
+      expect(':');
+      return m_token;
+    }
+
+    /** Reads a string into the token buffer, decoding escapes and UTF-8. */
+    private void readString() throws IOException {
+      expect('"');
+      m_token.setLength(0);
+      while (true) {
+        final int c = next();
+        if (c < 0) {
+          throw error("Unterminated string");
+        } else if (c == '"') {
+          return;
+        } else if (c == '\\') {
+          readEscape();
+        } else if (c < 0x20) {
+          throw error("Unescaped control character in a string");
+        } else if (c < 0x80) {
+          m_token.append((char) c);
+        } else {
+          m_token.appendCodePoint(readUtf8(c));
+        }
+      }
+    }
+
+    /** Reads the rest of an escape sequence after its backslash. */
+    private void readEscape() throws IOException {
+      final int c = next();
+      switch (c) {
+        case '"':
+        case '\\':
+        case '/':
+          m_token.append((char) c);
+          break;
+        case 'b':
+          m_token.append('\b');
+          break;
+        case 'f':
+          m_token.append('\f');
+          break;
+        case 'n':
+          m_token.append('\n');
+          break;
+        case 'r':
+          m_token.append('\r');
+          break;
+        case 't':
+          m_token.append('\t');
+          break;
+        case 'u':
+          // A surrogate pair is two escapes, each appending one half.
+          int value = 0;
+          for (int i = 0; i < 4; i++) {
+            final int digit = Character.digit(next(), 16);
+            if (digit < 0) {
+              throw error("Invalid \\u escape in a string");
+            }
+            value = value * 16 + digit;
+          }
+          m_token.append((char) value);
+          break;
+        default:
+          throw error("Invalid escape in a string");
+      }
+    }
+
+    /** Decodes a multi-byte UTF-8 sequence given its first byte. */
+    private int readUtf8(int lead) throws IOException {
+      final int continuations;
+      final int min;
+      int codePoint;
+      if (lead >= 0xC2 && lead <= 0xDF) {
+        continuations = 1;
+        min = 0x80;
+        codePoint = lead & 0x1F;
+      } else if (lead >= 0xE0 && lead <= 0xEF) {
+        continuations = 2;
+        min = 0x800;
+        codePoint = lead & 0x0F;
+      } else if (lead >= 0xF0 && lead <= 0xF4) {
+        continuations = 3;
+        min = 0x10000;
+        codePoint = lead & 0x07;
+      } else {
+        throw error("Invalid UTF-8 in a string");
+      }
+      for (int i = 0; i < continuations; i++) {
+        final int c = next();
+        if ((c & 0xC0) != 0x80) {
+          throw error("Invalid UTF-8 in a string");
+        }
+        codePoint = codePoint << 6 | c & 0x3F;
+      }
+      // Reject overlong encodings, surrogates and anything past U+10FFFF.
+      if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+          || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+        throw error("Invalid UTF-8 in a string");
+      }
+      return codePoint;
+    }
+
+    private double readNumber() throws IOException {
+      peekToken();
+      m_token.setLength(0);
+      int c = peek();
+      while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || c >= '0' && c <= '9') {
+        m_token.append((char) next());
+        c = peek();
+      }
+      try {
+        return Double.parseDouble(m_token.toString());
+      } catch (NumberFormatException e) {
+        throw error("Expected a number but found \"" + m_token + "\"");
+      }
+    }
+
+    private void skipValue() throws IOException {
+      final int c = peekToken();
+      if (c == '{' || c == '[') {
+        final int close = c == '{' ? '}' : ']';
+        next();
+        if (peekToken() == close) {
+          next();
+          return;
+        }
+        do {
+          if (c == '{') {
+            readKey();
+          }
+          skipValue();
+        } while (nextSeparator(close));
+      } else if (c == '"') {
+        readString();
+      } else if (c == '-' || c >= '0' && c <= '9') {
+        readNumber();
+      } else {
+        m_token.setLength(0);
+        while (peek() >= 'a' && peek() <= 'z') {
+          m_token.append((char) next());
+        }
+        final String literal = m_token.toString();
+        if (!"true".equals(literal) && !"false".equals(literal) && !"null".equals(literal)) {
+          throw error("Unexpected \"" + literal + "\"");
+        }
+      }
+    }
+
+    /**
+     * Consumes a comma or the given closing bracket.
+     *
+     * @return Whether another element follows.
+     */
+    private boolean nextSeparator(int close) throws IOException {
+      final int c = peekToken();
+      next();
+      if (c == ',') {
+        return true;
+      }
+      if (c == close) {
+        return false;
+      }
+      throw error("Expected ',' or '" + (char) close + "'");
+    }
+
+    private void expect(int expected) throws IOException {
+      if (peekToken() != expected) {
+        throw error("Expected '" + (char) expected + "'");
+      }
+      next();
+    }
+
+    /** Skips whitespace and returns the next byte without consuming it. */
+    private int peekToken() throws IOException {
+      int c = peek();
+      while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+        next();
+        c = peek();
+      }
+      return c;
+    }
+
+    private int peek() throws IOException {
+      if (!m_buffer.hasRemaining() && !fill()) {
+        return -1;
+      }
+      return m_buffer.get(m_buffer.position()) & 0xFF;
+    }
+
+    private int next() throws IOException {
+      if (!m_buffer.hasRemaining() && !fill()) {
+        return -1;
+      }
+      return m_buffer.get() & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+      m_buffer.clear();
+      int read;
+      do {
+        read = m_channel.read(m_buffer);
+      } while (read == 0);
+      m_buffer.flip();
+      return read > 0;
+    }
+
+    private PratsTrajectoryUtil.TrajectorySerializationException error(String message) {
+      return new PratsTrajectoryUtil.TrajectorySerializationException(
+          message + " after " + m_size + " states.");
+    }
+  }
+
+  /**
+   * The fields of a state, as a tree of objects. A leaf names the column it is
+   * read into.
+   */
+  private enum Field {
+    STATE(-1, 0),
+    POSE(-1, 0),
+    TRANSLATION(-1, 0),
+    ROTATION(-1, 0),
+    TANGENT(-1, 0),
+    TIME(0, Reader.kTime),
+    VELOCITY(1, Reader.kVelocity),
+    ACCELERATION(2, Reader.kAcceleration),
+    X(3, Reader.kX),
+    Y(4, Reader.kY),
+    HEADING(5, Reader.kHeading),
+    TANGENT_RADIANS(6, Reader.kTangent),
+    CURVATURE(7, Reader.kCurvature);
+
+    private final int m_column;
+    private final int m_bit;
+
+    Field(int column, int bit) {
+      m_column = column;
+      m_bit = bit;
+    }
+
+    /** Returns the field of this object with the given key, or null. */
+    Field child(CharSequence key) {
+      final String name = key.toString();
+      switch (this) {
+        case STATE:
+          switch (name) {
+            case "time":
+              return TIME;
+            case "velocity":
+              return VELOCITY;
+            case "acceleration":
+              return ACCELERATION;
+            case "curvature":
+              return CURVATURE;
+            case "pose":
+              return POSE;
+            default:
+              return null;
+          }
+        case POSE:
+          switch (name) {
+            case "translation":
+              return TRANSLATION;
+            case "rotation":
+              return ROTATION;
+            case "tangent":
+              return TANGENT;
+            default:
+              return null;
+          }
+        case TRANSLATION:
+          return "x".equals(name) ? X : "y".equals(name) ? Y : null;
+        case ROTATION:
+          return "radians".equals(name) ? HEADING : null;
+        case TANGENT:
+          return "radians".equals(name) ? TANGENT_RADIANS : null;
+        default:
+          return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * A cursor for sampling one trajectory many times. The sampler remembers where
+ * the last sample fell, so a sequence of increasing times, as produced by
+ * playback or timeline scrubbing, walks the trajectory once instead of
+ * binary-searching it on every call. A time before the last sample falls back
+ * to a binary search.
+ *
+ * <p>
+ * Samples are written into a caller-owned {@link MutableState}, so sampling
+ * does not allocate. The interpolation is the same as
+ * {@link PratsTrajectory#sample(double)}. A sampler is not thread safe; give
+ * each thread its own.
+ */
+public final class TrajectorySampler {
+  /**
+   * How many samples a forward step scans before it switches to a binary search
+   * over the rest of the trajectory.
+   */
+  private static final int kLinearProbe = 8;
+
+  private final PrimitiveTrajectory m_trajectory;
+  private final int m_size;
+
+  // The index of the first sample at or after the last sampled time.
+  private int m_index = 1;
+  private double m_lastTimeSeconds = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Constructs a sampler for a trajectory.
+   *
+   * @param trajectory The trajectory to sample.
+   */
+  public TrajectorySampler(PratsTrajectory trajectory) {
+    this(trajectory.toPrimitive());
+  }
+
+  /**
+   * Constructs a sampler for a columnar trajectory.
+   *
+   * @param trajectory The trajectory to sample.
+   */
+  public TrajectorySampler(PrimitiveTrajectory trajectory) {
+    if (trajectory.size() == 0) {
+      throw new IllegalArgumentException("Cannot sample an empty trajectory");
+    }
+    m_trajectory = trajectory;
+    m_size = trajectory.size();
+  }
+
+  /**
+   * Samples the trajectory at a point in time.
+   *
+   * @param timeSeconds The point in time since the beginning of the trajectory to
+   *                    sample.
+   * @param out         The state to write the sample into.
+   * @return The out parameter, for chaining.
+   */
+  public MutableState sample(double timeSeconds, MutableState out) {
+    final var trajectory = m_trajectory;
+    if (timeSeconds <= trajectory.getTimeSeconds(0)) {
+      return out.set(trajectory, 0);
+    }
+    if (timeSeconds >= trajectory.getTotalTimeSeconds()) {
+      return out.set(trajectory, m_size - 1);
+    }
+
+    final int index = seek(timeSeconds);
+
+    // If the difference in states is negligible, then we are spot on!
+    final double startTime = trajectory.getTimeSeconds(index - 1);
+    final double endTime = trajectory.getTimeSeconds(index);
+    if (Math.abs(endTime - startTime) < 1E-9) {
+      return out.set(trajectory, index);
+    }
+    return out.interpolate(trajectory, index - 1, index, (timeSeconds - startTime) / (endTime - startTime));
+  }
+
+  /** Forgets the last sampled time, so the next sample searches from scratch. */
+  public void reset() {
+    m_index = 1;
+    m_lastTimeSeconds = Double.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * Moves the cursor to the first sample at or after the given time, which must
+   * lie strictly inside the trajectory.
+   */
+  private int seek(double timeSeconds) {
+    final var trajectory = m_trajectory;
+    int index = m_index;
+    if (timeSeconds < m_lastTimeSeconds) {
+      index = trajectory.indexAfter(timeSeconds, 1, index);
+    } else {
+      final int probeEnd = Math.min(index + kLinearProbe, m_size - 1);
+      while (index < probeEnd && trajectory.getTimeSeconds(index) < timeSeconds) {
+        index++;
+      }
+      if (trajectory.getTimeSeconds(index) < timeSeconds) {
+        index = trajectory.indexAfter(timeSeconds, index, m_size - 1);
+      }
+    }
+    m_index = index;
+    m_lastTimeSeconds = timeSeconds;
+    return index;
+  }
+
+  /**
+   * A trajectory state with plain fields, filled in place by
+   * {@link TrajectorySampler#sample(double, MutableState)}.
+   */
+  @SuppressWarnings("MemberName")
+  public static final class MutableState {
+    public double timeSeconds;
+    public double velocityMetersPerSecond;
+    public double accelerationMetersPerSecondSq;
+    public double xMeters;
+    public double yMeters;
+    public double headingRadians;
+    public double tangentRadians;
+    public double curvatureRadPerMeter;
+
+    // The interpolated pose, written by PoseMath.lerp.
+    private final double[] m_pose = new double[PoseMath.kPoseSize];
+
+    /**
+     * Returns a copy of this state as an immutable-style trajectory state.
+     *
+     * @return A new state.
+     */
+    public PratsTrajectory.State toState() {
+      return new PratsTrajectory.State(
+          timeSeconds,
+          velocityMetersPerSecond,
+          accelerationMetersPerSecondSq,
+          new PratsPose2d(xMeters, yMeters, new Rotation2d(headingRadians), new Rotation2d(tangentRadians)),
+          curvatureRadPerMeter);
+    }
+
+    private MutableState set(PrimitiveTrajectory trajectory, int index) {
+      timeSeconds = trajectory.getTimeSeconds(index);
+      velocityMetersPerSecond = trajectory.getVelocityMetersPerSecond(index);
+      accelerationMetersPerSecondSq = trajectory.getAccelerationMetersPerSecondSq(index);
+      xMeters = trajectory.getX(index);
+      yMeters = trajectory.getY(index);
+      headingRadians = trajectory.getHeadingRadians(index);
+      tangentRadians = trajectory.getTangentRadians(index);
+      curvatureRadPerMeter = trajectory.getCurvatureRadPerMeter(index);
+      return this;
+    }
+
+    /**
+     * Interpolates between two samples the way PratsTrajectory.State does, with
+     * the pose math done by {@link PoseMath} instead of on poses and transforms.
+     */
+    @SuppressWarnings("LocalVariableName")
+    private MutableState interpolate(PrimitiveTrajectory trajectory, int start, int end, double i) {
+      final double startTime = trajectory.getTimeSeconds(start);
+      final double velocity = trajectory.getVelocityMetersPerSecond(start);
+      final double acceleration = trajectory.getAccelerationMetersPerSecondSq(start);
+
+      // Find the new t value.
+      final double newT = startTime + (trajectory.getTimeSeconds(end) - startTime) * i;
+
+      // Find the delta time between the current state and the interpolated state.
+      final double deltaT = newT - startTime;
+
+      // Check whether the robot is reversing at this stage.
+      final boolean reversing = velocity < 0 || Math.abs(velocity) < 1E-9 && acceleration < 0;
+
+      // v_f = v_0 + at
+      final double newV = velocity + (acceleration * deltaT);
+
+      // delta_s = v_0 t + 0.5at²
+      final double newS = (velocity * deltaT + 0.5 * acceleration * Math.pow(deltaT, 2))
+          * (reversing ? -1.0 : 1.0);
+
+      final double startX = trajectory.getX(start);
+      final double startY = trajectory.getY(start);
+      final double endX = trajectory.getX(end);
+      final double endY = trajectory.getY(end);
+      final double frac = newS / Math.hypot(endX - startX, endY - startY);
+      PoseMath.lerp(startX, startY, trajectory.getHeadingRadians(start), trajectory.getTangentRadians(start),
+          endX, endY, trajectory.getTangentRadians(end), frac, m_pose);
+
+      timeSeconds = newT;
+      velocityMetersPerSecond = newV;
+      accelerationMetersPerSecondSq = acceleration;
+      xMeters = m_pose[PoseMath.kX];
+      yMeters = m_pose[PoseMath.kY];
+      headingRadians = m_pose[PoseMath.kRotation];
+      tangentRadians = m_pose[PoseMath.kTangent];
+      final double startCurvature = trajectory.getCurvatureRadPerMeter(start);
+      curvatureRadPerMeter = startCurvature + (trajectory.getCurvatureRadPerMeter(end) - startCurvature) * frac;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,328 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.util.List;
+
+/**
+ * A read-only trajectory whose states are computed on access. Transforming or
+ * concatenating a view wraps it instead of copying its states, so flipping a
+ * path for the other alliance or stitching several paths together costs O(1)
+ * until the result is read. Each state read applies the transform or time
+ * offset again; call {@link #materialize()} to compute every state once when
+ * the result will be read in full or many times.
+ *
+ * <p>
+ * The states of a view are the same as those of the eager
+ * {@link PratsTrajectory#transformBy(PratsTransform2d)},
+ * {@link PratsTrajectory#relativeTo(PratsPose2d)} and
+ * {@link PratsTrajectory#concatenate(PratsTrajectory)}. A view reads its source
+ * on every access, so the source must not be modified while the view is in use.
+ */
+public abstract class TrajectoryView {
+  /**
+   * Returns a view of a trajectory. The states are not copied.
+   *
+   * @param trajectory The trajectory.
+   * @return A view of the trajectory.
+   */
+  public static TrajectoryView of(PratsTrajectory trajectory) {
+    return trajectory.view();
+  }
+
+  /**
+   * Returns a view of a columnar trajectory. The columns are not copied.
+   *
+   * @param trajectory The trajectory.
+   * @return A view of the trajectory.
+   */
+  public static TrajectoryView of(PrimitiveTrajectory trajectory) {
+    return new PrimitiveView(trajectory);
+  }
+
+  /**
+   * Returns a view of a list of states. The list is not copied.
+   *
+   * @param states The states.
+   * @return A view of the states.
+   */
+  public static TrajectoryView of(List<PratsTrajectory.State> states) {
+    return new StateListView(states);
+  }
+
+  /**
+   * Returns the number of states in the trajectory.
+   *
+   * @return The number of states.
+   */
+  public abstract int size();
+
+  /**
+   * Returns the time of a state, without computing the rest of it.
+   *
+   * @param index The index of the state.
+   * @return The time elapsed since the beginning of the trajectory.
+   */
+  public abstract double getTimeSeconds(int index);
+
+  /**
+   * Computes a state of the trajectory.
+   *
+   * @param index The index of the state.
+   * @return The state.
+   */
+  public abstract PratsTrajectory.State getState(int index);
+
+  /**
+   * Returns the overall duration of the trajectory.
+   *
+   * @return The duration of the trajectory.
+   */
+  public double getTotalTimeSeconds() {
+    return size() == 0 ? 0.0 : getTimeSeconds(size() - 1);
+  }
+
+  /**
+   * Returns a view with every pose transformed by the given transform, with
+   * respect to the first pose. See
+   * {@link PratsTrajectory#transformBy(PratsTransform2d)}.
+   *
+   * @param transform The transform to transform the trajectory by.
+   * @return The transformed view.
+   */
+  public TrajectoryView transformBy(PratsTransform2d transform) {
+    if (size() == 0) {
+      return this;
+    }
+    final var firstPose = getState(0).poseMeters;
+    return new PoseView(this, firstPose, firstPose.pratsPlus(transform));
+  }
+
+  /**
+   * Returns a view with every pose relative to the given pose. See
+   * {@link PratsTrajectory#relativeTo(PratsPose2d)}.
+   *
+   * @param pose The pose that is the origin of the new coordinate frame.
+   * @return The transformed view.
+   */
+  public TrajectoryView relativeTo(PratsPose2d pose) {
+    return new PoseView(this, pose, null);
+  }
+
+  /**
+   * Returns a view of this trajectory followed by another, whose times are
+   * offset by the duration of this one. See
+   * {@link PratsTrajectory#concatenate(PratsTrajectory)}.
+   *
+   * @param other The trajectory to concatenate.
+   * @return The concatenated view.
+   */
+  public TrajectoryView concatenate(TrajectoryView other) {
+    if (size() == 0) {
+      return other;
+    }
+    return new ConcatenatedView(this, other);
+  }
+
+  /**
+   * Samples the trajectory at a point in time. Only the two states around the
+   * given time are computed.
+   *
+   * @param timeSeconds The point in time since the beginning of the trajectory to
+   *                    sample.
+   * @return The state at that point in time.
+   */
+  public PratsTrajectory.State sample(double timeSeconds) {
+    final int size = size();
+    if (timeSeconds <= getTimeSeconds(0)) {
+      return getState(0);
+    }
+    if (timeSeconds >= getTimeSeconds(size - 1)) {
+      return getState(size - 1);
+    }
+
+    // Find the first state at or after the requested time. This starts at 1
+    // because the previous state is used for interpolation.
+    int low = 1;
+    int high = size - 1;
+    while (low != high) {
+      int mid = (low + high) / 2;
+      if (getTimeSeconds(mid) < timeSeconds) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    final var sample = getState(low);
+    final var prevSample = getState(low - 1);
+
+    // If the difference in states is negligible, then we are spot on!
+    if (Math.abs(sample.timeSeconds - prevSample.timeSeconds) < 1E-9) {
+      return sample;
+    }
+    return prevSample.interpolate(
+        sample,
+        (timeSeconds - prevSample.timeSeconds) / (sample.timeSeconds - prevSample.timeSeconds));
+  }
+
+  /**
+   * Computes every state of the view into a new columnar trajectory.
+   *
+   * @return The computed trajectory.
+   */
+  public PrimitiveTrajectory materialize() {
+    final int size = size();
+    var trajectory = new PrimitiveTrajectory(size);
+    for (int i = 0; i < size; i++) {
+      trajectory.set(i, getState(i));
+    }
+    return trajectory;
+  }
+
+  /**
+   * Computes every state of the view into a new trajectory.
+   *
+   * @return The computed trajectory.
+   */
+  public PratsTrajectory toTrajectory() {
+    return new PratsTrajectory(materialize());
+  }
+
+  private static final class PrimitiveView extends TrajectoryView {
+    private final PrimitiveTrajectory m_trajectory;
+
+    private PrimitiveView(PrimitiveTrajectory trajectory) {
+      m_trajectory = trajectory;
+    }
+
+    @Override
+    public int size() {
+      return m_trajectory.size();
+    }
+
+    @Override
+    public double getTimeSeconds(int index) {
+      return m_trajectory.getTimeSeconds(index);
+    }
+
+    @Override
+    public PratsTrajectory.State getState(int index) {
+      return m_trajectory.getState(index);
+    }
+  }
+
+  private static final class StateListView extends TrajectoryView {
+    private final List<PratsTrajectory.State> m_states;
+
+    private StateListView(List<PratsTrajectory.State> states) {
+      m_states = states;
+    }
+
+    @Override
+    public int size() {
+      return m_states.size();
+    }
+
+    @Override
+    public double getTimeSeconds(int index) {
+      return m_states.get(index).timeSeconds;
+    }
+
+    @Override
+    public PratsTrajectory.State getState(int index) {
+      return m_states.get(index);
+    }
+  }
+
+  /**
+   * Maps every pose into a new frame. Without a new origin, poses are made
+   * relative to the origin; with one, each pose keeps its offset from the origin
+   * but measured from the new origin instead.
+   */
+  private static final class PoseView extends TrajectoryView {
+    private final TrajectoryView m_source;
+    private final PratsPose2d m_origin;
+    private final PratsPose2d m_newOrigin;
+
+    private PoseView(TrajectoryView source, PratsPose2d origin, PratsPose2d newOrigin) {
+      m_source = source;
+      m_origin = origin;
+      m_newOrigin = newOrigin;
+    }
+
+    @Override
+    public int size() {
+      return m_source.size();
+    }
+
+    @Override
+    public double getTimeSeconds(int index) {
+      return m_source.getTimeSeconds(index);
+    }
+
+    @Override
+    public PratsTrajectory.State getState(int index) {
+      final var state = m_source.getState(index);
+      final PratsPose2d pose;
+      if (m_newOrigin == null) {
+        pose = state.poseMeters.pratsRelativeTo(m_origin);
+      } else if (index == 0) {
+        pose = m_newOrigin;
+      } else {
+        pose = m_newOrigin.pratsPlus(state.poseMeters.pratsMinus(m_origin));
+      }
+      return new PratsTrajectory.State(
+          state.timeSeconds,
+          state.velocityMetersPerSecond,
+          state.accelerationMetersPerSecondSq,
+          pose,
+          state.curvatureRadPerMeter);
+    }
+  }
+
+  /**
+   * Two trajectories back to back. The first state of the second one is
+   * omitted, so there are not two states with the same time.
+   */
+  private static final class ConcatenatedView extends TrajectoryView {
+    private final TrajectoryView m_first;
+    private final TrajectoryView m_second;
+    private final int m_firstSize;
+    private final int m_size;
+    private final double m_offsetSeconds;
+
+    private ConcatenatedView(TrajectoryView first, TrajectoryView second) {
+      m_first = first;
+      m_second = second;
+      m_firstSize = first.size();
+      m_size = m_firstSize + Math.max(second.size() - 1, 0);
+      m_offsetSeconds = first.getTotalTimeSeconds();
+    }
+
+    @Override
+    public int size() {
+      return m_size;
+    }
+
+    @Override
+    public double getTimeSeconds(int index) {
+      if (index < m_firstSize) {
+        return m_first.getTimeSeconds(index);
+      }
+      return m_second.getTimeSeconds(index - m_firstSize + 1) + m_offsetSeconds;
+    }
+
+    @Override
+    public PratsTrajectory.State getState(int index) {
+      if (index < m_firstSize) {
+        return m_first.getState(index);
+      }
+      final var state = m_second.getState(index - m_firstSize + 1);
+      return new PratsTrajectory.State(
+          state.timeSeconds + m_offsetSeconds,
+          state.velocityMetersPerSecond,
+          state.accelerationMetersPerSecondSq,
+          state.poseMeters,
+          state.curvatureRadPerMeter);
+    }
+  }
+}
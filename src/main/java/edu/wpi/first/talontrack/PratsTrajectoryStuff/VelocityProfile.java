@@ -0,0 +1,413 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import java.util.Arrays;
+import java.util.List;
+
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryParameterizer.TrajectoryGenerationException;
+
+/**
+ * The velocity profile behind {@link PratsTrajectoryParameterizer}. The forward
+ * and backward passes run over primitive arrays instead of a list of
+ * constrained states, and the constraints are evaluated through
+ * {@link PratsBatchTrajectoryConstraint}.
+ */
+final class VelocityProfile {
+  private final List<PratsPoseWithCurvature> m_points;
+  // Batch views of the constraints, in order.
+  private final PratsBatchTrajectoryConstraint[] m_batchConstraints;
+  // The constraints whose max velocity is evaluated at every step of the
+  // passes; the others only cap the velocity and are evaluated up front.
+  private final PratsBatchTrajectoryConstraint[] m_stepConstraints;
+  private final boolean m_hasVelocityCaps;
+  private final double m_startVelocity;
+  private final double m_endVelocity;
+  private final double m_maxVelocity;
+  private final double m_maxAcceleration;
+  private final boolean m_reversed;
+  private final int m_size;
+
+  private final double[] m_distance;
+  // The max velocity at each point allowed by the velocity cap constraints.
+  private final double[] m_velocityCap;
+  // Limits of each point right after the forward pass processed it.
+  private final double[] m_forwardVelocity;
+  private final double[] m_forwardMinAcceleration;
+  private final double[] m_forwardMaxAcceleration;
+  // Max acceleration after the successor lowered it; the backward pass starts
+  // from this.
+  private final double[] m_finalMaxAcceleration;
+  // Limits of each point right after the backward pass processed it.
+  private final double[] m_velocity;
+  private final double[] m_backwardMinAcceleration;
+
+  // Acceleration limits written by enforceAccelerationLimits.
+  private double m_minAccelerationScratch;
+  private double m_maxAccelerationScratch;
+  // Arguments and results of single point constraint queries.
+  private final double[] m_queryVelocity;
+  private final double[] m_queryMinAcceleration;
+  private final double[] m_queryMaxAcceleration;
+
+  @SuppressWarnings("ParameterNumber")
+  VelocityProfile(
+      List<PratsPoseWithCurvature> points,
+      List<PratsTrajectoryConstraint> constraints,
+      double startVelocityMetersPerSecond,
+      double endVelocityMetersPerSecond,
+      double maxVelocityMetersPerSecond,
+      double maxAccelerationMetersPerSecondSq,
+      boolean reversed) {
+    m_points = points;
+    m_startVelocity = startVelocityMetersPerSecond;
+    m_endVelocity = endVelocityMetersPerSecond;
+    m_maxVelocity = maxVelocityMetersPerSecond;
+    m_maxAcceleration = maxAccelerationMetersPerSecondSq;
+    m_reversed = reversed;
+    m_size = points.size();
+
+    m_batchConstraints = new PratsBatchTrajectoryConstraint[constraints.size()];
+    int stepConstraints = 0;
+    for (int i = 0; i < m_batchConstraints.length; i++) {
+      m_batchConstraints[i] = PratsBatchTrajectoryConstraint.adapt(constraints.get(i));
+      if (!m_batchConstraints[i].isVelocityCap()) {
+        stepConstraints++;
+      }
+    }
+    m_stepConstraints = new PratsBatchTrajectoryConstraint[stepConstraints];
+    stepConstraints = 0;
+    for (final var constraint : m_batchConstraints) {
+      if (!constraint.isVelocityCap()) {
+        m_stepConstraints[stepConstraints++] = constraint;
+      }
+    }
+    m_hasVelocityCaps = stepConstraints < m_batchConstraints.length;
+
+    m_distance = new double[m_size];
+    m_velocityCap = new double[m_size];
+    m_forwardVelocity = new double[m_size];
+    m_forwardMinAcceleration = new double[m_size];
+    m_forwardMaxAcceleration = new double[m_size];
+    m_finalMaxAcceleration = new double[m_size];
+    m_velocity = new double[m_size];
+    m_backwardMinAcceleration = new double[m_size];
+    m_queryVelocity = new double[m_size];
+    m_queryMinAcceleration = new double[m_size];
+    m_queryMaxAcceleration = new double[m_size];
+  }
+
+  /** Runs the forward and backward passes over the whole path. */
+  void compute() {
+    fillVelocityCaps();
+    for (int i = 0; i < m_size; i++) {
+      forwardStep(i);
+    }
+    for (int i = m_size - 1; i >= 0; i--) {
+      backwardStep(i);
+    }
+  }
+
+  /**
+   * Evaluates the velocity cap constraints for every point, one bulk call per
+   * constraint.
+   */
+  private void fillVelocityCaps() {
+    if (!m_hasVelocityCaps) {
+      return;
+    }
+    Arrays.fill(m_velocityCap, m_maxVelocity);
+    for (final var constraint : m_batchConstraints) {
+      if (constraint.isVelocityCap()) {
+        constraint.fillMaxVelocitiesMetersPerSecond(m_points, 0, m_size, m_velocityCap);
+      }
+    }
+  }
+
+  /**
+   * Runs the forward pass for one point. The predecessor starts from the limits
+   * it had after its own forward step.
+   */
+  private void forwardStep(int i) {
+    final var pose = m_points.get(i);
+
+    final PratsPoseWithCurvature predecessorPose;
+    final double predecessorDistance;
+    final double predecessorVelocity;
+    final double predecessorMinAcceleration;
+    double predecessorMaxAcceleration;
+    if (i == 0) {
+      predecessorPose = m_points.get(0);
+      predecessorDistance = 0;
+      predecessorVelocity = m_startVelocity;
+      predecessorMinAcceleration = -m_maxAcceleration;
+      predecessorMaxAcceleration = m_maxAcceleration;
+    } else {
+      predecessorPose = m_points.get(i - 1);
+      predecessorDistance = m_distance[i - 1];
+      predecessorVelocity = m_forwardVelocity[i - 1];
+      predecessorMinAcceleration = m_forwardMinAcceleration[i - 1];
+      predecessorMaxAcceleration = m_forwardMaxAcceleration[i - 1];
+    }
+
+    // Begin constraining based on predecessor.
+    double ds = pose.poseMeters
+        .getTranslation()
+        .getDistance(predecessorPose.poseMeters.getTranslation());
+    m_distance[i] = predecessorDistance + ds;
+
+    double maxVelocity;
+
+    // We may need to iterate to find the maximum end velocity and common
+    // acceleration, since acceleration limits may be a function of velocity.
+    while (true) {
+      // Enforce global max velocity and max reachable velocity by global
+      // acceleration limit. v_f = √(v_i² + 2ad).
+      maxVelocity = Math.min(
+          m_maxVelocity,
+          Math.sqrt(
+              predecessorVelocity * predecessorVelocity
+                  + predecessorMaxAcceleration * ds * 2.0));
+
+      m_minAccelerationScratch = -m_maxAcceleration;
+      m_maxAccelerationScratch = m_maxAcceleration;
+
+      // At this point, the constrained state is fully constructed apart from
+      // all the custom-defined user constraints.
+      if (m_hasVelocityCaps) {
+        maxVelocity = Math.min(maxVelocity, m_velocityCap[i]);
+      }
+      for (final var constraint : m_stepConstraints) {
+        m_queryVelocity[i] = maxVelocity;
+        constraint.fillMaxVelocitiesMetersPerSecond(m_points, i, i + 1, m_queryVelocity);
+        maxVelocity = Math.min(maxVelocity, m_queryVelocity[i]);
+      }
+
+      // Now enforce all acceleration limits.
+      enforceAccelerationLimits(i, maxVelocity);
+
+      if (ds < 1E-6) {
+        break;
+      }
+
+      // If the actual acceleration for this state is higher than the max
+      // acceleration that we applied, then we need to reduce the max
+      // acceleration of the predecessor and try again.
+      double actualAcceleration = (maxVelocity * maxVelocity
+          - predecessorVelocity * predecessorVelocity)
+          / (ds * 2.0);
+
+      // If we violate the max acceleration constraint, let's modify the
+      // predecessor.
+      if (m_maxAccelerationScratch < actualAcceleration - 1E-6) {
+        predecessorMaxAcceleration = m_maxAccelerationScratch;
+      } else {
+        // Constrain the predecessor's max acceleration to the current
+        // acceleration.
+        if (actualAcceleration > predecessorMinAcceleration) {
+          predecessorMaxAcceleration = actualAcceleration;
+        }
+        // If the actual acceleration is less than the predecessor's min
+        // acceleration, it will be repaired in the backward pass.
+        break;
+      }
+    }
+
+    if (i > 0) {
+      m_finalMaxAcceleration[i - 1] = predecessorMaxAcceleration;
+    }
+    m_forwardVelocity[i] = maxVelocity;
+    m_forwardMinAcceleration[i] = m_minAccelerationScratch;
+    m_forwardMaxAcceleration[i] = m_maxAccelerationScratch;
+    m_finalMaxAcceleration[i] = m_maxAccelerationScratch;
+  }
+
+  /**
+   * Runs the backward pass for one point. The successor starts from the limits
+   * it had after its own backward step.
+   */
+  private void backwardStep(int i) {
+    final double successorDistance;
+    final double successorVelocity;
+    double successorMinAcceleration;
+    if (i == m_size - 1) {
+      successorDistance = m_distance[m_size - 1];
+      successorVelocity = m_endVelocity;
+      successorMinAcceleration = -m_maxAcceleration;
+    } else {
+      successorDistance = m_distance[i + 1];
+      successorVelocity = m_velocity[i + 1];
+      successorMinAcceleration = m_backwardMinAcceleration[i + 1];
+    }
+
+    double maxVelocity = m_forwardVelocity[i];
+    m_minAccelerationScratch = m_forwardMinAcceleration[i];
+    m_maxAccelerationScratch = m_finalMaxAcceleration[i];
+
+    double ds = m_distance[i] - successorDistance; // negative
+
+    while (true) {
+      // Enforce max velocity limit (reverse)
+      // v_f = √(v_i² + 2ad), where v_i = successor.
+      double newMaxVelocity = Math.sqrt(
+          successorVelocity * successorVelocity
+              + successorMinAcceleration * ds * 2.0);
+
+      // No more limits to impose! This state can be finalized.
+      if (newMaxVelocity >= maxVelocity) {
+        break;
+      }
+
+      maxVelocity = newMaxVelocity;
+
+      // Check all acceleration constraints with the new max velocity.
+      enforceAccelerationLimits(i, maxVelocity);
+
+      if (ds > -1E-6) {
+        break;
+      }
+
+      // If the actual acceleration for this state is lower than the min
+      // acceleration, then we need to lower the min acceleration of the
+      // successor and try again.
+      double actualAcceleration = (maxVelocity * maxVelocity
+          - successorVelocity * successorVelocity)
+          / (ds * 2.0);
+
+      if (m_minAccelerationScratch > actualAcceleration + 1E-6) {
+        successorMinAcceleration = m_minAccelerationScratch;
+      } else {
+        successorMinAcceleration = actualAcceleration;
+        break;
+      }
+    }
+
+    m_velocity[i] = maxVelocity;
+    m_backwardMinAcceleration[i] = m_minAccelerationScratch;
+  }
+
+  /**
+   * Narrows the scratch acceleration limits with every constraint at the given
+   * point and velocity.
+   */
+  private void enforceAccelerationLimits(int index, double maxVelocity) {
+    for (final var constraint : m_batchConstraints) {
+      double factor = m_reversed ? -1.0 : 1.0;
+      m_queryVelocity[index] = maxVelocity * factor;
+      constraint.fillMinMaxAccelerationsMetersPerSecondSq(
+          m_points, index, index + 1, m_queryVelocity, m_queryMinAcceleration, m_queryMaxAcceleration);
+      final double minAcceleration = m_queryMinAcceleration[index];
+      final double maxAcceleration = m_queryMaxAcceleration[index];
+
+      if (minAcceleration > maxAcceleration) {
+        throw invertedAccelerationLimits(constraint);
+      }
+
+      m_minAccelerationScratch = Math.max(
+          m_minAccelerationScratch,
+          m_reversed
+              ? -maxAcceleration
+              : minAcceleration);
+
+      m_maxAccelerationScratch = Math.min(
+          m_maxAccelerationScratch,
+          m_reversed
+              ? -minAcceleration
+              : maxAcceleration);
+    }
+  }
+
+  /**
+   * Returns the error for a constraint whose min acceleration is greater than its
+   * max acceleration.
+   */
+  static TrajectoryGenerationException invertedAccelerationLimits(PratsBatchTrajectoryConstraint constraint) {
+    final var offending = constraint instanceof PratsBatchTrajectoryConstraint.SinglePointAdapter
+        ? ((PratsBatchTrajectoryConstraint.SinglePointAdapter) constraint).getConstraint()
+        : constraint;
+    return new TrajectoryGenerationException(
+        "The constraint's min acceleration "
+            + "was greater than its max acceleration.\n Offending Constraint: "
+            + offending.getClass().getName()
+            + "\n If the offending constraint was packaged with WPILib, please file a bug"
+            + " report.");
+  }
+
+  /**
+   * Integrates the profile forward in time to obtain the trajectory states.
+   *
+   * @return The trajectory.
+   */
+  PratsTrajectory toTrajectory() {
+    return toTrajectory(m_points, m_distance, m_velocity, m_reversed);
+  }
+
+  /**
+   * Integrates a velocity profile forward in time to obtain the trajectory
+   * states.
+   *
+   * @param points   The points of the path.
+   * @param distance The distance along the path of every point.
+   * @param velocity The speed at every point.
+   * @param reversed Whether the robot drives the path backwards.
+   * @return The trajectory.
+   */
+  static PratsTrajectory toTrajectory(
+      List<PratsPoseWithCurvature> points, double[] distance, double[] velocity, boolean reversed) {
+    final int size = points.size();
+    var states = new PrimitiveTrajectory(size);
+    double timeSeconds = 0.0;
+    double distanceMeters = 0.0;
+    double velocityMetersPerSecond = 0.0;
+
+    for (int i = 0; i < size; i++) {
+      final var pose = points.get(i);
+
+      // Calculate the change in position between the current state and the previous
+      // state.
+      double ds = distance[i] - distanceMeters;
+
+      // Calculate the acceleration between the current state and the previous
+      // state.
+      double accel = (velocity[i] * velocity[i]
+          - velocityMetersPerSecond * velocityMetersPerSecond)
+          / (ds * 2);
+
+      // Calculate dt
+      double dt = 0.0;
+      if (i > 0) {
+        states.setAccelerationMetersPerSecondSq(i - 1, reversed ? -accel : accel);
+        if (Math.abs(accel) > 1E-6) {
+          // v_f = v_0 + a * t
+          dt = (velocity[i] - velocityMetersPerSecond) / accel;
+        } else if (Math.abs(velocityMetersPerSecond) > 1E-6) {
+          // delta_x = v * t
+          dt = ds / velocityMetersPerSecond;
+        } else {
+          throw new TrajectoryGenerationException(
+              "Something went wrong at iteration " + i + " of time parameterization.");
+        }
+      }
+
+      velocityMetersPerSecond = velocity[i];
+      distanceMeters = distance[i];
+
+      timeSeconds += dt;
+
+      states.set(
+          i,
+          timeSeconds,
+          reversed ? -velocityMetersPerSecond : velocityMetersPerSecond,
+          reversed ? -accel : accel,
+          pose.poseMeters.getX(),
+          pose.poseMeters.getY(),
+          pose.poseMeters.getRotation().getRadians(),
+          pose.poseMeters.getTangent().getRadians(),
+          pose.curvatureRadPerMeter);
+    }
+
+    return new PratsTrajectory(states);
+  }
+}
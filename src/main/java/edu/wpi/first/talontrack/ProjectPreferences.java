@@ -278,6 +278,12 @@ public class ProjectPreferences {
 		private String gameName;
 		private final String outputDir;
 		private final String commandDir;
+		@SuppressWarnings("PMD.ImmutableField")
+		private Double exportTimestep;
+		@SuppressWarnings("PMD.ImmutableField")
+		private Decimation decimation;
+		@SuppressWarnings("PMD.ImmutableField")
+		private Boolean smoothTangents;
 
 		/**
 		 * Constructor for Values of ProjectPreferences.
@@ -357,5 +363,65 @@ public class ProjectPreferences {
 		public String getCommandDir() {
 			return commandDir;
 		}
+
+		/**
+		 * Returns the timestep exported trajectories are resampled to, in seconds.
+		 * Set by "exportTimestep" in the project file; 0 when it is not set, in
+		 * which case the generated states are exported as they are.
+		 *
+		 * @return The export timestep in seconds, or 0.
+		 */
+		public double getExportTimestep() {
+			return exportTimestep == null ? 0.0 : exportTimestep;
+		}
+
+		/**
+		 * Returns the tolerances exported trajectories are decimated to. Set by
+		 * "decimation" in the project file; null when it is not set, in which case
+		 * every generated state is exported. Ignored when an export timestep is set.
+		 *
+		 * @return The decimation tolerances, or null.
+		 */
+		public Decimation getDecimation() {
+			return decimation;
+		}
+
+		/**
+		 * Returns whether unlocked tangents are solved for C2 continuity across the
+		 * whole path, rather than each from its neighbouring waypoints. Set by
+		 * "smoothTangents" in the project file; false when it is not set.
+		 *
+		 * @return Whether tangents are smoothed.
+		 */
+		public boolean isSmoothTangents() {
+			return smoothTangents != null && smoothTangents;
+		}
+	}
+
+	/**
+	 * Tolerances for dropping states from exported trajectories, in the export
+	 * unit. See {@link edu.wpi.first.talontrack.PratsTrajectoryStuff.TrajectoryDecimator}.
+	 */
+	public static class Decimation {
+		private double position;
+		private double heading;
+		private double velocity;
+		private double acceleration;
+
+		public double getPosition() {
+			return position;
+		}
+
+		public double getHeading() {
+			return heading;
+		}
+
+		public double getVelocity() {
+			return velocity;
+		}
+
+		public double getAcceleration() {
+			return acceleration;
+		}
 	}
 }
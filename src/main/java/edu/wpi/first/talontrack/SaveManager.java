@@ -1,8 +1,14 @@
 package edu.wpi.first.talontrack;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import edu.wpi.first.talontrack.path.Path;
 import javafx.scene.control.Alert;
@@ -10,9 +16,19 @@ import javafx.scene.control.ButtonType;
 
 public final class SaveManager {
   private static final SaveManager INSTANCE = new SaveManager();
+  private static final Logger LOGGER = Logger.getLogger(SaveManager.class.getName());
+  /**
+   * How long a save waits for further saves of the same file before it is
+   * written, in milliseconds.
+   */
+  private static final long SAVE_WINDOW_MILLIS = 250;
+  private static final String JOURNAL_FILE = "Autosave.journal";
+  private static final long JOURNAL_COMPACT_BYTES = 1 << 20;
 
   private final Set<Path> paths = new HashSet<>();
   private final Set<CommandInstance> insts = new HashSet<>();
+  private final CoalescingFileWriter writer = new CoalescingFileWriter("Save writer", SAVE_WINDOW_MILLIS);
+  private AutosaveJournal journal;
 
   /**
    * Return the singleton instance of SaveManager. Tracks which files have been
@@ -27,6 +43,13 @@ public final class SaveManager {
 
   public void addChange(Path path) {
     paths.add(path);
+    if (path != null && journal != null) {
+      try {
+        journal.recordChange(pathFile(path), PathIOUtil.toCsv(path).getBytes(StandardCharsets.UTF_8));
+      } catch (IOException except) {
+        LOGGER.log(Level.WARNING, "Could not journal Path change", except);
+      }
+    }
   }
 
   public boolean hasChanges(Path path) {
@@ -35,6 +58,54 @@ public final class SaveManager {
 
   public void addChangeInst(CommandInstance Inst) {
     insts.add(Inst);
+    if (Inst != null && journal != null) {
+      try {
+        journal.recordChange(instFile(Inst), InstIOUtil.toCsv(Inst).getBytes(StandardCharsets.UTF_8));
+      } catch (IOException except) {
+        LOGGER.log(Level.WARNING, "Could not journal Inst change", except);
+      }
+    }
+  }
+
+  /**
+   * Opens the autosave journal of the current project. If the last session
+   * ended with changes that were never saved, such as after a crash, the user
+   * is offered to restore them. Call when a project is opened, before its files
+   * are read.
+   */
+  public void openJournal() {
+    flush();
+    if (journal != null) {
+      journal.close();
+      journal = null;
+    }
+    java.nio.file.Path file = Paths.get(ProjectPreferences.getInstance().getDirectory(), JOURNAL_FILE);
+    try {
+      journal = AutosaveJournal.open(file, JOURNAL_COMPACT_BYTES);
+    } catch (IOException except) {
+      LOGGER.log(Level.WARNING, "Could not open autosave journal " + file, except);
+      return;
+    }
+
+    Map<java.nio.file.Path, byte[]> unsaved = journal.getUnsaved();
+    if (unsaved.isEmpty()) {
+      return;
+    }
+    StringBuilder names = new StringBuilder();
+    for (java.nio.file.Path changed : unsaved.keySet()) {
+      names.append(changed.getFileName()).append('\n');
+    }
+    Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+    FxUtils.applyDarkMode(alert);
+    alert.setTitle("Restore unsaved changes?");
+    alert.setHeaderText("talontrack did not close cleanly. Restore the unsaved changes to these files?");
+    alert.setContentText(names.toString());
+    alert.getButtonTypes().setAll(ButtonType.YES, ButtonType.NO);
+    Optional<ButtonType> result = alert.showAndWait();
+    if (result.isPresent() && result.get() == ButtonType.YES) {
+      unsaved.forEach(CoalescingFileWriter::write);
+    }
+    journal.clear();
   }
 
   public boolean hasChangesInst(CommandInstance Inst) {
@@ -49,6 +120,7 @@ public final class SaveManager {
       saveChange(path, false);
     }
     paths.clear();
+    flush();
   }
 
   public boolean promptSaveAll() {
@@ -67,12 +139,22 @@ public final class SaveManager {
       saveChange(path, false);
     }
     paths.clear(); // User has taken action on all paths
+    flush();
     return true;
   }
 
+  /**
+   * Waits until every save made so far is written to disk. Call before anything
+   * reads, moves or deletes saved files, and before the project is closed.
+   */
+  public void flush() {
+    writer.flush();
+  }
+
   /**
    * Saves the given path to the Project's Path directory. Removes the path from
-   * the set of modified paths.
+   * the set of modified paths. The file is written in the background; see
+   * {@link #flush()}.
    * 
    * @param path Path to save.
    */
@@ -87,8 +169,11 @@ public final class SaveManager {
    * @param remove Whether to remove Path from set of modified paths.
    */
   private void saveChange(Path path, boolean remove) {
-    String pathDirectory = ProjectPreferences.getInstance().getDirectory() + "/Paths/";
-    PathIOUtil.export(pathDirectory, path);
+    try {
+      submit(pathFile(path), PathIOUtil.toCsv(path).getBytes(StandardCharsets.UTF_8));
+    } catch (IOException except) {
+      LOGGER.log(Level.WARNING, "Could not save Path file", except);
+    }
     if (remove) {
       paths.remove(path);
     }
@@ -101,10 +186,16 @@ public final class SaveManager {
    */
   public void removeChange(Path path) {
     paths.remove(path);
+    if (path != null && journal != null) {
+      journal.recordSaved(pathFile(path), journal.sequence());
+    }
   }
 
   public void removeChangeInst(CommandInstance inst) {
     insts.remove(inst);
+    if (inst != null && journal != null) {
+      journal.recordSaved(instFile(inst), journal.sequence());
+    }
   }
 
   public void saveInst(CommandInstance inst) {
@@ -112,11 +203,35 @@ public final class SaveManager {
   }
 
   public void saveInst(CommandInstance inst, boolean remove) {
-    String instDirectory = ProjectPreferences.getInstance().getDirectory() + "/Instances/";
-    InstIOUtil.export(instDirectory, inst);
+    try {
+      submit(instFile(inst), InstIOUtil.toCsv(inst).getBytes(StandardCharsets.UTF_8));
+    } catch (IOException except) {
+      LOGGER.log(Level.WARNING, "Could not save Inst file", except);
+    }
     if (remove) {
       insts.remove(inst);
     }
   }
 
+  /**
+   * Queues a save, marking the journaled changes it includes as saved once it
+   * is written.
+   */
+  private void submit(java.nio.file.Path file, byte[] contents) {
+    AutosaveJournal current = journal;
+    if (current == null) {
+      writer.submit(file, contents);
+    } else {
+      long sequence = current.sequence();
+      writer.submit(file, contents, () -> current.recordSaved(file, sequence));
+    }
+  }
+
+  private static java.nio.file.Path pathFile(Path path) {
+    return Paths.get(ProjectPreferences.getInstance().getDirectory() + "/Paths/" + path.getPathName());
+  }
+
+  private static java.nio.file.Path instFile(CommandInstance inst) {
+    return Paths.get(ProjectPreferences.getInstance().getDirectory() + "/Instances/" + inst.getName());
+  }
 }
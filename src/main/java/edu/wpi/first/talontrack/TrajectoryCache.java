@@ -0,0 +1,222 @@
+package edu.wpi.first.talontrack;
+
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectory;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PrimitiveTrajectory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Content-addressed store of generated trajectories, kept in the project
+ * directory. An entry is keyed by a hash of everything the export depends on:
+ * the waypoints of the path and the project preferences used to generate it.
+ * An edited path or changed preference simply hashes to a different entry, so
+ * the entries that no path uses any more are deleted with
+ * {@link #retain(Collection)} after every build.
+ */
+public final class TrajectoryCache {
+  private static final Logger LOGGER = Logger.getLogger(TrajectoryCache.class.getName());
+
+  private static final String CACHE_DIRECTORY = "Cache";
+  private static final String EXTENSION = ".traj";
+  private static final int MAGIC = 0x54545243; // "TTRC"
+  /**
+   * Bump whenever trajectory generation or this file format changes, so entries
+   * written by an older version are never served.
+   */
+  private static final int VERSION = 2;
+
+  private final Path directory;
+
+  /**
+   * Creates a cache stored in the given directory.
+   *
+   * @param directory Directory the entries are stored in; created on first store.
+   */
+  public TrajectoryCache(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Returns the cache of the given project.
+   *
+   * @param preferences The project preferences.
+   * @return The cache stored in the project directory.
+   */
+  public static TrajectoryCache forProject(ProjectPreferences preferences) {
+    return new TrajectoryCache(Paths.get(preferences.getDirectory(), CACHE_DIRECTORY));
+  }
+
+  /**
+   * Computes the cache key of a path.
+   *
+   * @param waypoints   The waypoints of the path, as stored in its .path file.
+   * @param preferences The project preferences the path is exported with.
+   * @return The hex encoded key.
+   */
+  public static String key(List<Waypoint> waypoints, ProjectPreferences preferences) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+
+    ProjectPreferences.Values values = preferences.getValues();
+    Field field = preferences.getField();
+    try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+      out.writeInt(VERSION);
+      out.writeInt(waypoints.size());
+      for (Waypoint wp : waypoints) {
+        out.writeDouble(wp.getX());
+        out.writeDouble(wp.getY());
+        out.writeDouble(wp.getTangentX());
+        out.writeDouble(wp.getTangentY());
+        out.writeDouble(wp.getHeadingX());
+        out.writeDouble(wp.getHeadingY());
+        out.writeBoolean(wp.isReversed());
+      }
+      out.writeDouble(values.getMaxVelocity());
+      out.writeDouble(values.getMaxAcceleration());
+      out.writeDouble(values.getTrackWidth());
+      out.writeDouble(values.getWheelBase());
+      out.writeUTF(values.getExportUnit().name());
+      // The export is converted out of the project unit and shifted by the field
+      // length, so both are part of the key as well.
+      out.writeUTF(values.getLengthUnit().toString());
+      out.writeDouble(field.getRealLength().getValue().doubleValue());
+      out.writeUTF(field.getUnit().toString());
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not hash path", e);
+    }
+
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * Loads the trajectory stored under a key.
+   *
+   * @param key The key computed by {@link #key(List, ProjectPreferences)}.
+   * @return The stored trajectory, or null if there is no usable entry.
+   */
+  public PratsTrajectory load(String key) {
+    Path file = directory.resolve(key + EXTENSION);
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        return null;
+      }
+      int size = in.readInt();
+      if (size <= 0 || Files.size(file) != 12L + size * 64L) {
+        return null;
+      }
+      PrimitiveTrajectory trajectory = new PrimitiveTrajectory(size);
+      for (int i = 0; i < size; i++) {
+        trajectory.set(i, in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+            in.readDouble(), in.readDouble(), in.readDouble());
+      }
+      return new PratsTrajectory(trajectory);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not read cached trajectory " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Stores a trajectory under a key. The entry is written to a temporary file and
+   * moved into place, so a reader never sees a partial entry.
+   *
+   * @param key        The key computed by {@link #key(List, ProjectPreferences)}.
+   * @param trajectory The trajectory to store.
+   */
+  public void store(String key, PratsTrajectory trajectory) {
+    PrimitiveTrajectory states = trajectory.toPrimitive();
+    Path file = directory.resolve(key + EXTENSION);
+    Path temp = null;
+    try {
+      Files.createDirectories(directory);
+      temp = Files.createTempFile(directory, key, ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(states.size());
+        for (int i = 0; i < states.size(); i++) {
+          out.writeDouble(states.getTimeSeconds(i));
+          out.writeDouble(states.getVelocityMetersPerSecond(i));
+          out.writeDouble(states.getAccelerationMetersPerSecondSq(i));
+          out.writeDouble(states.getX(i));
+          out.writeDouble(states.getY(i));
+          out.writeDouble(states.getHeadingRadians(i));
+          out.writeDouble(states.getTangentRadians(i));
+          out.writeDouble(states.getCurvatureRadPerMeter(i));
+        }
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not cache trajectory " + file, e);
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+          // Nothing more to do; the temporary file is never read.
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes every entry whose key is not among the given keys.
+   *
+   * @param keys The keys of the entries to keep.
+   * @return The number of entries deleted.
+   */
+  public int retain(Collection<String> keys) {
+    int deleted = 0;
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+      for (Path entry : entries) {
+        String name = entry.getFileName().toString();
+        if (keys.contains(name.substring(0, name.length() - EXTENSION.length()))) {
+          continue;
+        }
+        try {
+          Files.delete(entry);
+          deleted++;
+        } catch (IOException e) {
+          LOGGER.log(Level.WARNING, "Could not delete cached trajectory " + entry, e);
+        }
+      }
+    } catch (NoSuchFileException e) {
+      return 0;
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not list cached trajectories in " + directory, e);
+    }
+    return deleted;
+  }
+}
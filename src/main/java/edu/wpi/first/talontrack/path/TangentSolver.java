@@ -0,0 +1,166 @@
+package edu.wpi.first.talontrack.path;
+
+/**
+ * Computes the tangents of every waypoint of a path at once. The waypoints are
+ * passed as primitive arrays and no JavaFX types are used, so the solvers can
+ * run off the FX thread on a snapshot of a path.
+ *
+ * <p>
+ * Both solvers take the current tangents in {@code tangentX} and
+ * {@code tangentY} and overwrite those of the unlocked interior waypoints. The
+ * first and last waypoints and the locked ones keep their tangents. Tangents
+ * are in the direction of travel; reversing them for a reversed path is up to
+ * the caller.
+ *
+ * @see PathUtil
+ */
+public final class TangentSolver {
+    private static final double SQRT_3 = Math.sqrt(3);
+
+    private TangentSolver() {
+        throw new UnsupportedOperationException("This is a utility class!");
+    }
+
+    /**
+     * Computes each unlocked tangent from the waypoint and its two neighbours,
+     * the same way {@link PathUtil#rawThetaOptimization} does, in one pass over
+     * the path.
+     *
+     * @param x        the x coordinates of the waypoints
+     * @param y        the y coordinates of the waypoints
+     * @param locked   whether the tangent of each waypoint is locked
+     * @param tangentX the x components of the tangents, updated in place
+     * @param tangentY the y components of the tangents, updated in place
+     */
+    public static void solveLocal(double[] x, double[] y, boolean[] locked, double[] tangentX, double[] tangentY) {
+        for (int i = 1; i < x.length - 1; i++) {
+            if (!locked[i]) {
+                optimizeTheta(x[i - 1], y[i - 1], x[i], y[i], x[i + 1], y[i + 1], i, tangentX, tangentY);
+            }
+        }
+    }
+
+    /**
+     * Computes the unlocked tangents that make the path C2-continuous at every
+     * unlocked waypoint, treating each segment as a cubic hermite curve over a
+     * unit parameter. At an unlocked waypoint i this requires
+     * {@code m[i - 1] + 4 m[i] + m[i + 1] = 3 (p[i + 1] - p[i - 1])}, which is a
+     * tridiagonal system in the tangents m that is solved in one forward and one
+     * backward pass. The fixed tangents act as its boundary conditions.
+     *
+     * @param x        the x coordinates of the waypoints
+     * @param y        the y coordinates of the waypoints
+     * @param locked   whether the tangent of each waypoint is locked
+     * @param tangentX the x components of the tangents, updated in place
+     * @param tangentY the y components of the tangents, updated in place
+     */
+    public static void solveSmooth(double[] x, double[] y, boolean[] locked, double[] tangentX, double[] tangentY) {
+        int n = x.length;
+        if (n < 3) {
+            return;
+        }
+
+        // Thomas algorithm over the rows 1 to n - 2. A locked row is the identity
+        // row m[i] = its tangent. The first and last tangents are known, so
+        // their terms move to the right hand side of their neighbouring rows.
+        double[] upper = new double[n];
+        double[] rhsX = new double[n];
+        double[] rhsY = new double[n];
+        for (int i = 1; i < n - 1; i++) {
+            double lower;
+            double diagonal;
+            double above;
+            double dx;
+            double dy;
+            if (locked[i]) {
+                lower = 0;
+                diagonal = 1;
+                above = 0;
+                dx = tangentX[i];
+                dy = tangentY[i];
+            } else {
+                lower = 1;
+                diagonal = 4;
+                above = 1;
+                dx = 3 * (x[i + 1] - x[i - 1]);
+                dy = 3 * (y[i + 1] - y[i - 1]);
+                if (i == 1) {
+                    dx -= tangentX[0];
+                    dy -= tangentY[0];
+                    lower = 0;
+                }
+                if (i == n - 2) {
+                    dx -= tangentX[n - 1];
+                    dy -= tangentY[n - 1];
+                    above = 0;
+                }
+            }
+
+            double pivot = diagonal - lower * upper[i - 1];
+            upper[i] = above / pivot;
+            rhsX[i] = (dx - lower * rhsX[i - 1]) / pivot;
+            rhsY[i] = (dy - lower * rhsY[i - 1]) / pivot;
+        }
+
+        double nextX = 0;
+        double nextY = 0;
+        for (int i = n - 2; i >= 1; i--) {
+            nextX = rhsX[i] - upper[i] * nextX;
+            nextY = rhsY[i] - upper[i] * nextY;
+            if (!locked[i]) {
+                tangentX[i] = nextX;
+                tangentY[i] = nextY;
+            }
+        }
+    }
+
+    /**
+     * {@link PathUtil#rawThetaOptimization} over primitives. The two complex cube
+     * roots it takes are conjugates, so one cosine and one sine serve both.
+     */
+    private static void optimizeTheta(double x1, double y1, double x2, double y2, double x3, double y3,
+            int index, double[] tangentX, double[] tangentY) {
+        double shiftedX3 = x3 - x1;
+        double shiftedY3 = y3 - y1;
+        double scale = 1 / Math.sqrt(shiftedX3 * shiftedX3 + shiftedY3 * shiftedY3);
+        double scaledX2 = (x2 - x1) * scale;
+        double scaledY2 = (y2 - y1) * scale;
+        double scaledX3 = shiftedX3 * scale;
+        double scaledY3 = shiftedY3 * scale;
+
+        double rx = scaledX2 * scaledX3 + scaledY2 * scaledY3;
+        double ry = -scaledX2 * scaledY3 + scaledY2 * scaledX3;
+
+        double beta = 1 - 2 * rx;
+        double g = 4 * (rx - (rx * rx + ry * ry)) - 3;
+        double gamma = g * g * g / 27;
+        double lambda = Math.sqrt(Math.cbrt(-gamma));
+
+        double sqrtGamma = Math.sqrt(-gamma - beta * beta);
+        double phi = Math.atan2(sqrtGamma, beta) / 3;
+        double ur = lambda * Math.cos(phi);
+        double ui = lambda * Math.sin(phi);
+
+        double t1 = 0.5 + 1.5 * ur;
+        double t2 = 0.5 - 0.5 * (ur + SQRT_3 * ui);
+        double t3 = 0.5 - 0.5 * (ur - SQRT_3 * ui);
+
+        double t;
+        if (t1 > 0 && t1 < 1) {
+            t = t1;
+        } else if (t2 > 0 && t2 < 1) {
+            t = t2;
+        } else {
+            t = t3;
+        }
+
+        double denominator = 1 / (t * t - t);
+        double a1x = (x2 - x1 - shiftedX3 * t) * denominator;
+        double a1y = (y2 - y1 - shiftedY3 * t) * denominator;
+        double a2x = shiftedX3 - a1x;
+        double a2y = shiftedY3 - a1y;
+
+        tangentX[index] = (a1x * 2 * t + a2x) / 3;
+        tangentY[index] = (a1y * 2 * t + a2y) / 3;
+    }
+}
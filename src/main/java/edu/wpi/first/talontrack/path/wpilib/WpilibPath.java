@@ -14,6 +14,7 @@ import edu.wpi.first.talontrack.*;
 import edu.wpi.first.talontrack.global.CurrentSelections;
 import edu.wpi.first.talontrack.path.Path;
 import edu.wpi.first.talontrack.path.PathUtil;
+import edu.wpi.first.talontrack.path.TangentSolver;
 import edu.wpi.first.talontrack.spline.wpilib.WpilibSpline;
 
 import java.util.ArrayList;
@@ -141,27 +142,68 @@ public class WpilibPath extends Path {
     }
 
     /**
-     * This implementation calls
-     * {@link PathUtil#rawThetaOptimization(Point2D, Point2D, Point2D)} to update
-     * the tangent line.
-     * 
+     * This implementation recomputes every unlocked tangent of the path with
+     * {@link #updateTangents()}, since doing the whole path is a single linear
+     * pass.
+     *
      * @param wp the waypoint to update the tangent line for.
      */
     @Override
     protected void updateTangent(Waypoint wp) {
-        int curWpIndex = getWaypoints().indexOf(wp);
-        if (curWpIndex - 1 < 0 || curWpIndex + 1 >= waypoints.size() || wp.isLockTangent()) {
-            return;
+        updateTangents();
+    }
+
+    /**
+     * Recalculates the tangents after a waypoint moved. Every unlocked tangent of
+     * the path is recomputed at once, rather than one waypoint at a time.
+     *
+     * @param wp the waypoint that moved
+     */
+    @Override
+    public void recalculateTangents(Waypoint wp) {
+        updateTangents();
+    }
+
+    /**
+     * Recomputes the tangents of all unlocked waypoints. The waypoints are copied
+     * into primitive arrays, solved with {@link TangentSolver} and the tangents
+     * that changed are written back in one batch. With "smoothTangents" set in
+     * the project file the tangents are solved for C2 continuity across the whole
+     * path; otherwise each follows from its neighbours as in
+     * {@link PathUtil#rawThetaOptimization(Point2D, Point2D, Point2D)}.
+     */
+    public void updateTangents() {
+        int size = waypoints.size();
+        double[] x = new double[size];
+        double[] y = new double[size];
+        boolean[] locked = new boolean[size];
+        double[] tangentX = new double[size];
+        double[] tangentY = new double[size];
+        for (int i = 0; i < size; i++) {
+            Waypoint wp = waypoints.get(i);
+            double direction = wp.isReversed() ? -1 : 1;
+            x[i] = wp.getX();
+            y[i] = wp.getY();
+            locked[i] = wp.isLockTangent();
+            tangentX[i] = wp.getTangentX() * direction;
+            tangentY[i] = wp.getTangentY() * direction;
         }
 
-        Waypoint previous = getWaypoints().get(curWpIndex - 1);
-        Waypoint next = getWaypoints().get(curWpIndex + 1);
+        if (ProjectPreferences.getInstance().getValues().isSmoothTangents()) {
+            TangentSolver.solveSmooth(x, y, locked, tangentX, tangentY);
+        } else {
+            TangentSolver.solveLocal(x, y, locked, tangentX, tangentY);
+        }
 
-        Point2D wpTangent = PathUtil.rawThetaOptimization(previous.getCoords(), wp.getCoords(), next.getCoords());
-        if (wp.isReversed()) {
-            wpTangent = wpTangent.multiply(-1);
+        for (int i = 1; i < size - 1; i++) {
+            if (locked[i]) {
+                continue;
+            }
+            Waypoint wp = waypoints.get(i);
+            double direction = wp.isReversed() ? -1 : 1;
+            wp.setTangentX(tangentX[i] * direction);
+            wp.setTangentY(tangentY[i] * direction);
         }
-        wp.setTangent(wpTangent);
     }
 
     @Override
@@ -4,7 +4,9 @@ import javafx.scene.Group;
 
 import java.nio.file.Path;
 
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryInstance;
 import edu.wpi.first.talontrack.global.CurrentSelections;
+import edu.wpi.first.talontrack.global.PathExports;
 
 /**
  * This interface represents a Spline - the function that describes the path
@@ -70,10 +72,28 @@ public interface Spline {
   void removeFromGroup(Group splineGroup);
 
   /**
-   * Serialize this path to a file for use in the robot.
+   * Serialize this path to a file for use in the robot, and register the
+   * exported trajectory in {@link PathExports}.
    * 
    * @param path the path of the file to write to
    * @return whether the write succeeded
    */
-  boolean writeToFile(Path path);
+  default boolean writeToFile(Path path) {
+    PratsTrajectoryInstance trajectory = export(path);
+    if (trajectory == null) {
+      return false;
+    }
+    PathExports.addTrajectory(trajectory);
+    return true;
+  }
+
+  /**
+   * Serialize this path to a file for use in the robot. The exported trajectory
+   * is returned instead of registered in {@link PathExports}, so this may be
+   * called off the JavaFX application thread.
+   * 
+   * @param path the path of the file to write to
+   * @return the exported trajectory, or null if the write failed
+   */
+  PratsTrajectoryInstance export(Path path);
 }
@@ -4,24 +4,26 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
-import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.spline.PoseWithCurvature;
 import edu.wpi.first.math.spline.QuinticHermiteSpline;
 import edu.wpi.first.math.spline.Spline;
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.math.trajectory.TrajectoryConfig;
-import edu.wpi.first.math.trajectory.TrajectoryGenerator;
 import edu.wpi.first.math.trajectory.TrajectoryUtil;
 import edu.wpi.first.talontrack.FxUtils;
 import edu.wpi.first.talontrack.PathUnits;
 import edu.wpi.first.talontrack.ProjectPreferences;
+import edu.wpi.first.talontrack.TrajectoryCache;
 import edu.wpi.first.talontrack.Waypoint;
 import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsPose2d;
 import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectory;
 import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryConfig;
-import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryGenerator;
 import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryInstance;
 import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryUtil;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PrimitiveTrajectory;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.TrajectoryBinary;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.TrajectoryDecimator;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.TrajectoryEngine;
 import edu.wpi.first.talontrack.path.Path;
 import edu.wpi.first.talontrack.spline.AbstractSpline;
 import edu.wpi.first.talontrack.spline.SplineSegment;
@@ -32,6 +34,7 @@ import javafx.scene.Node;
 import javax.measure.UnitConverter;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -113,60 +116,96 @@ public class WpilibSpline extends AbstractSpline {
     }
 
     @Override
-    public boolean writeToFile(java.nio.file.Path path) {
+    public PratsTrajectoryInstance export(java.nio.file.Path path) {
         final AtomicBoolean okay = new AtomicBoolean(true);
-        TrajectoryGenerator.setErrorHandler((error, stacktrace) -> {
+        TrajectoryEngine engine = new TrajectoryEngine((error, stacktrace) -> {
             LOGGER.log(Level.WARNING, "Could not write Spline to file: " + error, stacktrace);
             okay.set(false);
         });
         try {
-            var values = ProjectPreferences.getInstance().getValues();
             var prefs = ProjectPreferences.getInstance();
-            var lengthUnit = prefs.getField().getUnit();
-            double height = prefs.getField().getRealLength().getValue().doubleValue();
-            var maxVelocity = values.getMaxVelocity();
-            var maxAcceleration = values.getMaxAcceleration();
-            var trackWidth = values.getTrackWidth();
-            var wheelBase = values.getWheelBase();
-            SwerveDriveKinematics swerveKine = new SwerveDriveKinematics(
-                    new Translation2d(wheelBase / 2, -trackWidth / 2),
-                    new Translation2d(wheelBase / 2, trackWidth / 2),
-                    new Translation2d(-wheelBase / 2, -trackWidth / 2),
-                    new Translation2d(-wheelBase / 2, trackWidth / 2));
-
-            // If the export type is different (i.e. meters), then we have to convert it.
-            // Otherwise we are good.
-            if (prefs.getValues().getExportUnit() == ProjectPreferences.ExportUnit.METER) {
-                UnitConverter converter = lengthUnit.getConverterTo(PathUnits.METER);
-                height = converter.convert(height);
-                maxVelocity = converter.convert(maxVelocity);
-                maxAcceleration = converter.convert(maxAcceleration);
-                trackWidth = converter.convert(trackWidth);
-                wheelBase = converter.convert(wheelBase);
+            TrajectoryCache cache = TrajectoryCache.forProject(prefs);
+            String key = TrajectoryCache.key(waypoints, prefs);
+            PratsTrajectory traj = cache.load(key);
+            if (traj == null) {
+                traj = generateTrajectory(engine, prefs);
+                if (okay.get()) {
+                    cache.store(key, traj);
+                }
             }
 
-            PratsTrajectoryConfig config = new PratsTrajectoryConfig(maxVelocity, maxAcceleration)
-                    .setKinematics(swerveKine)
-                    .setReversed(waypoints.get(0).isReversed());
-            PratsTrajectory traj = trajectoryFromWaypoints(waypoints, config);
-
-            for (int i = 0; i < traj.getStates().size(); ++i) {
-                var st = traj.getStates().get(i);
-                traj.getStates().set(i, new PratsTrajectory.State(
-                        st.timeSeconds, st.velocityMetersPerSecond, st.accelerationMetersPerSecondSq,
-                        new PratsPose2d(st.poseMeters.getX(), st.poseMeters.getY() + height,
-                                st.poseMeters.getRotation(), st.poseMeters.getTangent()),
-                        st.curvatureRadPerMeter));
+            java.nio.file.Path jsonPath = path.resolveSibling(path.getFileName() + ".wpilib.json");
+            double exportTimestep = prefs.getValues().getExportTimestep();
+            ProjectPreferences.Decimation decimation = prefs.getValues().getDecimation();
+            java.nio.file.Path binaryPath = path.resolveSibling(path.getFileName() + TrajectoryBinary.kExtension);
+            java.nio.file.Path uniformPath = path.resolveSibling(
+                    path.getFileName() + PratsTrajectoryUtil.kUniformExtension);
+            if (exportTimestep > 0) {
+                // The .wpilib.json stays in WPILib's format; the uniform header
+                // goes in its own file and in the binary.
+                PrimitiveTrajectory states = PratsTrajectoryUtil.resample(traj, exportTimestep);
+                PratsTrajectoryUtil.toPathweaverJson(new PratsTrajectory(states), jsonPath);
+                PratsTrajectoryUtil.toUniformPathweaverJson(states, exportTimestep, uniformPath);
+                TrajectoryBinary.write(states, exportTimestep, binaryPath);
+            } else if (decimation != null) {
+                TrajectoryDecimator.Result result = new TrajectoryDecimator(decimation.getPosition(),
+                        decimation.getHeading(), decimation.getVelocity(), decimation.getAcceleration())
+                        .decimate(traj);
+                LOGGER.log(Level.INFO, String.format("Decimated %s from %d to %d states (%.2fx)", path.getFileName(),
+                        result.getOriginalSize(), result.getDecimatedSize(), result.getCompressionRatio()));
+                PratsTrajectoryUtil.toPathweaverJson(result.getTrajectory(), jsonPath);
+                TrajectoryBinary.write(result.getTrajectory(), binaryPath);
+                Files.deleteIfExists(uniformPath);
+            } else {
+                PratsTrajectoryUtil.toPathweaverJson(traj, jsonPath);
+                TrajectoryBinary.write(traj, binaryPath);
+                Files.deleteIfExists(uniformPath);
             }
 
-            new PratsTrajectoryInstance(traj, (path.getFileName().toString() + ".wpilib.json"));
-            PratsTrajectoryUtil.toPathweaverJson(traj, path.resolveSibling(path.getFileName() + ".wpilib.json"));
-
-            return okay.get();
+            return okay.get() ? new PratsTrajectoryInstance(traj, path.getFileName() + ".wpilib.json") : null;
         } catch (IOException except) {
             LOGGER.log(Level.WARNING, "Could not write Spline to file", except);
-            return false;
+            return null;
+        }
+    }
+
+    private PratsTrajectory generateTrajectory(TrajectoryEngine engine, ProjectPreferences prefs) {
+        var values = prefs.getValues();
+        var lengthUnit = prefs.getField().getUnit();
+        double height = prefs.getField().getRealLength().getValue().doubleValue();
+        var maxVelocity = values.getMaxVelocity();
+        var maxAcceleration = values.getMaxAcceleration();
+        var trackWidth = values.getTrackWidth();
+        var wheelBase = values.getWheelBase();
+        // If the export type is different (i.e. meters), then we have to convert it.
+        // Otherwise we are good.
+        if (prefs.getValues().getExportUnit() == ProjectPreferences.ExportUnit.METER) {
+            UnitConverter converter = lengthUnit.getConverterTo(PathUnits.METER);
+            height = converter.convert(height);
+            maxVelocity = converter.convert(maxVelocity);
+            maxAcceleration = converter.convert(maxAcceleration);
+            trackWidth = converter.convert(trackWidth);
+            wheelBase = converter.convert(wheelBase);
+        }
+
+        PratsTrajectoryConfig config = new PratsTrajectoryConfig(maxVelocity, maxAcceleration)
+                .setSwerveModules(
+                        new Translation2d(wheelBase / 2, -trackWidth / 2),
+                        new Translation2d(wheelBase / 2, trackWidth / 2),
+                        new Translation2d(-wheelBase / 2, -trackWidth / 2),
+                        new Translation2d(-wheelBase / 2, trackWidth / 2))
+                .setReversed(waypoints.get(0).isReversed());
+        PratsTrajectory traj = trajectoryFromWaypoints(engine, waypoints, config);
+
+        for (int i = 0; i < traj.getStates().size(); ++i) {
+            var st = traj.getStates().get(i);
+            traj.getStates().set(i, new PratsTrajectory.State(
+                    st.timeSeconds, st.velocityMetersPerSecond, st.accelerationMetersPerSecondSq,
+                    new PratsPose2d(st.poseMeters.getX(), st.poseMeters.getY() + height,
+                            st.poseMeters.getRotation(), st.poseMeters.getTangent()),
+                    st.curvatureRadPerMeter));
         }
+        return traj;
     }
 
     private static QuinticHermiteSpline[] getQuinticSplinesFromWaypoints(Waypoint[] waypoints) {
@@ -187,7 +226,8 @@ public class WpilibSpline extends AbstractSpline {
         return splines;
     }
 
-    private static PratsTrajectory trajectoryFromWaypoints(Iterable<Waypoint> waypoints, PratsTrajectoryConfig config) {
+    private static PratsTrajectory trajectoryFromWaypoints(TrajectoryEngine engine, Iterable<Waypoint> waypoints,
+            PratsTrajectoryConfig config) {
         ProjectPreferences.Values prefs = ProjectPreferences.getInstance().getValues();
 
         List<PratsPose2d> poseList = new ArrayList<PratsPose2d>();
@@ -219,6 +259,6 @@ public class WpilibSpline extends AbstractSpline {
             }
         }
         // return TrajectoryGenerator.generateTrajectory();
-        return PratsTrajectoryGenerator.generateTrajectory(poseList, config);
+        return engine.generateTrajectory(poseList, config);
     }
 }
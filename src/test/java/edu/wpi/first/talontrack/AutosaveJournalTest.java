@@ -0,0 +1,113 @@
+package edu.wpi.first.talontrack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AutosaveJournalTest {
+
+  private Path file;
+  private Path pathA;
+  private Path pathB;
+
+  @BeforeEach
+  public void initialize(@TempDir Path temp) {
+    file = temp.resolve("Autosave.journal");
+    pathA = temp.resolve("Paths/a.path");
+    pathB = temp.resolve("Instances/b.inst");
+  }
+
+  @Test
+  public void replaysLatestUnsavedContents() throws IOException {
+    AutosaveJournal journal = AutosaveJournal.open(file, 1 << 20);
+    journal.recordChange(pathA, bytes("a1"));
+    journal.recordChange(pathB, bytes("b1"));
+    journal.recordChange(pathA, bytes("a2"));
+    journal.close();
+
+    Map<Path, byte[]> unsaved = AutosaveJournal.open(file, 1 << 20).getUnsaved();
+    assertEquals(List.of(pathB, pathA), List.copyOf(unsaved.keySet()), "Files should be in order of last change");
+    assertEquals("a2", string(unsaved.get(pathA)), "Latest contents of a should be restored");
+    assertEquals("b1", string(unsaved.get(pathB)), "Contents of b should be restored");
+  }
+
+  @Test
+  public void savedChangesAreNotReplayed() throws IOException {
+    AutosaveJournal journal = AutosaveJournal.open(file, 1 << 20);
+    journal.recordChange(pathA, bytes("a1"));
+    journal.recordChange(pathB, bytes("b1"));
+    long sequence = journal.sequence();
+    journal.recordChange(pathB, bytes("b2"));
+    // The save rendered before b2 finishes after it
+    journal.recordSaved(pathA, sequence);
+    journal.recordSaved(pathB, sequence);
+    journal.close();
+
+    Map<Path, byte[]> unsaved = AutosaveJournal.open(file, 1 << 20).getUnsaved();
+    assertEquals(List.of(pathB), List.copyOf(unsaved.keySet()), "Only the change after the save should remain");
+    assertEquals("b2", string(unsaved.get(pathB)), "Change after the save should be restored");
+  }
+
+  @Test
+  public void savingEverythingEmptiesJournal() throws IOException {
+    AutosaveJournal journal = AutosaveJournal.open(file, 1 << 20);
+    journal.recordChange(pathA, bytes("a1"));
+    journal.recordSaved(pathA, journal.sequence());
+    journal.close();
+    assertEquals(8L, Files.size(file), "Journal should only hold its header");
+    assertTrue(AutosaveJournal.open(file, 1 << 20).getUnsaved().isEmpty(), "Nothing should be restored");
+  }
+
+  @Test
+  public void ignoresTornRecord() throws IOException {
+    AutosaveJournal journal = AutosaveJournal.open(file, 1 << 20);
+    journal.recordChange(pathA, bytes("a1"));
+    journal.recordChange(pathA, bytes("a2"));
+    journal.close();
+    byte[] contents = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(contents, contents.length - 1));
+
+    Map<Path, byte[]> unsaved = AutosaveJournal.open(file, 1 << 20).getUnsaved();
+    assertEquals("a1", string(unsaved.get(pathA)), "Torn record should be dropped");
+  }
+
+  @Test
+  public void compactsWhenLarge() throws IOException {
+    AutosaveJournal journal = AutosaveJournal.open(file, 256);
+    for (int i = 0; i < 1000; i++) {
+      journal.recordChange(pathA, bytes("waypoints " + i));
+    }
+    assertTrue(Files.size(file) <= 512, "Journal should stay compact, was " + Files.size(file));
+    journal.close();
+    assertEquals("waypoints 999", string(AutosaveJournal.open(file, 256).getUnsaved().get(pathA)),
+        "Latest contents should survive compaction");
+  }
+
+  @Test
+  public void clearForgetsChanges() throws IOException {
+    AutosaveJournal journal = AutosaveJournal.open(file, 1 << 20);
+    journal.recordChange(pathA, bytes("a1"));
+    journal.clear();
+    journal.close();
+    assertTrue(AutosaveJournal.open(file, 1 << 20).getUnsaved().isEmpty(), "Nothing should be restored");
+  }
+
+  private static byte[] bytes(String contents) {
+    return contents.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String string(byte[] contents) {
+    return new String(contents, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,83 @@
+package edu.wpi.first.talontrack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BuildManifestTest {
+
+  private Path output;
+  private List<Path> outputs;
+
+  @BeforeEach
+  public void initialize(@TempDir Path temp) throws IOException {
+    output = temp.resolve("paths");
+    Files.createDirectories(output);
+    outputs = List.of(output.resolve("a.wpilib.json"), output.resolve("a.wpilib.bin"));
+    Files.writeString(outputs.get(0), "[]");
+    Files.writeString(outputs.get(1), "binary");
+  }
+
+  @Test
+  public void recordedPathIsUpToDate() throws IOException {
+    BuildManifest manifest = BuildManifest.load(output);
+    assertFalse(manifest.isUpToDate("a.path", "in", "config", outputs), "Empty manifest should be out of date");
+    manifest.record("a.path", "in", "config", outputs);
+    assertTrue(manifest.isUpToDate("a.path", "in", "config", outputs), "Recorded path should be up to date");
+    assertFalse(manifest.isUpToDate("a.path", "edited", "config", outputs), "Edited path should be out of date");
+    assertFalse(manifest.isUpToDate("a.path", "in", "other", outputs), "Changed config should be out of date");
+    assertFalse(manifest.isUpToDate("a.path", "in", "config", outputs.subList(0, 1)),
+        "Different outputs should be out of date");
+  }
+
+  @Test
+  public void changedOrMissingOutputIsOutOfDate() throws IOException {
+    BuildManifest manifest = BuildManifest.load(output);
+    manifest.record("a.path", "in", "config", outputs);
+    Files.writeString(outputs.get(1), "edited");
+    assertFalse(manifest.isUpToDate("a.path", "in", "config", outputs), "Edited output should be out of date");
+    manifest.record("a.path", "in", "config", outputs);
+    Files.delete(outputs.get(0));
+    assertFalse(manifest.isUpToDate("a.path", "in", "config", outputs), "Deleted output should be out of date");
+  }
+
+  @Test
+  public void savedManifestLoads() throws IOException {
+    BuildManifest manifest = BuildManifest.load(output);
+    manifest.record("a.path", "in", "config", outputs);
+    manifest.save();
+    assertTrue(Files.exists(output.resolveSibling("paths.manifest")), "Manifest should be next to the output");
+    assertTrue(BuildManifest.load(output).isUpToDate("a.path", "in", "config", outputs),
+        "Loaded manifest should keep the entry");
+  }
+
+  @Test
+  public void corruptManifestLoadsEmpty() throws IOException {
+    Files.writeString(output.resolveSibling("paths.manifest"), "{\"version\":1,\"paths\":[");
+    assertFalse(BuildManifest.load(output).isUpToDate("a.path", "in", "config", outputs),
+        "Corrupt manifest should be empty");
+  }
+
+  @Test
+  public void removeStaleDeletesOnlyRecordedOutputs() throws IOException {
+    Path other = output.resolve("b.wpilib.json");
+    Files.writeString(other, "[]");
+    BuildManifest manifest = BuildManifest.load(output);
+    manifest.record("a.path", "in", "config", outputs);
+
+    assertEquals(List.of(), manifest.removeStale(List.of("a.path")), "Existing path should keep its outputs");
+    assertEquals(2, manifest.removeStale(List.of("b.path")).size(), "Removed path should lose its outputs");
+    assertFalse(Files.exists(outputs.get(0)), "Output of removed path should be deleted");
+    assertFalse(Files.exists(outputs.get(1)), "Output of removed path should be deleted");
+    assertTrue(Files.exists(other), "Unrecorded file should be kept");
+  }
+}
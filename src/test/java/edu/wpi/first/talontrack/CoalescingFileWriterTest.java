@@ -0,0 +1,82 @@
+package edu.wpi.first.talontrack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CoalescingFileWriterTest {
+
+  private Path directory;
+
+  @BeforeEach
+  public void initialize(@TempDir Path temp) {
+    directory = temp;
+  }
+
+  @Test
+  public void flushWritesLatestContents() throws IOException {
+    CoalescingFileWriter writer = new CoalescingFileWriter("Test writer", 60_000);
+    Path file = directory.resolve("a.path");
+    writer.submit(file, bytes("first"));
+    writer.submit(file, bytes("second"));
+    assertFalse(Files.exists(file), "Submit should not write before the window ends");
+
+    writer.flush();
+    assertEquals("second", Files.readString(file), "Only the latest contents should be written");
+    assertEquals(List.of(file), list(), "No temporary files should be left");
+  }
+
+  @Test
+  public void writesAfterWindow() throws IOException, InterruptedException {
+    CoalescingFileWriter writer = new CoalescingFileWriter("Test writer", 10);
+    Path file = directory.resolve("a.path");
+    writer.submit(file, bytes("contents"));
+    for (int i = 0; i < 500 && !Files.exists(file); i++) {
+      Thread.sleep(10);
+    }
+    assertTrue(Files.exists(file), "File should be written once the window ends");
+    writer.flush();
+    assertEquals("contents", Files.readString(file), "Wrong contents");
+  }
+
+  @Test
+  public void replacesExistingFile() throws IOException {
+    Path file = directory.resolve("a.path");
+    Files.writeString(file, "old contents that are longer");
+    assertTrue(CoalescingFileWriter.write(file, bytes("new")), "Write should succeed");
+    assertEquals("new", Files.readString(file), "Wrong contents");
+    assertEquals(List.of(file), list(), "No temporary files should be left");
+  }
+
+  @Test
+  public void writesSeveralFiles() throws IOException {
+    CoalescingFileWriter writer = new CoalescingFileWriter("Test writer", 60_000);
+    writer.submit(directory.resolve("a.path"), bytes("a"));
+    writer.submit(directory.resolve("b.inst"), bytes("b"));
+    writer.flush();
+    assertEquals("a", Files.readString(directory.resolve("a.path")), "Wrong contents of a");
+    assertEquals("b", Files.readString(directory.resolve("b.inst")), "Wrong contents of b");
+  }
+
+  private List<Path> list() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.sorted().collect(Collectors.toList());
+    }
+  }
+
+  private static byte[] bytes(String contents) {
+    return contents.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,113 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PoseMathTest {
+  private static final int kCases = 10000;
+
+  @Test
+  public void transformByMatchesPose() {
+    var random = new Random(18);
+    var out = new double[PoseMath.kPoseSize];
+    for (int i = 0; i < kCases; i++) {
+      var pose = randomPose(random);
+      var transform = new PratsTransform2d(new Translation2d(random.nextGaussian(), random.nextGaussian()),
+          new Rotation2d(randomAngle(random)), new Rotation2d(randomAngle(random)));
+      PoseMath.transformBy(pose.getX(), pose.getY(), pose.getRotation().getRadians(),
+          pose.getTangent().getRadians(), transform.getX(), transform.getY(),
+          transform.getRotation().getRadians(), transform.getTangent().getRadians(), out);
+      assertPose(pose.pratsTransformBy(transform), out, "transformBy " + i);
+    }
+  }
+
+  @Test
+  public void relativeToMatchesPose() {
+    var random = new Random(19);
+    var out = new double[PoseMath.kPoseSize];
+    for (int i = 0; i < kCases; i++) {
+      var pose = randomPose(random);
+      var origin = randomPose(random);
+      PoseMath.relativeTo(pose.getX(), pose.getY(), pose.getTangent().getRadians(),
+          origin.getX(), origin.getY(), origin.getTangent().getRadians(), out);
+      assertPose(pose.pratsRelativeTo(origin), out, "relativeTo " + i);
+    }
+  }
+
+  @Test
+  public void logMatchesPose() {
+    var random = new Random(20);
+    var out = new double[PoseMath.kTwistSize];
+    for (int i = 0; i < kCases; i++) {
+      var start = randomPose(random);
+      // Include nearby poses, where the small angle branches are taken.
+      var end = i % 2 == 0 ? randomPose(random)
+          : new PratsPose2d(start.getX() + 0.01 * random.nextGaussian(), start.getY() + 0.01 * random.nextGaussian(),
+              start.getRotation(), new Rotation2d(start.getTangent().getRadians() + 1E-10 * random.nextGaussian()));
+      PoseMath.log(start.getX(), start.getY(), start.getTangent().getRadians(),
+          end.getX(), end.getY(), end.getTangent().getRadians(), out);
+      var twist = start.pratsLog(end);
+      assertEquals(twist.dx, out[PoseMath.kDx], 0.0, "log dx " + i);
+      assertEquals(twist.dy, out[PoseMath.kDy], 0.0, "log dy " + i);
+      assertEquals(twist.dtheta, out[PoseMath.kDtheta], 0.0, "log dtheta " + i);
+    }
+  }
+
+  @Test
+  public void expMatchesPose() {
+    var random = new Random(21);
+    var out = new double[PoseMath.kPoseSize];
+    for (int i = 0; i < kCases; i++) {
+      var pose = randomPose(random);
+      var twist = new PratsTwist2d(random.nextGaussian(), random.nextGaussian(),
+          i % 2 == 0 ? randomAngle(random) : 1E-10 * random.nextGaussian());
+      PoseMath.exp(pose.getX(), pose.getY(), pose.getRotation().getRadians(), pose.getTangent().getRadians(),
+          twist.dx, twist.dy, twist.dtheta, out);
+      // The exponential builds its rotation from a cosine and sine, so it is
+      // only equal to rounding.
+      var expected = pose.pratsExp(twist);
+      assertEquals(expected.getX(), out[PoseMath.kX], 1E-12, "exp x " + i);
+      assertEquals(expected.getY(), out[PoseMath.kY], 1E-12, "exp y " + i);
+      assertEquals(expected.getRotation().getRadians(), out[PoseMath.kRotation], 1E-12, "exp rotation " + i);
+      assertEquals(expected.getTangent().getRadians(), out[PoseMath.kTangent], 1E-12, "exp tangent " + i);
+    }
+  }
+
+  @Test
+  public void lerpMatchesPose() {
+    var random = new Random(22);
+    var out = new double[PoseMath.kPoseSize];
+    for (int i = 0; i < kCases; i++) {
+      var start = randomPose(random);
+      var end = randomPose(random);
+      double t = random.nextDouble();
+      PoseMath.lerp(start.getX(), start.getY(), start.getRotation().getRadians(), start.getTangent().getRadians(),
+          end.getX(), end.getY(), end.getTangent().getRadians(), t, out);
+      assertPose(start.pratsPlus(end.pratsMinus(start).times(t)), out, "lerp " + i);
+    }
+  }
+
+  private static void assertPose(PratsPose2d expected, double[] actual, String message) {
+    assertEquals(expected.getX(), actual[PoseMath.kX], 0.0, message + ": x differs");
+    assertEquals(expected.getY(), actual[PoseMath.kY], 0.0, message + ": y differs");
+    assertEquals(expected.getRotation().getRadians(), actual[PoseMath.kRotation], 0.0,
+        message + ": rotation differs");
+    assertEquals(expected.getTangent().getRadians(), actual[PoseMath.kTangent], 0.0,
+        message + ": tangent differs");
+  }
+
+  private static PratsPose2d randomPose(Random random) {
+    return new PratsPose2d(8.0 * random.nextDouble(), 4.0 * random.nextDouble(),
+        new Rotation2d(randomAngle(random)), new Rotation2d(randomAngle(random)));
+  }
+
+  private static double randomAngle(Random random) {
+    return Math.PI * (2.0 * random.nextDouble() - 1.0);
+  }
+}
@@ -0,0 +1,76 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PratsArcLengthTableTest {
+  private static final int kChords = 200000;
+
+  @Test
+  public void lengthMatchesChordSum() {
+    var spline = getSpline();
+    var table = spline.getArcLengthTable();
+    assertNotNull(table, "Table was not built");
+    assertEquals(chordLength(spline, 1.0), table.getLength(), 1E-6, "Length differs from the chord sum");
+  }
+
+  @Test
+  public void distanceForTMatchesChordSum() {
+    var spline = getSpline();
+    var table = spline.getArcLengthTable();
+    for (double t = 0.0; t <= 1.0; t += 0.05) {
+      assertEquals(chordLength(spline, t), table.distanceForT(t), 1E-6, "Distance differs at t = " + t);
+    }
+  }
+
+  @Test
+  public void tForDistanceInvertsDistanceForT() {
+    var table = getSpline().getArcLengthTable();
+    for (int i = 0; i <= 1000; i++) {
+      double t = i / 1000.0;
+      assertEquals(t, table.tForDistance(table.distanceForT(t)), 1E-8, "Round trip differs at t = " + t);
+    }
+  }
+
+  @Test
+  public void clampsOutOfRangeQueries() {
+    var table = getSpline().getArcLengthTable();
+    assertEquals(0.0, table.distanceForT(-1.0), 0.0, "Distance before the start");
+    assertEquals(table.getLength(), table.distanceForT(2.0), 0.0, "Distance past the end");
+    assertEquals(0.0, table.tForDistance(-1.0), 0.0, "t before the start");
+    assertEquals(1.0, table.tForDistance(table.getLength() + 1.0), 0.0, "t past the end");
+  }
+
+  @Test
+  public void tableIsOptional() {
+    var p0 = new PratsPose2d(0.0, 0.0, new Rotation2d(), new Rotation2d());
+    var p1 = new PratsPose2d(2.0, 1.0, new Rotation2d(), new Rotation2d());
+    assertNull(PratsSplineHelper.getQuinticSpline(p0, p1).getArcLengthTable(), "Table built by default");
+    assertThrows(IllegalArgumentException.class, () -> new PratsArcLengthTable(getSpline(), 0),
+        "Table with no intervals");
+  }
+
+  private static PratsQuinticHermiteSpline getSpline() {
+    var p0 = new PratsPose2d(0.0, 0.0, new Rotation2d(0.6), new Rotation2d());
+    var p1 = new PratsPose2d(3.0, 1.5, new Rotation2d(-1.4), new Rotation2d());
+    return PratsSplineHelper.getQuinticSpline(p0, p1, true);
+  }
+
+  /** Sums the chords of the spline from t = 0 up to the given t. */
+  private static double chordLength(PratsSpline spline, double end) {
+    double length = 0.0;
+    var previous = spline.getPoint(0.0).poseMeters;
+    for (int i = 1; i <= kChords; i++) {
+      var pose = spline.getPoint(end * i / kChords).poseMeters;
+      length += pose.getTranslation().getDistance(previous.getTranslation());
+      previous = pose;
+    }
+    return length;
+  }
+}
@@ -0,0 +1,227 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectoryParameterizer.TrajectoryGenerationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PratsBatchTrajectoryConstraintTest {
+  private static final double kMaxSpeed = 2.0;
+  private static final double kUntouched = 12345.0;
+
+  private final Translation2d[] m_modules = {
+      new Translation2d(0.35, -0.275),
+      new Translation2d(0.35, 0.275),
+      new Translation2d(-0.35, -0.275),
+      new Translation2d(-0.35, 0.275) };
+
+  /** Caps the speed on curves and limits acceleration by speed, one point at a time. */
+  private static class CentripetalVoltageConstraint implements PratsTrajectoryConstraint {
+    @Override
+    public double getMaxVelocityMetersPerSecond(
+        PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return Math.min(velocityMetersPerSecond, Math.sqrt(4.0 / Math.abs(curvatureRadPerMeter)));
+    }
+
+    @Override
+    public MinMax getMinMaxAccelerationMetersPerSecondSq(
+        PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return new MinMax((-6.0 - 1.8 * velocityMetersPerSecond) / 1.5, (6.0 - 1.8 * velocityMetersPerSecond) / 1.5);
+    }
+  }
+
+  /** Reports a min acceleration above its max acceleration. */
+  private static class InvertedConstraint implements PratsTrajectoryConstraint {
+    @Override
+    public double getMaxVelocityMetersPerSecond(
+        PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return velocityMetersPerSecond;
+    }
+
+    @Override
+    public MinMax getMinMaxAccelerationMetersPerSecondSq(
+        PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return new MinMax(1.0, -1.0);
+    }
+  }
+
+  /** The same as {@link InvertedConstraint}, through the bulk methods. */
+  private static class InvertedBatchConstraint extends InvertedConstraint implements PratsBatchTrajectoryConstraint {
+    @Override
+    public void fillMaxVelocitiesMetersPerSecond(
+        List<PratsPoseWithCurvature> points, int fromIndex, int toIndex, double[] velocitiesMetersPerSecond) {
+      // Every velocity is allowed.
+    }
+
+    @Override
+    public void fillMinMaxAccelerationsMetersPerSecondSq(
+        List<PratsPoseWithCurvature> points, int fromIndex, int toIndex, double[] velocitiesMetersPerSecond,
+        double[] minAccelerationsMetersPerSecondSq, double[] maxAccelerationsMetersPerSecondSq) {
+      Arrays.fill(minAccelerationsMetersPerSecondSq, fromIndex, toIndex, 1.0);
+      Arrays.fill(maxAccelerationsMetersPerSecondSq, fromIndex, toIndex, -1.0);
+    }
+  }
+
+  @Test
+  public void adaptWrapsOnlySinglePointConstraints() {
+    var rectangular = new PratsRectangularSwerveConstraint(0.7, 0.55, kMaxSpeed);
+    assertSame(rectangular, PratsBatchTrajectoryConstraint.adapt(rectangular),
+        "Batch constraint should not be wrapped");
+
+    var single = new CentripetalVoltageConstraint();
+    var adapted = PratsBatchTrajectoryConstraint.adapt(single);
+    assertTrue(adapted instanceof PratsBatchTrajectoryConstraint.SinglePointAdapter,
+        "Single-point constraint should be wrapped");
+    assertSame(single, ((PratsBatchTrajectoryConstraint.SinglePointAdapter) adapted).getConstraint(),
+        "Adapter should expose the wrapped constraint");
+  }
+
+  @Test
+  public void bulkLimitsMatchSinglePointLimits() {
+    var points = getPoints();
+    Random random = new Random(2022);
+    for (var constraint : getConstraints()) {
+      var batch = PratsBatchTrajectoryConstraint.adapt(constraint);
+      String name = constraint.getClass().getSimpleName();
+      for (int run = 0; run < 20; run++) {
+        int from = random.nextInt(points.size());
+        int to = from + random.nextInt(points.size() - from + 1);
+        // Negative velocities are what a reversed path asks for.
+        double[] velocities = new double[points.size()];
+        for (int i = 0; i < velocities.length; i++) {
+          velocities[i] = (random.nextDouble() * 2.0 - 1.0) * 2.0 * kMaxSpeed;
+        }
+
+        double[] maxVelocities = velocities.clone();
+        double[] minAccelerations = new double[points.size()];
+        double[] maxAccelerations = new double[points.size()];
+        Arrays.fill(minAccelerations, kUntouched);
+        Arrays.fill(maxAccelerations, kUntouched);
+        batch.fillMaxVelocitiesMetersPerSecond(points, from, to, maxVelocities);
+        batch.fillMinMaxAccelerationsMetersPerSecondSq(points, from, to, velocities, minAccelerations,
+            maxAccelerations);
+
+        for (int i = 0; i < points.size(); i++) {
+          var point = points.get(i);
+          if (i < from || i >= to) {
+            assertEquals(velocities[i], maxVelocities[i], 0.0, name + ": velocity outside the range changed at " + i);
+            assertEquals(kUntouched, minAccelerations[i], 0.0, name + ": min outside the range written at " + i);
+            assertEquals(kUntouched, maxAccelerations[i], 0.0, name + ": max outside the range written at " + i);
+            continue;
+          }
+          assertEquals(
+              constraint.getMaxVelocityMetersPerSecond(point.poseMeters, point.curvatureRadPerMeter, velocities[i]),
+              maxVelocities[i], 1E-12, name + ": max velocity differs at " + i);
+          var limits = constraint.getMinMaxAccelerationMetersPerSecondSq(
+              point.poseMeters, point.curvatureRadPerMeter, velocities[i]);
+          assertEquals(limits.minAccelerationMetersPerSecondSq, minAccelerations[i], 1E-12,
+              name + ": min acceleration differs at " + i);
+          assertEquals(limits.maxAccelerationMetersPerSecondSq, maxAccelerations[i], 1E-12,
+              name + ": max acceleration differs at " + i);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void bulkProfileMatchesSinglePointProfile() {
+    var points = getPoints();
+    List<PratsTrajectoryConstraint> constraints = getConstraints();
+    List<PratsTrajectoryConstraint> singlePoint = new ArrayList<>();
+    for (var constraint : constraints) {
+      singlePoint.add(singlePoint(constraint));
+    }
+
+    for (boolean reversed : new boolean[] {false, true}) {
+      for (boolean reachability : new boolean[] {false, true}) {
+        String name = (reachability ? "Reachability" : "Forward-backward") + (reversed ? ", reversed" : "");
+        var expected = parameterize(points, singlePoint, reversed, reachability).getStates();
+        var actual = parameterize(points, constraints, reversed, reachability).getStates();
+        assertEquals(expected.size(), actual.size(), name + ": different number of states");
+        for (int i = 0; i < expected.size(); i++) {
+          assertEquals(expected.get(i).timeSeconds, actual.get(i).timeSeconds, 1E-12,
+              name + ": time differs at " + i);
+          assertEquals(expected.get(i).velocityMetersPerSecond, actual.get(i).velocityMetersPerSecond, 1E-12,
+              name + ": velocity differs at " + i);
+          assertEquals(expected.get(i).accelerationMetersPerSecondSq, actual.get(i).accelerationMetersPerSecondSq,
+              1E-12, name + ": acceleration differs at " + i);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void invertedLimitsThrowEitherWay() {
+    var points = getPoints();
+    for (var inverted : List.of(new InvertedConstraint(), new InvertedBatchConstraint())) {
+      List<PratsTrajectoryConstraint> constraints = new ArrayList<>(getConstraints());
+      constraints.add(inverted);
+      for (boolean reversed : new boolean[] {false, true}) {
+        for (boolean reachability : new boolean[] {false, true}) {
+          var exception = assertThrows(TrajectoryGenerationException.class,
+              () -> parameterize(points, constraints, reversed, reachability),
+              "Inverted limits should fail the build");
+          assertTrue(exception.getMessage().contains(inverted.getClass().getName()),
+              "Error should name the offending constraint, not its adapter: " + exception.getMessage());
+        }
+      }
+    }
+  }
+
+  /** A native batch constraint, a single-point one and one that limits acceleration. */
+  private List<PratsTrajectoryConstraint> getConstraints() {
+    return List.of(
+        new PratsRectangularSwerveConstraint(0.7, 0.55, kMaxSpeed),
+        new PratsSwerveDriveKinematicsConstraint(new SwerveDriveKinematics(m_modules), kMaxSpeed),
+        new CentripetalVoltageConstraint());
+  }
+
+  /** Hides the bulk methods of a constraint, so it is evaluated through the adapter. */
+  private static PratsTrajectoryConstraint singlePoint(PratsTrajectoryConstraint constraint) {
+    return new PratsTrajectoryConstraint() {
+      @Override
+      public double getMaxVelocityMetersPerSecond(
+          PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+        return constraint.getMaxVelocityMetersPerSecond(poseMeters, curvatureRadPerMeter, velocityMetersPerSecond);
+      }
+
+      @Override
+      public MinMax getMinMaxAccelerationMetersPerSecondSq(
+          PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+        return constraint.getMinMaxAccelerationMetersPerSecondSq(
+            poseMeters, curvatureRadPerMeter, velocityMetersPerSecond);
+      }
+    };
+  }
+
+  private static PratsTrajectory parameterize(List<PratsPoseWithCurvature> points,
+      List<PratsTrajectoryConstraint> constraints, boolean reversed, boolean reachability) {
+    if (reachability) {
+      return PratsTrajectoryParameterizer.reachabilityParameterizeTrajectory(
+          points, constraints, 0.0, 0.0, 4.0, 3.0, reversed);
+    }
+    return PratsTrajectoryParameterizer.timeParameterizeTrajectory(points, constraints, 0.0, 0.0, 4.0, 3.0, reversed);
+  }
+
+  private static List<PratsPoseWithCurvature> getPoints() {
+    List<PratsPose2d> waypoints = List.of(
+        new PratsPose2d(1.0, 1.0, new Rotation2d(0.0), new Rotation2d(0.0)),
+        new PratsPose2d(3.0, 2.5, new Rotation2d(1.2), new Rotation2d(1.0)),
+        new PratsPose2d(4.0, 1.0, new Rotation2d(-2.5), new Rotation2d(-1.5)),
+        new PratsPose2d(6.5, 2.0, new Rotation2d(2.0), new Rotation2d(0.3)));
+    return PratsTrajectoryGenerator.splinePointsFromSplines(
+        PratsSplineHelper.getQuinticSplinesFromWaypoints(waypoints), waypoints);
+  }
+}
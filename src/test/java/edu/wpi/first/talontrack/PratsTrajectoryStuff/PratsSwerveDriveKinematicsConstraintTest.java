@@ -0,0 +1,52 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PratsSwerveDriveKinematicsConstraintTest {
+  private static final double kMaxSpeed = 4.0;
+  private static final double kWheelBase = 0.7;
+  private static final double kTrackWidth = 0.55;
+
+  private final Translation2d[] m_modules = {
+      new Translation2d(kWheelBase / 2, -kTrackWidth / 2),
+      new Translation2d(kWheelBase / 2, kTrackWidth / 2),
+      new Translation2d(-kWheelBase / 2, -kTrackWidth / 2),
+      new Translation2d(-kWheelBase / 2, kTrackWidth / 2) };
+
+  @Test
+  public void rectangularLayoutUsesClosedForm() {
+    assertTrue(PratsSwerveDriveKinematicsConstraint.forModules(kMaxSpeed, m_modules)
+        instanceof PratsRectangularSwerveConstraint, "Rectangular layout should use the closed form");
+    assertTrue(PratsSwerveDriveKinematicsConstraint.forModules(kMaxSpeed,
+        new Translation2d(0.3, 0.2), new Translation2d(0.3, -0.2), new Translation2d(-0.25, 0.2),
+        new Translation2d(-0.3, -0.2)) instanceof PratsSwerveDriveKinematicsConstraint,
+        "Other layouts should fall back to the kinematics");
+  }
+
+  @Test
+  public void closedFormMatchesKinematics() {
+    var generic = new PratsSwerveDriveKinematicsConstraint(new SwerveDriveKinematics(m_modules), kMaxSpeed);
+    var closedForm = PratsSwerveDriveKinematicsConstraint.forModules(kMaxSpeed, m_modules);
+
+    Random random = new Random(971);
+    for (int i = 0; i < 2000; i++) {
+      var pose = new PratsPose2d(random.nextDouble() * 10, random.nextDouble() * 5,
+          new Rotation2d(random.nextDouble() * 2 * Math.PI), new Rotation2d(random.nextDouble() * 2 * Math.PI));
+      double curvature = (random.nextDouble() - 0.5) * (i % 2 == 0 ? 1.0 : 20.0);
+      double velocity = random.nextDouble() * 2 * kMaxSpeed;
+
+      assertEquals(generic.getMaxVelocityMetersPerSecond(pose, curvature, velocity),
+          closedForm.getMaxVelocityMetersPerSecond(pose, curvature, velocity), 1E-9,
+          "Max velocity differs for curvature " + curvature + " and velocity " + velocity);
+    }
+  }
+}
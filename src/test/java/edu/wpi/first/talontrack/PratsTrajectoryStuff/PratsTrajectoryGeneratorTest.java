@@ -0,0 +1,74 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PratsTrajectoryGeneratorTest {
+
+  @Test
+  public void parallelParameterizationMatchesSequential() {
+    List<PratsPose2d> waypoints = getWaypoints(14);
+    PratsTrajectory sequential = PratsTrajectoryGenerator.generateTrajectory(waypoints,
+        new PratsTrajectoryConfig(4.0, 3.0).setParallelParameterization(false));
+    PratsTrajectory parallel = PratsTrajectoryGenerator.generateTrajectory(waypoints,
+        new PratsTrajectoryConfig(4.0, 3.0).setParallelParameterization(true));
+
+    assertEquals(sequential.getStates().size(), parallel.getStates().size(), "Different number of states");
+    for (int i = 0; i < sequential.getStates().size(); i++) {
+      var expected = sequential.getStates().get(i);
+      var actual = parallel.getStates().get(i);
+      assertEquals(expected.timeSeconds, actual.timeSeconds, 0.0, "Time differs at state " + i);
+      assertEquals(expected.velocityMetersPerSecond, actual.velocityMetersPerSecond, 0.0,
+          "Velocity differs at state " + i);
+      assertEquals(expected.poseMeters.getX(), actual.poseMeters.getX(), 0.0, "X differs at state " + i);
+      assertEquals(expected.poseMeters.getY(), actual.poseMeters.getY(), 0.0, "Y differs at state " + i);
+      assertEquals(expected.poseMeters.getRotation().getRadians(), actual.poseMeters.getRotation().getRadians(),
+          0.0, "Heading differs at state " + i);
+    }
+  }
+
+  @Test
+  public void engineGeneratesConcurrently() throws Exception {
+    TrajectoryEngine engine = new TrajectoryEngine();
+    List<List<PratsPose2d>> paths = new ArrayList<>();
+    for (int i = 3; i < 11; i++) {
+      paths.add(getWaypoints(i));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<PratsTrajectory>> futures = new ArrayList<>();
+      for (List<PratsPose2d> path : paths) {
+        futures.add(executor.submit(() -> engine.generateTrajectory(path, new PratsTrajectoryConfig(4.0, 3.0))));
+      }
+      for (int i = 0; i < paths.size(); i++) {
+        PratsTrajectory expected = engine.generateTrajectory(paths.get(i), new PratsTrajectoryConfig(4.0, 3.0));
+        assertEquals(expected, futures.get(i).get(), "Concurrently generated trajectory " + i + " differs");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private List<PratsPose2d> getWaypoints(int count) {
+    List<PratsPose2d> waypoints = new ArrayList<>();
+    double x = 1.0;
+    double y = 1.0;
+    for (int i = 0; i < count; i++) {
+      double tangent = Math.sin(i * 1.3) * 0.8;
+      waypoints.add(new PratsPose2d(x, y, new Rotation2d(i * 0.4), new Rotation2d(tangent)));
+      x += 2.0 * Math.cos(tangent);
+      y += 2.0 * Math.sin(tangent);
+    }
+    return waypoints;
+  }
+}
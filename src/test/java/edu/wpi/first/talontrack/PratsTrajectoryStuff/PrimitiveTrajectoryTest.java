@@ -0,0 +1,157 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * Checks the columnar trajectory against the list of states it replaced: each
+ * trajectory is built both ways and every operation must give the same states.
+ */
+public class PrimitiveTrajectoryTest {
+  private static final double kEpsilon = 1E-9;
+
+  private final PratsTrajectory m_generated = PratsTrajectoryGenerator.generateTrajectory(
+      List.of(
+          new PratsPose2d(1.0, 1.0, new Rotation2d(0.0), new Rotation2d(0.0)),
+          new PratsPose2d(3.0, 2.0, new Rotation2d(1.2), new Rotation2d(0.6)),
+          new PratsPose2d(5.0, 1.5, new Rotation2d(-2.5), new Rotation2d(-0.4))),
+      new PratsTrajectoryConfig(4.0, 3.0));
+  private final PratsTransform2d m_transform = new PratsTransform2d(
+      new Translation2d(1.0, 2.0), new Rotation2d(0.3), new Rotation2d(-0.2));
+  private final PratsPose2d m_origin = new PratsPose2d(2.0, 1.0, new Rotation2d(0.5), new Rotation2d(0.2));
+
+  @Test
+  public void sampleMatchesStateList() {
+    for (List<PratsTrajectory.State> states : List.of(m_generated.getStates(), duplicateTimestamps())) {
+      PratsTrajectory list = listBacked(states);
+      PratsTrajectory columns = columnBacked(states);
+      double end = list.getTotalTimeSeconds();
+
+      // Before, at and after both ends.
+      for (double t : new double[] {-1.0, 0.0, 1E-12, end - 1E-12, end, end + 1.0}) {
+        assertStateEquals(list.sample(t), columns.sample(t), "Sample differs at " + t);
+      }
+      // Exactly on every state, including repeated timestamps, and between them.
+      for (int i = 0; i < states.size(); i++) {
+        double t = states.get(i).timeSeconds;
+        assertStateEquals(list.sample(t), columns.sample(t), "Sample differs at state " + i);
+        if (i > 0) {
+          double mid = (t + states.get(i - 1).timeSeconds) / 2;
+          assertStateEquals(list.sample(mid), columns.sample(mid), "Sample differs before state " + i);
+        }
+      }
+      for (double t = 0.0; t < end; t += 0.013) {
+        assertStateEquals(list.sample(t), columns.sample(t), "Sample differs at " + t);
+      }
+    }
+  }
+
+  @Test
+  public void transformByMatchesStateList() {
+    var states = m_generated.getStates();
+    assertTrajectoryEquals(listBacked(states).transformBy(m_transform), columnBacked(states).transformBy(m_transform));
+  }
+
+  @Test
+  public void relativeToMatchesStateList() {
+    var states = m_generated.getStates();
+    assertTrajectoryEquals(listBacked(states).relativeTo(m_origin), columnBacked(states).relativeTo(m_origin));
+  }
+
+  @Test
+  public void concatenateMatchesStateList() {
+    var first = m_generated.getStates();
+    var second = duplicateTimestamps();
+    PratsTrajectory expected = listBacked(first).concatenate(listBacked(second));
+
+    assertTrajectoryEquals(expected, columnBacked(first).concatenate(columnBacked(second)));
+    assertTrajectoryEquals(expected, columnBacked(first).concatenate(listBacked(second)));
+    assertTrajectoryEquals(listBacked(second).concatenate(listBacked(first)),
+        columnBacked(second).concatenate(columnBacked(first)));
+    assertTrajectoryEquals(listBacked(first).concatenate(new PratsTrajectory()),
+        columnBacked(first).concatenate(new PratsTrajectory()));
+  }
+
+  @Test
+  public void stateListReturnsCopies() {
+    var columns = columnBacked(m_generated.getStates());
+    var states = columns.getStates();
+    var state = states.get(1);
+    assertNotSame(state, states.get(1), "Each get should build a new state");
+
+    double velocity = state.velocityMetersPerSecond;
+    state.velocityMetersPerSecond += 1.0;
+    assertEquals(velocity, states.get(1).velocityMetersPerSecond, 0.0, "Changing a copy should not write through");
+
+    states.set(1, state);
+    assertEquals(velocity + 1.0, states.get(1).velocityMetersPerSecond, 0.0, "Set should write through");
+    assertEquals(velocity + 1.0, columns.toPrimitive().getVelocityMetersPerSecond(1), 0.0,
+        "Set should write to the columns");
+  }
+
+  /** A trajectory that stops for a moment, so two pairs of states share a timestamp. */
+  private static List<PratsTrajectory.State> duplicateTimestamps() {
+    return List.of(
+        state(0.0, 0.0, 2.0, 0.0, 0.0, 0.0, 0.0),
+        state(0.5, 1.0, 0.0, 0.25, 0.0, 0.1, 0.2),
+        state(0.5, 1.0, -2.0, 0.25, 0.0, 0.1, 0.2),
+        state(1.0, 0.0, 0.0, 0.5, 0.1, 0.2, 0.3),
+        state(1.0, 0.0, 2.0, 0.5, 0.1, 0.2, 0.3),
+        state(1.5, 1.0, 0.0, 0.75, 0.3, 0.4, 0.6));
+  }
+
+  @SuppressWarnings("ParameterNumber")
+  private static PratsTrajectory.State state(double time, double velocity, double acceleration, double x, double y,
+      double heading, double tangent) {
+    return new PratsTrajectory.State(time, velocity, acceleration,
+        new PratsPose2d(x, y, new Rotation2d(heading), new Rotation2d(tangent)), 0.5);
+  }
+
+  private static PratsTrajectory listBacked(List<PratsTrajectory.State> states) {
+    var copies = new ArrayList<PratsTrajectory.State>();
+    for (var state : states) {
+      copies.add(new PratsTrajectory.State(state.timeSeconds, state.velocityMetersPerSecond,
+          state.accelerationMetersPerSecondSq, state.poseMeters, state.curvatureRadPerMeter));
+    }
+    return new PratsTrajectory(copies);
+  }
+
+  private static PratsTrajectory columnBacked(List<PratsTrajectory.State> states) {
+    return new PratsTrajectory(PrimitiveTrajectory.fromStates(states));
+  }
+
+  private static void assertTrajectoryEquals(PratsTrajectory expected, PratsTrajectory actual) {
+    assertEquals(expected.getStates().size(), actual.getStates().size(), "Different number of states");
+    assertEquals(expected.getTotalTimeSeconds(), actual.getTotalTimeSeconds(), 0.0, "Different total time");
+    for (int i = 0; i < expected.getStates().size(); i++) {
+      assertStateEquals(expected.getStates().get(i), actual.getStates().get(i), "State " + i + " differs");
+    }
+  }
+
+  private static void assertStateEquals(PratsTrajectory.State expected, PratsTrajectory.State actual,
+      String message) {
+    assertEquals(expected.timeSeconds, actual.timeSeconds, kEpsilon, message + ": time");
+    assertEquals(expected.velocityMetersPerSecond, actual.velocityMetersPerSecond, kEpsilon, message + ": velocity");
+    assertEquals(expected.accelerationMetersPerSecondSq, actual.accelerationMetersPerSecondSq, kEpsilon,
+        message + ": acceleration");
+    assertEquals(expected.poseMeters.getX(), actual.poseMeters.getX(), kEpsilon, message + ": x");
+    assertEquals(expected.poseMeters.getY(), actual.poseMeters.getY(), kEpsilon, message + ": y");
+    assertEquals(expected.poseMeters.getRotation().getCos(), actual.poseMeters.getRotation().getCos(), kEpsilon,
+        message + ": heading");
+    assertEquals(expected.poseMeters.getRotation().getSin(), actual.poseMeters.getRotation().getSin(), kEpsilon,
+        message + ": heading");
+    assertEquals(expected.poseMeters.getTangent().getCos(), actual.poseMeters.getTangent().getCos(), kEpsilon,
+        message + ": tangent");
+    assertEquals(expected.poseMeters.getTangent().getSin(), actual.poseMeters.getTangent().getSin(), kEpsilon,
+        message + ": tangent");
+    assertEquals(expected.curvatureRadPerMeter, actual.curvatureRadPerMeter, kEpsilon, message + ": curvature");
+  }
+}
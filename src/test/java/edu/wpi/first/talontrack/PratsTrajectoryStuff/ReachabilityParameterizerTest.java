@@ -0,0 +1,203 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReachabilityParameterizerTest {
+  private static final Logger LOGGER = Logger.getLogger(ReachabilityParameterizerTest.class.getName());
+  private static final int kWarmupRuns = 50;
+  private static final int kTimedRuns = 200;
+
+  /**
+   * A drivetrain voltage limit: the acceleration available shrinks as the
+   * robot speeds up.
+   */
+  private static class VoltageConstraint implements PratsTrajectoryConstraint {
+    @Override
+    public double getMaxVelocityMetersPerSecond(
+        PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return velocityMetersPerSecond;
+    }
+
+    @Override
+    public MinMax getMinMaxAccelerationMetersPerSecondSq(
+        PratsPose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return new MinMax((-6.0 - 1.8 * velocityMetersPerSecond) / 1.5, (6.0 - 1.8 * velocityMetersPerSecond) / 1.5);
+    }
+  }
+
+  @Test
+  public void matchesForwardBackwardOnSkillsPaths() {
+    for (var path : getSkillsPaths().entrySet()) {
+      var points = getPoints(path.getValue());
+      var config = getConfig();
+      var expected = parameterize(points, config, false);
+      var actual = parameterize(points, config, true);
+
+      assertEquals(expected.getStates().size(), actual.getStates().size(), "Different number of states");
+      for (int i = 0; i < expected.getStates().size(); i++) {
+        assertEquals(expected.getStates().get(i).velocityMetersPerSecond,
+            actual.getStates().get(i).velocityMetersPerSecond, 1E-9,
+            path.getKey() + ": velocity differs at state " + i);
+      }
+    }
+  }
+
+  @Test
+  public void respectsSpeedDependentAccelerationLimits() {
+    var constraint = new VoltageConstraint();
+    for (var path : getSkillsPaths().entrySet()) {
+      var points = getPoints(path.getValue());
+      var config = getConfig().addConstraint(constraint);
+      var trajectory = parameterize(points, config, true);
+
+      var states = trajectory.getStates();
+      for (int i = 0; i < states.size() - 1; i++) {
+        var state = states.get(i);
+        var limits = constraint.getMinMaxAccelerationMetersPerSecondSq(
+            state.poseMeters, state.curvatureRadPerMeter, state.velocityMetersPerSecond);
+        double max = Math.min(limits.maxAccelerationMetersPerSecondSq, config.getMaxAcceleration());
+        double min = Math.max(limits.minAccelerationMetersPerSecondSq, -config.getMaxAcceleration());
+        assertTrue(state.accelerationMetersPerSecondSq <= max + 1E-9,
+            path.getKey() + ": acceleration above its limit at state " + i);
+        assertTrue(state.accelerationMetersPerSecondSq >= min - 1E-9,
+            path.getKey() + ": acceleration below its limit at state " + i);
+      }
+      assertTrue(trajectory.getTotalTimeSeconds() <= parameterize(points, config, false).getTotalTimeSeconds() + 1E-9,
+          path.getKey() + ": slower than the forward-backward pass");
+    }
+  }
+
+  /**
+   * Times both parameterizers on the same points. This only reports; how fast
+   * either runs depends on the machine. Excluded unless the build is run with
+   * -Pbenchmarks.
+   */
+  @Test
+  @Tag("Benchmark")
+  public void benchmarkSkillsPaths() {
+    var config = getConfig().addConstraint(new VoltageConstraint());
+    for (var path : getSkillsPaths().entrySet()) {
+      var points = getPoints(path.getValue());
+      double forwardBackward = time(points, config, false);
+      double reachability = time(points, config, true);
+      LOGGER.info(String.format("%s (%d points): forward-backward %.1f us, reachability %.1f us",
+          path.getKey(), points.size(), forwardBackward, reachability));
+    }
+  }
+
+  /** Returns the best time of one parameterization, in microseconds. */
+  private static double time(List<PratsPoseWithCurvature> points, PratsTrajectoryConfig config,
+      boolean reachability) {
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < kWarmupRuns + kTimedRuns; run++) {
+      long start = System.nanoTime();
+      parameterize(points, config, reachability);
+      long elapsed = System.nanoTime() - start;
+      if (run >= kWarmupRuns) {
+        best = Math.min(best, elapsed);
+      }
+    }
+    return best / 1E3;
+  }
+
+  private static PratsTrajectory parameterize(List<PratsPoseWithCurvature> points, PratsTrajectoryConfig config,
+      boolean reachability) {
+    if (reachability) {
+      return PratsTrajectoryParameterizer.reachabilityParameterizeTrajectory(points, config.getConstraints(),
+          config.getStartVelocity(), config.getEndVelocity(), config.getMaxVelocity(), config.getMaxAcceleration(),
+          config.isReversed());
+    }
+    return PratsTrajectoryParameterizer.timeParameterizeTrajectory(points, config.getConstraints(),
+        config.getStartVelocity(), config.getEndVelocity(), config.getMaxVelocity(), config.getMaxAcceleration(),
+        config.isReversed());
+  }
+
+  private static PratsTrajectoryConfig getConfig() {
+    return new PratsTrajectoryConfig(3.0, 2.5).setSwerveModules(
+        new Translation2d(0.3, -0.3),
+        new Translation2d(0.3, 0.3),
+        new Translation2d(-0.3, -0.3),
+        new Translation2d(-0.3, 0.3));
+  }
+
+  private static List<PratsPoseWithCurvature> getPoints(List<PratsPose2d> waypoints) {
+    return PratsTrajectoryGenerator.splinePointsFromSplines(
+        PratsSplineHelper.getQuinticSplinesFromWaypoints(waypoints), waypoints);
+  }
+
+  /**
+   * Returns the 2021 at-home skills courses for the bundled 2021 fields, in
+   * meters. Bounce is driven as one path here instead of four legs.
+   */
+  private static Map<String, List<PratsPose2d>> getSkillsPaths() {
+    Map<String, List<PratsPose2d>> paths = new LinkedHashMap<>();
+    paths.put("Slalom", poses(
+        1.0, 0.76, 0.0,
+        2.3, 1.5, 0.9,
+        3.8, 2.3, 0.0,
+        6.1, 2.3, 0.0,
+        7.3, 1.5, -0.9,
+        8.0, 0.76, 0.0,
+        8.6, 1.5, Math.PI / 2,
+        8.0, 2.3, Math.PI,
+        7.3, 1.5, -2.2,
+        6.1, 0.76, Math.PI,
+        3.8, 0.76, Math.PI,
+        2.3, 1.5, 2.2,
+        1.0, 2.3, Math.PI));
+    paths.put("Barrel Racing", poses(
+        1.0, 2.3, 0.0,
+        3.8, 2.3, 0.0,
+        4.6, 1.5, -Math.PI / 2,
+        3.8, 0.76, Math.PI,
+        3.0, 1.5, Math.PI / 2,
+        3.8, 2.3, 0.0,
+        6.1, 2.3, 0.0,
+        6.9, 3.0, Math.PI / 2,
+        6.1, 3.8, Math.PI,
+        5.3, 3.0, -Math.PI / 2,
+        6.1, 1.5, -0.6,
+        7.6, 0.76, 0.0,
+        8.4, 1.5, Math.PI / 2,
+        7.6, 2.3, Math.PI,
+        4.6, 2.3, Math.PI,
+        1.0, 2.3, Math.PI));
+    paths.put("Bounce", poses(
+        1.0, 2.3, 0.0,
+        2.3, 3.4, Math.PI / 2,
+        3.0, 1.5, -1.2,
+        3.8, 0.76, 0.0,
+        4.6, 1.5, Math.PI / 2,
+        4.6, 3.4, Math.PI / 2,
+        5.3, 1.5, -1.2,
+        6.1, 0.76, 0.0,
+        6.9, 1.5, Math.PI / 2,
+        6.9, 3.4, Math.PI / 2,
+        7.6, 2.3, -0.5,
+        8.4, 2.3, 0.0));
+    return paths;
+  }
+
+  /** Builds waypoints from x, y, tangent triples, with the heading along the tangent. */
+  private static List<PratsPose2d> poses(double... values) {
+    List<PratsPose2d> poses = new ArrayList<>();
+    for (int i = 0; i < values.length; i += 3) {
+      poses.add(new PratsPose2d(values[i], values[i + 1], new Rotation2d(values[i + 2]),
+          new Rotation2d(values[i + 2])));
+    }
+    return poses;
+  }
+}
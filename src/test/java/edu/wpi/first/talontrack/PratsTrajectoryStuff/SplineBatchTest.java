@@ -0,0 +1,104 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SplineBatchTest {
+  private static final Logger LOGGER = Logger.getLogger(SplineBatchTest.class.getName());
+  private static final int kPoints = 4096;
+  private static final int kWarmupRuns = 200;
+  private static final int kTimedRuns = 500;
+
+  // Keeps the JIT from dropping the evaluations the benchmark times.
+  private static volatile double blackhole;
+
+  @Test
+  public void matchesGetPoint() {
+    var spline = getSpline();
+    var t = getT(kPoints);
+    var samples = new SplineSamples(kPoints);
+    spline.getPoints(t, kPoints, samples);
+
+    var point = new double[PratsSpline.kPointSize];
+    for (int i = 0; i < kPoints; i++) {
+      spline.getPoint(t[i], point);
+      assertEquals(point[PratsSpline.kX], samples.getX()[i], 0.0, "x differs at " + i);
+      assertEquals(point[PratsSpline.kY], samples.getY()[i], 0.0, "y differs at " + i);
+      assertEquals(point[PratsSpline.kDx], samples.getDx()[i], 0.0, "dx differs at " + i);
+      assertEquals(point[PratsSpline.kDy], samples.getDy()[i], 0.0, "dy differs at " + i);
+      assertEquals(point[PratsSpline.kDdx], samples.getDdx()[i], 0.0, "ddx differs at " + i);
+      assertEquals(point[PratsSpline.kDdy], samples.getDdy()[i], 0.0, "ddy differs at " + i);
+      assertEquals(point[PratsSpline.kCurvature], samples.getCurvature()[i],
+          8 * Math.ulp(point[PratsSpline.kCurvature]), "Curvature differs at " + i);
+    }
+  }
+
+  @Test
+  public void rejectsTooManyPoints() {
+    var spline = getSpline();
+    assertThrows(IllegalArgumentException.class,
+        () -> spline.getPoints(getT(8), 9, new SplineSamples(16)), "More points than values of t");
+    assertThrows(IllegalArgumentException.class,
+        () -> spline.getPoints(getT(16), 16, new SplineSamples(8)), "More points than room");
+  }
+
+  /**
+   * Times the batch against calling getPoint once per t. This only reports; how
+   * fast either runs depends on the machine. Excluded unless the build is run
+   * with -Pbenchmarks.
+   */
+  @Test
+  @Tag("Benchmark")
+  public void benchmarkBatch() {
+    var spline = getSpline();
+    var t = getT(kPoints);
+    var samples = new SplineSamples(kPoints);
+    var point = new double[PratsSpline.kPointSize];
+
+    long bestScalar = Long.MAX_VALUE;
+    long bestBatch = Long.MAX_VALUE;
+    double sink = 0.0;
+    for (int run = 0; run < kWarmupRuns + kTimedRuns; run++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < kPoints; i++) {
+        spline.getPoint(t[i], point);
+        sink += point[PratsSpline.kCurvature];
+      }
+      long scalar = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      spline.getPoints(t, kPoints, samples);
+      long batch = System.nanoTime() - start;
+      sink += samples.getCurvature()[run % kPoints];
+
+      if (run >= kWarmupRuns) {
+        bestScalar = Math.min(bestScalar, scalar);
+        bestBatch = Math.min(bestBatch, batch);
+      }
+    }
+    blackhole = sink;
+    LOGGER.info(String.format("%d points: getPoint %.1f us, getPoints %.1f us (%.1fx)",
+        kPoints, bestScalar / 1E3, bestBatch / 1E3, (double) bestScalar / bestBatch));
+  }
+
+  private static PratsQuinticHermiteSpline getSpline() {
+    var p0 = new PratsPose2d(0.0, 0.0, new Rotation2d(0.6), new Rotation2d());
+    var p1 = new PratsPose2d(3.0, 1.5, new Rotation2d(-1.4), new Rotation2d());
+    return PratsSplineHelper.getQuinticSpline(p0, p1);
+  }
+
+  private static double[] getT(int count) {
+    var t = new double[count];
+    for (int i = 0; i < count; i++) {
+      t[i] = (double) i / (count - 1);
+    }
+    return t;
+  }
+}
@@ -0,0 +1,139 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrajectoryBinaryTest {
+  @TempDir
+  Path m_tempDir;
+
+  private final PratsTrajectory m_trajectory = PratsTrajectoryGenerator.generateTrajectory(
+      List.of(
+          new PratsPose2d(1.0, 1.0, new Rotation2d(0.0), new Rotation2d(0.0)),
+          new PratsPose2d(3.0, 2.0, new Rotation2d(1.2), new Rotation2d(0.6)),
+          new PratsPose2d(5.0, 1.5, new Rotation2d(-2.5), new Rotation2d(-0.4)),
+          new PratsPose2d(7.0, 3.0, new Rotation2d(2.0), new Rotation2d(1.0))),
+      new PratsTrajectoryConfig(4.0, 3.0));
+
+  @Test
+  public void matchesJsonExport() throws IOException {
+    var jsonPath = m_tempDir.resolve("path.wpilib.json");
+    var binaryPath = m_tempDir.resolve("path" + TrajectoryBinary.kExtension);
+    PratsTrajectoryUtil.toPathweaverJson(m_trajectory, jsonPath);
+    TrajectoryBinary.write(m_trajectory, binaryPath);
+
+    var mapped = TrajectoryBinary.map(binaryPath);
+    assertFalse(mapped.isUniform(), "Trajectory should not be uniform");
+    assertColumnsEqual(PratsTrajectoryUtil.fromPathweaverJson(jsonPath).toPrimitive(), mapped);
+    assertColumnsEqual(m_trajectory.toPrimitive(), mapped);
+  }
+
+  @Test
+  public void matchesUniformJsonExport() throws IOException {
+    var states = PratsTrajectoryUtil.resample(m_trajectory, 0.02);
+    var jsonPath = m_tempDir.resolve("uniform" + PratsTrajectoryUtil.kUniformExtension);
+    var binaryPath = m_tempDir.resolve("uniform" + TrajectoryBinary.kExtension);
+    PratsTrajectoryUtil.toUniformPathweaverJson(states, 0.02, jsonPath);
+    TrajectoryBinary.write(states, 0.02, binaryPath);
+
+    var mapped = TrajectoryBinary.map(binaryPath);
+    assertTrue(mapped.isUniform(), "Trajectory should be uniform");
+    assertEquals(0.02, mapped.getDtSeconds(), 0.0, "Wrong timestep");
+    assertColumnsEqual(PratsTrajectoryUtil.fromPathweaverJson(jsonPath).toPrimitive(), mapped);
+  }
+
+  @Test
+  public void samplesLikeTrajectory() throws IOException {
+    var binaryPath = m_tempDir.resolve("path" + TrajectoryBinary.kExtension);
+    TrajectoryBinary.write(m_trajectory, binaryPath);
+    var mapped = TrajectoryBinary.map(binaryPath);
+
+    double total = m_trajectory.getTotalTimeSeconds();
+    assertEquals(total, mapped.getTotalTimeSeconds(), 0.0, "Wrong total time");
+    for (double t = 0.0; t <= total; t += total / 97.0) {
+      var expected = m_trajectory.sample(t);
+      var actual = mapped.sample(t);
+      assertEquals(expected.velocityMetersPerSecond, actual.velocityMetersPerSecond, 1e-9,
+          "Velocity differs at " + t);
+      assertEquals(expected.poseMeters.getX(), actual.poseMeters.getX(), 1e-9, "X differs at " + t);
+      assertEquals(expected.poseMeters.getY(), actual.poseMeters.getY(), 1e-9, "Y differs at " + t);
+      assertEquals(expected.poseMeters.getRotation().getRadians(), actual.poseMeters.getRotation().getRadians(),
+          1e-9, "Heading differs at " + t);
+    }
+  }
+
+  @Test
+  public void overwritesExistingFile() throws IOException {
+    var binaryPath = m_tempDir.resolve("path" + TrajectoryBinary.kExtension);
+    TrajectoryBinary.write(m_trajectory, binaryPath);
+    var first = TrajectoryBinary.map(binaryPath);
+    int size = first.size();
+    double end = first.getX(size - 1);
+
+    TrajectoryBinary.write(PratsTrajectoryUtil.resample(m_trajectory, 0.05), 0.05, binaryPath);
+    assertTrue(TrajectoryBinary.map(binaryPath).isUniform(), "File should hold the new trajectory");
+    assertEquals(size, first.size(), "Old mapping should be unchanged");
+    assertEquals(end, first.getX(size - 1), 0.0, "Old mapping should be unchanged");
+  }
+
+  @Test
+  public void rejectsMalformedFiles() throws IOException {
+    var binaryPath = m_tempDir.resolve("path" + TrajectoryBinary.kExtension);
+    TrajectoryBinary.write(m_trajectory, binaryPath);
+    byte[] bytes = Files.readAllBytes(binaryPath);
+
+    var truncated = m_tempDir.resolve("truncated.bin");
+    Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+    assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class, () -> TrajectoryBinary.map(truncated),
+        "Truncated file");
+
+    var header = m_tempDir.resolve("header.bin");
+    Files.write(header, Arrays.copyOf(bytes, 10));
+    assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class, () -> TrajectoryBinary.map(header),
+        "File shorter than the header");
+
+    var json = m_tempDir.resolve("path.wpilib.json");
+    PratsTrajectoryUtil.toPathweaverJson(m_trajectory, json);
+    assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class, () -> TrajectoryBinary.map(json),
+        "JSON file");
+
+    var version = m_tempDir.resolve("version.bin");
+    byte[] future = bytes.clone();
+    ByteBuffer.wrap(future).order(ByteOrder.LITTLE_ENDIAN).putInt(4, TrajectoryBinary.kVersion + 1);
+    Files.write(version, future);
+    assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class, () -> TrajectoryBinary.map(version),
+        "Unknown version");
+  }
+
+  private static void assertColumnsEqual(PrimitiveTrajectory expected, MappedTrajectory actual) {
+    assertEquals(expected.size(), actual.size(), "Different number of states");
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.getTimeSeconds(i), actual.getTimeSeconds(i), 0.0, "Time differs at " + i);
+      assertEquals(expected.getVelocityMetersPerSecond(i), actual.getVelocityMetersPerSecond(i), 0.0,
+          "Velocity differs at " + i);
+      assertEquals(expected.getAccelerationMetersPerSecondSq(i), actual.getAccelerationMetersPerSecondSq(i), 0.0,
+          "Acceleration differs at " + i);
+      assertEquals(expected.getX(i), actual.getX(i), 0.0, "X differs at " + i);
+      assertEquals(expected.getY(i), actual.getY(i), 0.0, "Y differs at " + i);
+      assertEquals(expected.getHeadingRadians(i), actual.getHeadingRadians(i), 0.0, "Heading differs at " + i);
+      assertEquals(expected.getTangentRadians(i), actual.getTangentRadians(i), 0.0, "Tangent differs at " + i);
+      assertEquals(expected.getCurvatureRadPerMeter(i), actual.getCurvatureRadPerMeter(i), 0.0,
+          "Curvature differs at " + i);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrajectoryDecimatorTest {
+  private static final double kPositionTolerance = 0.01;
+  private static final double kVelocityTolerance = 0.02;
+
+  private final PratsTrajectory m_trajectory = PratsTrajectoryGenerator.generateTrajectory(
+      List.of(
+          new PratsPose2d(1.0, 1.0, new Rotation2d(0.0), new Rotation2d(0.0)),
+          new PratsPose2d(5.0, 1.0, new Rotation2d(0.0), new Rotation2d(0.0)),
+          new PratsPose2d(7.0, 3.0, new Rotation2d(1.5), new Rotation2d(1.2))),
+      new PratsTrajectoryConfig(4.0, 3.0));
+
+  @Test
+  public void droppedStatesStayWithinTolerance() {
+    var result = new TrajectoryDecimator(kPositionTolerance, 0.01, kVelocityTolerance, 0.05).decimate(m_trajectory);
+    List<PratsTrajectory.State> kept = result.getTrajectory().getStates();
+    assertEquals(m_trajectory.getStates().size(), result.getOriginalSize(), "Wrong original size");
+    assertTrue(result.getCompressionRatio() > 1.0, "Nothing was dropped");
+    assertEquals(m_trajectory.getStates().get(0).poseMeters, kept.get(0).poseMeters, "First state was not kept");
+    assertEquals(m_trajectory.getTotalTimeSeconds(), result.getTrajectory().getTotalTimeSeconds(), 0.0,
+        "Last state was not kept");
+
+    assertSamplesWithinTolerance(m_trajectory, result.getTrajectory());
+  }
+
+  @Test
+  public void rampingAccelerationIsSampledWithinTolerance() {
+    // Acceleration ramps from 0 to 3 m/s² over a second along a straight line, so
+    // every span is close to linear while sample() extrapolates the acceleration
+    // of its first state across the whole span.
+    final int size = 101;
+    final double dt = 0.01;
+    var states = new PrimitiveTrajectory(size);
+    double x = 0.0;
+    double velocity = 0.5;
+    for (int i = 0; i < size; i++) {
+      double acceleration = 3.0 * i * dt;
+      states.set(i, i * dt, velocity, acceleration, x, 0.0, 0.0, 0.0, 0.0);
+      x += velocity * dt + 0.5 * acceleration * dt * dt;
+      velocity += acceleration * dt;
+    }
+    var trajectory = new PratsTrajectory(states);
+
+    var result = new TrajectoryDecimator(kPositionTolerance, 0.01, kVelocityTolerance, 100.0).decimate(trajectory);
+    assertTrue(result.getCompressionRatio() > 1.0, "Nothing was dropped");
+    assertSamplesWithinTolerance(trajectory, result.getTrajectory());
+  }
+
+  /**
+   * Checks that the decimated trajectory samples like the original one at the
+   * time of every original state.
+   */
+  private static void assertSamplesWithinTolerance(PratsTrajectory original, PratsTrajectory decimated) {
+    for (PratsTrajectory.State state : original.getStates()) {
+      var expected = original.sample(state.timeSeconds);
+      var sampled = decimated.sample(state.timeSeconds);
+      assertTrue(Math.hypot(sampled.poseMeters.getX() - expected.poseMeters.getX(),
+          sampled.poseMeters.getY() - expected.poseMeters.getY()) <= kPositionTolerance,
+          "Position out of tolerance at " + state.timeSeconds);
+      assertEquals(expected.velocityMetersPerSecond, sampled.velocityMetersPerSecond, kVelocityTolerance,
+          "Velocity out of tolerance at " + state.timeSeconds);
+    }
+  }
+
+  @Test
+  public void negativeToleranceIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new TrajectoryDecimator(0.01, -0.01, 0.02, 0.05),
+        "Negative tolerance was accepted");
+  }
+}
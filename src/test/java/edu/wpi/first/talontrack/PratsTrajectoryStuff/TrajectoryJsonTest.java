@@ -0,0 +1,229 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.wpi.first.math.WPIMathJNI;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class TrajectoryJsonTest {
+  /**
+   * The states of the wpilib-trajectory.json fixture, seven elements each in
+   * WPIMathJNI's order: time, velocity, acceleration, x, y, heading and
+   * curvature. The fixture is what WPIMathJNI.toPathweaverJson writes for them,
+   * which {@link #fixtureMatchesWpilibWriter()} checks wherever the WPILib
+   * natives load.
+   */
+  private static final double[] kWpilibElements = {
+      0.0, 0.0, 2.5, 1.0, 2.0, 0.0, 0.0,
+      0.49, 1.2247, -1e-05, 1.75, 2.0, -1.5, 0.125,
+      1.1, 0.0001, -3.0, 12345.678, -0.1, 3.0, -2.0};
+  private static final boolean kWpilibNatives = loadWpilibNatives();
+
+  @TempDir
+  Path m_tempDir;
+
+  private final PratsTrajectory m_trajectory = PratsTrajectoryGenerator.generateTrajectory(
+      List.of(
+          new PratsPose2d(1.0, 1.0, new Rotation2d(0.0), new Rotation2d(0.0)),
+          new PratsPose2d(3.0, 2.0, new Rotation2d(1.2), new Rotation2d(0.6)),
+          new PratsPose2d(5.0, 1.5, new Rotation2d(-2.5), new Rotation2d(-0.4)),
+          new PratsPose2d(7.0, 3.0, new Rotation2d(2.0), new Rotation2d(1.0))),
+      new PratsTrajectoryConfig(4.0, 3.0));
+
+  @Test
+  public void readsWpilibFixture() throws IOException {
+    var states = PratsTrajectoryUtil.deserializeTrajectory(readWpilibFixture()).toPrimitive();
+    assertEquals(kWpilibElements.length / 7, states.size(), "Wrong number of states");
+    assertElementsEqual(kWpilibElements, states);
+    for (int i = 0; i < states.size(); i++) {
+      assertEquals(states.getHeadingRadians(i), states.getTangentRadians(i), 0.0,
+          "Tangent should default to the rotation at " + i);
+    }
+  }
+
+  @Test
+  public void fixtureMatchesWpilibWriter() throws IOException {
+    assumeTrue(kWpilibNatives, "WPILib natives are not available");
+    var path = m_tempDir.resolve("fixture.wpilib.json");
+    WPIMathJNI.toPathweaverJson(kWpilibElements, path.toString());
+    assertEquals(readWpilibFixture().strip(), Files.readString(path).strip(),
+        "Fixture differs from what WPILib writes; regenerate it with WPIMathJNI.toPathweaverJson");
+  }
+
+  @Test
+  public void wpilibReadsExport() throws IOException {
+    assumeTrue(kWpilibNatives, "WPILib natives are not available");
+    var path = m_tempDir.resolve("path.wpilib.json");
+    PratsTrajectoryUtil.toPathweaverJson(m_trajectory, path);
+    var states = m_trajectory.toPrimitive();
+    // WPILib skips the nested "tangent" in each pose.
+    assertElementsEqual(WPIMathJNI.fromPathweaverJson(path.toString()), states);
+    assertElementsEqual(WPIMathJNI.deserializeTrajectory(PratsTrajectoryUtil.serializeTrajectory(m_trajectory)),
+        states);
+  }
+
+  @Test
+  public void roundTripsBothRotations() {
+    var read = PratsTrajectoryUtil.deserializeTrajectory(PratsTrajectoryUtil.serializeTrajectory(m_trajectory));
+    assertStatesEqual(m_trajectory.toPrimitive(), read.toPrimitive());
+  }
+
+  @Test
+  public void roundTripsFiles() throws IOException {
+    var path = m_tempDir.resolve("path.wpilib.json");
+    PratsTrajectoryUtil.toPathweaverJson(m_trajectory, path);
+    assertStatesEqual(m_trajectory.toPrimitive(), PratsTrajectoryUtil.fromPathweaverJson(path).toPrimitive());
+  }
+
+  @Test
+  public void readsUniformExport() throws IOException {
+    var path = m_tempDir.resolve("path" + PratsTrajectoryUtil.kUniformExtension);
+    PratsTrajectoryUtil.toUniformPathweaverJson(m_trajectory, 0.02, path);
+    assertStatesEqual(PratsTrajectoryUtil.resample(m_trajectory, 0.02),
+        PratsTrajectoryUtil.fromPathweaverJson(path).toPrimitive());
+  }
+
+  @Test
+  public void resampledWpilibExportIsArray() throws IOException {
+    var states = PratsTrajectoryUtil.resample(m_trajectory, 0.02);
+    var path = m_tempDir.resolve("path.wpilib.json");
+    PratsTrajectoryUtil.toPathweaverJson(new PratsTrajectory(states), path);
+    assertTrue(Files.readString(path).startsWith("["), "WPILib export should be a JSON array");
+    assertStatesEqual(states, PratsTrajectoryUtil.fromPathweaverJson(path).toPrimitive());
+  }
+
+  @Test
+  public void skipsUnknownFields() {
+    var json = "{\"version\":[1,{\"a\":null}],\"states\": [ {\"extra\":{\"nested\":[true,false,\"s\\\"\"]},"
+        + "\"time\":1.0,\"velocity\":2.0,\"acceleration\":3.0,\"curvature\":4.0,\"pose\":{\"translation\":"
+        + "{\"x\":5.0,\"y\":6.0,\"z\":0},\"rotation\":{\"radians\":0.5},\"tangent\":{\"radians\":0.25}}} ] }";
+    var state = PratsTrajectoryUtil.deserializeTrajectory(json).getStates().get(0);
+    assertEquals(1.0, state.timeSeconds, 0.0, "Wrong time");
+    assertEquals(6.0, state.poseMeters.getY(), 0.0, "Wrong y");
+    assertEquals(0.25, state.poseMeters.getTangent().getRadians(), 0.0, "Wrong tangent");
+  }
+
+  @Test
+  public void decodesEscapesAndUtf8() {
+    var json = "[{\"\\u0074ime\":1.0,\"veloc\\u0069ty\":2.0,\"acceleration\":3.0,\"curvature\":4.0,"
+        + "\"note\":\"caf\u00e9 \ud83e\udd16 \\\"\\\\\\/\\b\\f\\n\\r\\t\\ud83e\\udd16\","
+        + "\"p\\u006fse\":{\"translation\":{\"x\":5.0,\"y\":6.0},\"rotation\":{\"radians\":0.5}}}]";
+    var state = PratsTrajectoryUtil.deserializeTrajectory(json).getStates().get(0);
+    assertEquals(1.0, state.timeSeconds, 0.0, "Escaped time key should be read");
+    assertEquals(2.0, state.velocityMetersPerSecond, 0.0, "Escaped velocity key should be read");
+    assertEquals(5.0, state.poseMeters.getX(), 0.0, "Escaped pose key should be read");
+  }
+
+  @Test
+  public void rejectsInvalidStrings() {
+    for (String key : List.of("\\x", "\\u00g0", "\\u00", "tab\there")) {
+      assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class,
+          () -> PratsTrajectoryUtil.deserializeTrajectory("[{\"" + key + "\":1.0}]"), "Key " + key);
+    }
+    // A lone continuation byte, a truncated sequence and an overlong '/'.
+    for (byte[] bytes : List.of(new byte[] {(byte) 0x80}, new byte[] {(byte) 0xE2, (byte) 0x82},
+        new byte[] {(byte) 0xC0, (byte) 0xAF})) {
+      var json = new ByteArrayOutputStream();
+      json.writeBytes("[{\"".getBytes(StandardCharsets.US_ASCII));
+      json.writeBytes(bytes);
+      json.writeBytes("\":1.0}]".getBytes(StandardCharsets.US_ASCII));
+      assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class,
+          () -> TrajectoryJson.read(Channels.newChannel(new ByteArrayInputStream(json.toByteArray()))),
+          "Invalid UTF-8 " + Arrays.toString(bytes));
+    }
+  }
+
+  @Test
+  public void rejectsTrailingData() throws IOException {
+    var wpilibJson = readWpilibFixture();
+    assertEquals(3, PratsTrajectoryUtil.deserializeTrajectory(wpilibJson + " \n\t").getStates().size(),
+        "Trailing whitespace should be allowed");
+    for (String trailing : List.of("garbage", ",", "[]", "]", "{\"states\":[]}")) {
+      assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class,
+          () -> PratsTrajectoryUtil.deserializeTrajectory(wpilibJson + trailing), "Trailing " + trailing);
+    }
+    assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class,
+        () -> PratsTrajectoryUtil.deserializeTrajectory("{\"states\":[]} x"), "Trailing data after an object");
+  }
+
+  @Test
+  public void rejectsMalformedJson() throws IOException {
+    var wpilibJson = readWpilibFixture();
+    assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class,
+        () -> PratsTrajectoryUtil.deserializeTrajectory("[{\"time\":1.0}]"), "State with missing fields");
+    assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class,
+        () -> PratsTrajectoryUtil.deserializeTrajectory(wpilibJson.substring(0, 100)), "Truncated JSON");
+    assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class,
+        () -> PratsTrajectoryUtil.deserializeTrajectory("{\"uniform\":true}"), "Object without states");
+    assertThrows(PratsTrajectoryUtil.TrajectorySerializationException.class,
+        () -> PratsTrajectoryUtil.deserializeTrajectory("{\"uniform\":maybe,\"states\":[]}"), "Unknown literal");
+  }
+
+  /**
+   * Loads the WPILib natives without letting a failure exit the JVM, which is
+   * what loading them on first use does.
+   */
+  private static boolean loadWpilibNatives() {
+    try {
+      WPIMathJNI.Helper.setExtractOnStaticLoad(false);
+      WPIMathJNI.forceLoad();
+      return true;
+    } catch (IOException | LinkageError e) {
+      return false;
+    }
+  }
+
+  private static String readWpilibFixture() throws IOException {
+    try (var in = TrajectoryJsonTest.class.getResourceAsStream("wpilib-trajectory.json")) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  /** Compares WPIMathJNI elements, seven per state, with a trajectory. */
+  private static void assertElementsEqual(double[] elements, PrimitiveTrajectory states) {
+    assertEquals(states.size() * 7, elements.length, "Different number of elements");
+    for (int i = 0; i < states.size(); i++) {
+      assertEquals(elements[i * 7], states.getTimeSeconds(i), 0.0, "Time differs at " + i);
+      assertEquals(elements[i * 7 + 1], states.getVelocityMetersPerSecond(i), 0.0, "Velocity differs at " + i);
+      assertEquals(elements[i * 7 + 2], states.getAccelerationMetersPerSecondSq(i), 0.0,
+          "Acceleration differs at " + i);
+      assertEquals(elements[i * 7 + 3], states.getX(i), 0.0, "X differs at " + i);
+      assertEquals(elements[i * 7 + 4], states.getY(i), 0.0, "Y differs at " + i);
+      assertEquals(elements[i * 7 + 5], states.getHeadingRadians(i), 0.0, "Heading differs at " + i);
+      assertEquals(elements[i * 7 + 6], states.getCurvatureRadPerMeter(i), 0.0, "Curvature differs at " + i);
+    }
+  }
+
+  private static void assertStatesEqual(PrimitiveTrajectory expected, PrimitiveTrajectory actual) {
+    assertEquals(expected.size(), actual.size(), "Different number of states");
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.getTimeSeconds(i), actual.getTimeSeconds(i), 0.0, "Time differs at " + i);
+      assertEquals(expected.getVelocityMetersPerSecond(i), actual.getVelocityMetersPerSecond(i), 0.0,
+          "Velocity differs at " + i);
+      assertEquals(expected.getAccelerationMetersPerSecondSq(i), actual.getAccelerationMetersPerSecondSq(i), 0.0,
+          "Acceleration differs at " + i);
+      assertEquals(expected.getX(i), actual.getX(i), 0.0, "X differs at " + i);
+      assertEquals(expected.getY(i), actual.getY(i), 0.0, "Y differs at " + i);
+      assertEquals(expected.getHeadingRadians(i), actual.getHeadingRadians(i), 0.0, "Heading differs at " + i);
+      assertEquals(expected.getTangentRadians(i), actual.getTangentRadians(i), 0.0, "Tangent differs at " + i);
+      assertEquals(expected.getCurvatureRadPerMeter(i), actual.getCurvatureRadPerMeter(i), 0.0,
+          "Curvature differs at " + i);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TrajectorySamplerTest {
+  private final PratsTrajectory m_trajectory = PratsTrajectoryGenerator.generateTrajectory(
+      List.of(
+          new PratsPose2d(1.0, 1.0, new Rotation2d(0.0), new Rotation2d(0.0)),
+          new PratsPose2d(3.0, 2.0, new Rotation2d(1.2), new Rotation2d(0.6)),
+          new PratsPose2d(5.0, 1.5, new Rotation2d(-2.5), new Rotation2d(-0.4)),
+          new PratsPose2d(7.0, 3.0, new Rotation2d(2.0), new Rotation2d(1.0))),
+      new PratsTrajectoryConfig(4.0, 3.0));
+
+  @Test
+  public void forwardSamplingMatchesSample() {
+    TrajectorySampler sampler = new TrajectorySampler(m_trajectory);
+    TrajectorySampler.MutableState state = new TrajectorySampler.MutableState();
+    double total = m_trajectory.getTotalTimeSeconds();
+    for (double t = -0.1; t < total + 0.1; t += 0.005) {
+      assertSameState(m_trajectory.sample(t), sampler.sample(t, state), t);
+    }
+  }
+
+  @Test
+  public void randomSamplingMatchesSample() {
+    TrajectorySampler sampler = new TrajectorySampler(m_trajectory);
+    TrajectorySampler.MutableState state = new TrajectorySampler.MutableState();
+    Random random = new Random(254);
+    for (int i = 0; i < 2000; i++) {
+      double t = random.nextDouble() * m_trajectory.getTotalTimeSeconds();
+      assertSameState(m_trajectory.sample(t), sampler.sample(t, state), t);
+    }
+  }
+
+  private static void assertSameState(PratsTrajectory.State expected, TrajectorySampler.MutableState actual,
+      double time) {
+    assertEquals(expected.timeSeconds, actual.timeSeconds, 1E-9, "Time differs at " + time);
+    assertEquals(expected.velocityMetersPerSecond, actual.velocityMetersPerSecond, 1E-9,
+        "Velocity differs at " + time);
+    assertEquals(expected.accelerationMetersPerSecondSq, actual.accelerationMetersPerSecondSq, 1E-9,
+        "Acceleration differs at " + time);
+    assertEquals(expected.poseMeters.getX(), actual.xMeters, 1E-9, "X differs at " + time);
+    assertEquals(expected.poseMeters.getY(), actual.yMeters, 1E-9, "Y differs at " + time);
+    assertEquals(expected.poseMeters.getRotation().getRadians(), actual.headingRadians, 1E-9,
+        "Heading differs at " + time);
+    assertEquals(expected.poseMeters.getTangent().getRadians(), actual.tangentRadians, 1E-9,
+        "Tangent differs at " + time);
+    assertEquals(expected.curvatureRadPerMeter, actual.curvatureRadPerMeter, 1E-9,
+        "Curvature differs at " + time);
+  }
+}
@@ -0,0 +1,45 @@
+package edu.wpi.first.talontrack.PratsTrajectoryStuff;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TrajectoryViewTest {
+  private final PratsTrajectory m_first = PratsTrajectoryGenerator.generateTrajectory(
+      List.of(
+          new PratsPose2d(1.0, 1.0, new Rotation2d(0.0), new Rotation2d(0.0)),
+          new PratsPose2d(3.0, 2.0, new Rotation2d(1.2), new Rotation2d(0.6)),
+          new PratsPose2d(5.0, 1.5, new Rotation2d(-2.5), new Rotation2d(-0.4))),
+      new PratsTrajectoryConfig(4.0, 3.0));
+  private final PratsTrajectory m_second = PratsTrajectoryGenerator.generateTrajectory(
+      List.of(
+          new PratsPose2d(5.0, 1.5, new Rotation2d(-2.5), new Rotation2d(-0.4)),
+          new PratsPose2d(7.0, 3.0, new Rotation2d(2.0), new Rotation2d(1.0))),
+      new PratsTrajectoryConfig(4.0, 3.0));
+  private final PratsTransform2d m_transform = new PratsTransform2d(
+      new Translation2d(1.0, 2.0), new Rotation2d(0.3), new Rotation2d(0.3));
+  private final PratsPose2d m_origin = new PratsPose2d(2.0, 1.0, new Rotation2d(0.5), new Rotation2d(0.2));
+
+  @Test
+  public void viewMatchesEagerTransforms() {
+    // Check both a columnar trajectory and one backed by a list of states.
+    List<PratsTrajectory> sources = List.of(m_first, new PratsTrajectory(new ArrayList<>(m_first.getStates())));
+    for (PratsTrajectory source : sources) {
+      PratsTrajectory eager = source.transformBy(m_transform).concatenate(m_second.relativeTo(m_origin));
+      TrajectoryView view = source.view().transformBy(m_transform).concatenate(m_second.view().relativeTo(m_origin));
+
+      assertEquals(eager.getStates().size(), view.size(), "Different number of states");
+      assertEquals(eager.getTotalTimeSeconds(), view.getTotalTimeSeconds(), 0.0, "Different total time");
+      assertEquals(eager, view.toTrajectory(), "Materialized view differs");
+      for (double t = -0.1; t < eager.getTotalTimeSeconds() + 0.1; t += 0.01) {
+        assertEquals(eager.sample(t), view.sample(t), "Sample differs at " + t);
+      }
+    }
+  }
+}
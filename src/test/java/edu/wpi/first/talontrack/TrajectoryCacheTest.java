@@ -0,0 +1,124 @@
+package edu.wpi.first.talontrack;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PratsTrajectory;
+import edu.wpi.first.talontrack.PratsTrajectoryStuff.PrimitiveTrajectory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrajectoryCacheTest {
+
+  private ProjectPreferences preferences;
+  private Path directory;
+  private TrajectoryCache cache;
+  private List<Waypoint> waypoints;
+  private PratsTrajectory trajectory;
+
+  @BeforeEach
+  public void initialize(@TempDir Path temp) {
+    preferences = ProjectPreferences.getInstance(temp.toAbsolutePath().toString());
+    directory = temp.resolve("Cache");
+    cache = new TrajectoryCache(directory);
+    waypoints = List.of(
+        new Waypoint(new Point2D(0, 0), new Point2D(1, 0), new Point2D(1, 0), true, false),
+        new Waypoint(new Point2D(5, 2), new Point2D(1, 1), new Point2D(0, 1), true, false));
+    PrimitiveTrajectory states = new PrimitiveTrajectory(3);
+    states.set(0, 0.0, 0.0, 2.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+    states.set(1, 0.5, 1.0, 0.0, 0.25, 0.1, 0.2, 0.3, 0.4);
+    states.set(2, 1.0, 1.0, -2.0, 0.75, 0.2, 0.4, 0.6, 0.0);
+    trajectory = new PratsTrajectory(states);
+  }
+
+  @Test
+  public void keyIsStable() {
+    String key = TrajectoryCache.key(waypoints, preferences);
+    assertEquals(64, key.length(), "Key should be a hex encoded SHA-256");
+    assertEquals(key, TrajectoryCache.key(List.of(waypoints.get(0).copy(), waypoints.get(1).copy()), preferences),
+        "Equal waypoints should have the same key");
+  }
+
+  @Test
+  public void keyChangesWithWaypointsAndPreferences() {
+    String key = TrajectoryCache.key(waypoints, preferences);
+    Waypoint moved = waypoints.get(1).copy();
+    moved.setX(moved.getX() + 0.01);
+    assertNotEquals(key, TrajectoryCache.key(List.of(waypoints.get(0), moved), preferences),
+        "Moved waypoint should change the key");
+
+    preferences.setValues(new ProjectPreferences.Values("FOOT", "Always Meters", 11.0, 60.0, 2.0, 2.0, 2.0, 2.0,
+        Game.INFINTE_RECHARGE_2020.getName(), null, null));
+    assertNotEquals(key, TrajectoryCache.key(waypoints, preferences), "Changed max velocity should change the key");
+  }
+
+  @Test
+  public void storedTrajectoryLoads() {
+    String key = TrajectoryCache.key(waypoints, preferences);
+    assertNull(cache.load(key), "Empty cache should miss");
+    cache.store(key, trajectory);
+    PratsTrajectory loaded = cache.load(key);
+    assertNotNull(loaded, "Stored entry should hit");
+    assertEquals(trajectory.getStates(), loaded.getStates(), "Loaded states differ");
+  }
+
+  @Test
+  public void changedPreferencesMiss() {
+    cache.store(TrajectoryCache.key(waypoints, preferences), trajectory);
+    preferences.setValues(new ProjectPreferences.Values("FOOT", "Always Meters", 10.0, 60.0, 2.5, 2.0, 2.0, 2.0,
+        Game.INFINTE_RECHARGE_2020.getName(), null, null));
+    assertNull(cache.load(TrajectoryCache.key(waypoints, preferences)), "Changed track width should miss");
+  }
+
+  @Test
+  public void truncatedOrCorruptEntryMisses() throws IOException {
+    String key = TrajectoryCache.key(waypoints, preferences);
+    cache.store(key, trajectory);
+    Path file = directory.resolve(key + ".traj");
+    byte[] contents = Files.readAllBytes(file);
+
+    Files.write(file, Arrays.copyOf(contents, contents.length - 8));
+    assertNull(cache.load(key), "Truncated entry should miss");
+
+    byte[] badMagic = contents.clone();
+    badMagic[0] ^= 0x55;
+    Files.write(file, badMagic);
+    assertNull(cache.load(key), "Entry with a bad magic number should miss");
+
+    Files.write(file, Arrays.copyOf(contents, contents.length + 8));
+    assertNull(cache.load(key), "Entry with trailing bytes should miss");
+  }
+
+  @Test
+  public void retainDeletesUnusedEntries() {
+    String used = TrajectoryCache.key(waypoints, preferences);
+    String unused = TrajectoryCache.key(List.of(waypoints.get(1), waypoints.get(0)), preferences);
+    cache.store(used, trajectory);
+    cache.store(unused, trajectory);
+
+    assertEquals(1, cache.retain(Set.of(used)), "Only the unused entry should be deleted");
+    assertNotNull(cache.load(used), "Used entry should be kept");
+    assertFalse(Files.exists(directory.resolve(unused + ".traj")), "Unused entry should be deleted");
+    assertTrue(Files.exists(directory.resolve(used + ".traj")), "Used entry should be kept");
+  }
+
+  @Test
+  public void retainWithoutCacheDirectory() {
+    assertEquals(0, new TrajectoryCache(directory.resolve("missing")).retain(Set.of()),
+        "Missing cache should delete nothing");
+  }
+}
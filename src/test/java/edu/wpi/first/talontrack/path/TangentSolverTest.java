@@ -0,0 +1,104 @@
+package edu.wpi.first.talontrack.path;
+
+import javafx.geometry.Point2D;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TangentSolverTest {
+    private static final int SIZE = 200;
+
+    @Test
+    public void localMatchesRawThetaOptimization() {
+        Random random = new Random(19);
+        double[] x = new double[SIZE];
+        double[] y = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            x[i] = 2.0 * i + random.nextDouble();
+            y[i] = 3.0 * random.nextGaussian();
+        }
+        double[] tangentX = new double[SIZE];
+        double[] tangentY = new double[SIZE];
+        TangentSolver.solveLocal(x, y, new boolean[SIZE], tangentX, tangentY);
+
+        for (int i = 1; i < SIZE - 1; i++) {
+            Point2D expected = PathUtil.rawThetaOptimization(new Point2D(x[i - 1], y[i - 1]),
+                    new Point2D(x[i], y[i]), new Point2D(x[i + 1], y[i + 1]));
+            double tolerance = 1e-9 * Math.hypot(expected.getX(), expected.getY());
+            assertEquals(expected.getX(), tangentX[i], tolerance, "Tangent x differs at " + i);
+            assertEquals(expected.getY(), tangentY[i], tolerance, "Tangent y differs at " + i);
+        }
+    }
+
+    @Test
+    public void fixedTangentsAreKept() {
+        double[] x = {0, 1, 2, 3, 4};
+        double[] y = {0, 1, 0, 1, 0};
+        boolean[] locked = {false, false, true, false, false};
+        for (boolean smooth : new boolean[] {false, true}) {
+            double[] tangentX = {5, 0, 6, 0, 7};
+            double[] tangentY = {-5, 0, -6, 0, -7};
+            solve(smooth, x, y, locked, tangentX, tangentY);
+            assertEquals(5, tangentX[0], 0, "First tangent changed");
+            assertEquals(6, tangentX[2], 0, "Locked tangent changed");
+            assertEquals(7, tangentX[4], 0, "Last tangent changed");
+            assertEquals(-6, tangentY[2], 0, "Locked tangent changed");
+        }
+    }
+
+    @Test
+    public void smoothIsC2AtUnlockedWaypoints() {
+        Random random = new Random(20);
+        double[] x = new double[SIZE];
+        double[] y = new double[SIZE];
+        boolean[] locked = new boolean[SIZE];
+        double[] tangentX = new double[SIZE];
+        double[] tangentY = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            x[i] = 2.0 * i + random.nextDouble();
+            y[i] = 3.0 * random.nextGaussian();
+            locked[i] = i % 7 == 3;
+            tangentX[i] = random.nextGaussian();
+            tangentY[i] = random.nextGaussian();
+        }
+        TangentSolver.solveSmooth(x, y, locked, tangentX, tangentY);
+
+        for (int i = 1; i < SIZE - 1; i++) {
+            if (locked[i]) {
+                continue;
+            }
+            // The second derivatives of the cubic hermite segments meeting at i.
+            double endX = 6 * (x[i - 1] - x[i]) + 2 * tangentX[i - 1] + 4 * tangentX[i];
+            double startX = 6 * (x[i + 1] - x[i]) - 4 * tangentX[i] - 2 * tangentX[i + 1];
+            double endY = 6 * (y[i - 1] - y[i]) + 2 * tangentY[i - 1] + 4 * tangentY[i];
+            double startY = 6 * (y[i + 1] - y[i]) - 4 * tangentY[i] - 2 * tangentY[i + 1];
+            assertEquals(endX, startX, 1e-9, "Second derivative x is discontinuous at " + i);
+            assertEquals(endY, startY, 1e-9, "Second derivative y is discontinuous at " + i);
+        }
+    }
+
+    @Test
+    public void evenlySpacedLineHasEqualTangents() {
+        double[] x = {0, 1, 2, 3, 4, 5};
+        double[] y = {0, 0, 0, 0, 0, 0};
+        double[] tangentX = {1, 0, 0, 0, 0, 1};
+        double[] tangentY = new double[6];
+        TangentSolver.solveSmooth(x, y, new boolean[6], tangentX, tangentY);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(1, tangentX[i], 1e-12, "Tangent x differs at " + i);
+            assertEquals(0, tangentY[i], 1e-12, "Tangent y differs at " + i);
+        }
+    }
+
+    private static void solve(boolean smooth, double[] x, double[] y, boolean[] locked, double[] tangentX,
+            double[] tangentY) {
+        if (smooth) {
+            TangentSolver.solveSmooth(x, y, locked, tangentX, tangentY);
+        } else {
+            TangentSolver.solveLocal(x, y, locked, tangentX, tangentY);
+        }
+    }
+}